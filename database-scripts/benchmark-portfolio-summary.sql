@@ -0,0 +1,61 @@
+-- ============================================
+-- BENCHMARK: RESUMO DA CARTEIRA (N+1 x CONSULTA ÚNICA)
+-- ============================================
+-- Compara o caminho antigo de InvestmentPortfolioService.getPortfolioSummary (posições do usuário e, para
+-- cada uma, uma busca do ativo e outra da categoria; tudo isso duas vezes) com a consulta única de
+-- UserAssetDAO.findOpenPositionsWithAsset, em tabelas temporárias. Rodar no psql com \timing on.
+-- Volume: 2 mil usuários com 500 posições cada, 1.000 ativos em 10 categorias.
+
+CREATE TEMP TABLE bench_asset_category (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL
+);
+
+CREATE TEMP TABLE bench_asset (
+    id SERIAL PRIMARY KEY,
+    ticker VARCHAR(10) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    category_id INT NOT NULL REFERENCES bench_asset_category (id)
+);
+
+CREATE TEMP TABLE bench_user_asset (
+    id SERIAL PRIMARY KEY,
+    user_id INT NOT NULL,
+    asset_id INT NOT NULL REFERENCES bench_asset (id),
+    quantity NUMERIC(18, 8) NOT NULL,
+    average_price NUMERIC(18, 8) NOT NULL,
+    UNIQUE (user_id, asset_id)
+);
+
+INSERT INTO bench_asset_category (name) SELECT 'Categoria ' || g FROM generate_series(1, 10) g;
+INSERT INTO bench_asset (ticker, name, category_id)
+SELECT 'AT' || g, 'Ativo ' || g, 1 + g % 10 FROM generate_series(1, 1000) g;
+INSERT INTO bench_user_asset (user_id, asset_id, quantity, average_price)
+SELECT u, a, (random() * 100)::NUMERIC(18, 8), (random() * 50 + 1)::NUMERIC(18, 8)
+FROM generate_series(1, 2000) u, generate_series(1, 500) a;
+CREATE INDEX ON bench_user_asset (user_id);
+ANALYZE bench_asset_category;
+ANALYZE bench_asset;
+ANALYZE bench_user_asset;
+
+-- 1) Caminho antigo: 1 + 2N consultas, repetido para a distribuição por categoria (4N + 2 no total)
+DO $$
+DECLARE
+    p RECORD;
+    asset_row RECORD;
+    category_row RECORD;
+BEGIN
+    FOR pass IN 1..2 LOOP
+        FOR p IN SELECT * FROM bench_user_asset WHERE user_id = 42 ORDER BY id LOOP
+            SELECT * INTO asset_row FROM bench_asset WHERE id = p.asset_id;
+            SELECT * INTO category_row FROM bench_asset_category WHERE id = asset_row.category_id;
+        END LOOP;
+    END LOOP;
+END $$;
+
+-- 2) Consulta única (os totais e percentuais são calculados em memória numa só passada)
+SELECT a.id, a.ticker, a.name, c.id, c.name, ua.quantity, ua.average_price
+FROM bench_user_asset ua
+JOIN bench_asset a ON a.id = ua.asset_id
+JOIN bench_asset_category c ON c.id = a.category_id
+WHERE ua.user_id = 42 AND ua.quantity > 0;
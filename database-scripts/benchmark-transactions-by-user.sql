@@ -0,0 +1,70 @@
+-- ============================================
+-- BENCHMARK: EXTRATO POR USUÁRIO (OR + DISTINCT x UNION ALL)
+-- ============================================
+-- Compara a consulta antiga de TransactionDAO.findByUserId com a nova em tabelas temporárias
+-- (nada é gravado nas tabelas reais). Rodar no psql com \timing on.
+-- Volume: 200 mil usuários, 400 mil contas, 5 milhões de transações.
+
+CREATE TEMP TABLE bench_accounts (
+    account_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL
+);
+
+CREATE TEMP TABLE bench_transactions (
+    transaction_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    source_account_id UUID NOT NULL,
+    destination_account_id UUID,
+    amount NUMERIC(15, 2) NOT NULL,
+    description VARCHAR(255),
+    transaction_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TEMP TABLE bench_users AS
+SELECT gen_random_uuid() AS user_id FROM generate_series(1, 200000);
+
+INSERT INTO bench_accounts (user_id)
+SELECT user_id FROM bench_users, generate_series(1, 2);
+
+CREATE TEMP TABLE bench_account_ids AS
+SELECT row_number() OVER () AS n, account_id FROM bench_accounts;
+CREATE INDEX ON bench_account_ids (n);
+
+INSERT INTO bench_transactions (source_account_id, destination_account_id, amount, description, transaction_date, created_at)
+SELECT src.account_id,
+       CASE WHEN g % 3 = 0 THEN NULL ELSE dst.account_id END,
+       (random() * 1000 + 1)::NUMERIC(15, 2),
+       'Transação de teste ' || g,
+       DATE '2020-01-01' + (g % 2000),
+       TIMESTAMP '2020-01-01' + (g || ' seconds')::INTERVAL
+FROM generate_series(1, 5000000) g
+JOIN bench_account_ids src ON src.n = 1 + (g * 7919) % 400000
+JOIN bench_account_ids dst ON dst.n = 1 + (g * 104729) % 400000;
+
+CREATE INDEX ON bench_accounts (user_id);
+CREATE INDEX ON bench_transactions (source_account_id, transaction_date DESC, created_at DESC, transaction_id DESC);
+CREATE INDEX ON bench_transactions (destination_account_id, transaction_date DESC, created_at DESC, transaction_id DESC);
+ANALYZE bench_accounts;
+ANALYZE bench_transactions;
+
+-- Usuário de exemplo
+SELECT user_id AS bench_user FROM bench_accounts LIMIT 1 \gset
+
+-- Consulta antiga
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT t.* FROM bench_transactions t
+INNER JOIN bench_accounts a1 ON t.source_account_id = a1.account_id
+LEFT JOIN bench_accounts a2 ON t.destination_account_id = a2.account_id
+WHERE a1.user_id = :'bench_user' OR a2.user_id = :'bench_user'
+ORDER BY t.transaction_date DESC, t.created_at DESC;
+
+-- Consulta nova
+EXPLAIN (ANALYZE, BUFFERS)
+WITH user_accounts AS (SELECT account_id FROM bench_accounts WHERE user_id = :'bench_user')
+SELECT t.* FROM bench_transactions t
+WHERE t.source_account_id IN (SELECT account_id FROM user_accounts)
+UNION ALL
+SELECT t.* FROM bench_transactions t
+WHERE t.destination_account_id IN (SELECT account_id FROM user_accounts)
+AND t.source_account_id NOT IN (SELECT account_id FROM user_accounts)
+ORDER BY transaction_date DESC, created_at DESC;
@@ -0,0 +1,69 @@
+-- ============================================
+-- BENCHMARK: IMPORTAÇÃO DE EXTRATO (POR LINHA x COPY + DELTA LÍQUIDO)
+-- ============================================
+-- Compara o caminho de POST /api/transactions (três buscas, um UPDATE de saldo e um INSERT por linha)
+-- com o de POST /api/transactions/import (COPY em CSV e um UPDATE por conta a cada lote de 5 mil linhas),
+-- em tabelas temporárias. Rodar no psql com \timing on; linhas/s = 100000 / tempo do bloco em segundos.
+-- O endpoint de importação também devolve importedCount, elapsedMillis e rowsPerSecond na resposta.
+
+CREATE TEMP TABLE bench_accounts (
+    account_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    balance NUMERIC(15, 2) NOT NULL DEFAULT 1000000000,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE'
+);
+
+CREATE TEMP TABLE bench_categories (
+    category_id SERIAL PRIMARY KEY
+);
+
+CREATE TEMP TABLE bench_transactions (
+    transaction_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    source_account_id UUID NOT NULL,
+    category_id INTEGER,
+    amount NUMERIC(15, 2) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    transaction_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO bench_accounts DEFAULT VALUES;
+INSERT INTO bench_accounts DEFAULT VALUES;
+INSERT INTO bench_categories SELECT FROM generate_series(1, 20);
+
+CREATE TEMP TABLE bench_rows AS
+SELECT (SELECT account_id FROM bench_accounts ORDER BY account_id LIMIT 1 OFFSET g % 2) AS source_account_id,
+       1 + g % 20 AS category_id,
+       (CASE WHEN g % 4 = 0 THEN 1 ELSE -1 END * (random() * 500 + 1))::NUMERIC(15, 2) AS amount,
+       'Lançamento importado ' || g AS description,
+       DATE '2024-01-01' + (g % 365) AS transaction_date
+FROM generate_series(1, 100000) g;
+
+-- 1) Caminho por linha
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT * FROM bench_rows LOOP
+        PERFORM 1 FROM bench_accounts WHERE account_id = r.source_account_id;
+        PERFORM 1 FROM bench_categories WHERE category_id = r.category_id;
+        PERFORM balance FROM bench_accounts WHERE account_id = r.source_account_id;
+        UPDATE bench_accounts SET balance = balance + r.amount WHERE account_id = r.source_account_id;
+        INSERT INTO bench_transactions (source_account_id, category_id, amount, description, transaction_date)
+        VALUES (r.source_account_id, r.category_id, abs(r.amount), r.description, r.transaction_date);
+    END LOOP;
+END $$;
+
+TRUNCATE bench_transactions;
+
+-- 2) Caminho em lote: o psql faz o mesmo COPY ... FROM STDIN que TransactionDAO.copyIn
+\copy (SELECT source_account_id, category_id, abs(amount), description, transaction_date FROM bench_rows) TO '/tmp/bench_import.csv' WITH (FORMAT csv)
+
+BEGIN;
+UPDATE bench_accounts a
+SET balance = a.balance + v.delta
+FROM (SELECT source_account_id, SUM(amount) AS delta FROM bench_rows GROUP BY source_account_id) AS v
+WHERE a.account_id = v.source_account_id AND a.status = 'ACTIVE' AND (v.delta >= 0 OR a.balance + v.delta >= 0);
+\copy bench_transactions (source_account_id, category_id, amount, description, transaction_date) FROM '/tmp/bench_import.csv' WITH (FORMAT csv)
+COMMIT;
+
+SELECT COUNT(*) AS importadas FROM bench_transactions;
@@ -0,0 +1,32 @@
+-- =============================================
+-- Tabela de chaves de idempotência
+-- =============================================
+-- Guarda a resposta de cada operação financeira enviada com o header Idempotency-Key
+-- (PIX, pagamento de boleto e criação de transação). Uma nova tentativa com a mesma chave
+-- recebe a resposta gravada sem executar a operação de novo. A linha é gravada na mesma
+-- transação da operação, então só existe se a operação foi confirmada.
+-- A chave vale por operação (scope) e por dono (owner_id: conta de origem ou usuário), para que
+-- clientes diferentes que gerem a mesma chave não recebam a resposta um do outro.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    scope VARCHAR(50) NOT NULL,
+    owner_id VARCHAR(64) NOT NULL DEFAULT '',
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INT NOT NULL,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (scope, owner_id, idempotency_key)
+);
+
+-- Instalações criadas antes de owner_id: as chaves antigas ficam com dono vazio e expiram normalmente
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS owner_id VARCHAR(64) NOT NULL DEFAULT '';
+ALTER TABLE idempotency_keys DROP CONSTRAINT IF EXISTS pk_idempotency_keys;
+ALTER TABLE idempotency_keys ADD CONSTRAINT pk_idempotency_keys PRIMARY KEY (scope, owner_id, idempotency_key);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+-- Limpeza periódica (chaves só precisam sobreviver à janela de retry dos clientes). O cache em memória
+-- da aplicação expira as respostas no mesmo prazo (IDEMPOTENCY_KEY_RETENTION_DAYS):
+-- DELETE FROM idempotency_keys WHERE created_at < NOW() - INTERVAL '7 days';
@@ -0,0 +1,44 @@
+-- =============================================
+-- Lotes de compra e resultado realizado por ativo
+-- =============================================
+-- position_lot guarda cada compra com a quantidade ainda não vendida; as vendas consomem os lotes mais
+-- antigos primeiro (FIFO). realized_pnl é o acumulado das vendas por usuário, ativo e método de custo
+-- (AVERAGE = preço médio de user_asset, FIFO = custo dos lotes consumidos), atualizado na mesma transação
+-- da ordem. Para preencher o histórico já existente, enfileire o recálculo:
+--   POST /api/jobs/realized-pnl            (todos os usuários)
+--   POST /api/jobs/realized-pnl?userId=42  (um usuário)
+
+CREATE TABLE IF NOT EXISTS investments.position_lot (
+    id SERIAL PRIMARY KEY,
+    user_id INT NOT NULL,
+    asset_id INT NOT NULL REFERENCES investments.asset(id),
+    transaction_id INT NOT NULL,
+    acquired_at TIMESTAMP NOT NULL,
+    quantity NUMERIC(18, 8) NOT NULL,
+    remaining_quantity NUMERIC(18, 8) NOT NULL,
+    unit_cost NUMERIC(18, 8) NOT NULL,
+
+    CONSTRAINT chk_position_lot_remaining CHECK (remaining_quantity >= 0 AND remaining_quantity <= quantity)
+);
+
+-- Índice parcial: a venda só lê os lotes com saldo, na ordem de consumo
+CREATE INDEX IF NOT EXISTS idx_position_lot_open
+    ON investments.position_lot (user_id, asset_id, acquired_at, id)
+    WHERE remaining_quantity > 0;
+
+CREATE INDEX IF NOT EXISTS idx_position_lot_user
+    ON investments.position_lot (user_id);
+
+CREATE TABLE IF NOT EXISTS investments.realized_pnl (
+    user_id INT NOT NULL,
+    asset_id INT NOT NULL REFERENCES investments.asset(id),
+    cost_method VARCHAR(10) NOT NULL,
+    quantity_sold NUMERIC(20, 8) NOT NULL DEFAULT 0,
+    proceeds NUMERIC(20, 8) NOT NULL DEFAULT 0,
+    cost_basis NUMERIC(20, 8) NOT NULL DEFAULT 0,
+    realized_pnl NUMERIC(20, 8) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id, asset_id, cost_method),
+    CONSTRAINT chk_realized_pnl_method CHECK (cost_method IN ('AVERAGE', 'FIFO'))
+);
@@ -0,0 +1,11 @@
+-- ============================================
+-- ÍNDICE PARA PAGINAÇÃO POR CURSOR DO HISTÓRICO DE ORDENS
+-- ============================================
+-- GET /api/investments/user/{id}/orders lê as ordens do usuário na ordem
+-- (transaction_date DESC, id DESC) a partir do cursor da página anterior. Com este índice
+-- cada página lê só "limit + 1" linhas, independente do tamanho do histórico.
+
+CREATE INDEX IF NOT EXISTS idx_inv_transaction_user_keyset
+    ON investments.transaction (user_id, transaction_date DESC, id DESC);
+
+ANALYZE investments.transaction;
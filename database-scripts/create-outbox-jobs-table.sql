@@ -0,0 +1,30 @@
+-- =============================================
+-- Tabela de jobs assíncronos (outbox)
+-- =============================================
+-- Efeitos colaterais que não precisam estar no caminho crítico da requisição (ex.: provisionar conta,
+-- cartão e boletos iniciais de um novo usuário). O job é gravado na mesma transação da operação que o
+-- origina e executado depois pelo OutboxWorker, com novas tentativas e backoff exponencial.
+-- Status: PENDING -> RUNNING -> DONE, ou FAILED quando as tentativas se esgotam.
+
+CREATE TABLE IF NOT EXISTS outbox_jobs (
+    job_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    job_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL DEFAULT 5,
+    last_error TEXT,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_outbox_jobs_status CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'FAILED'))
+);
+
+-- Índice parcial: o worker só procura jobs pendentes ou travados em RUNNING
+CREATE INDEX IF NOT EXISTS idx_outbox_jobs_pending
+    ON outbox_jobs(available_at)
+    WHERE status IN ('PENDING', 'RUNNING');
+
+-- Limpeza periódica dos jobs concluídos:
+-- DELETE FROM outbox_jobs WHERE status = 'DONE' AND updated_at < NOW() - INTERVAL '7 days';
@@ -0,0 +1,34 @@
+-- =============================================
+-- NOTIFY nas tabelas de referência
+-- =============================================
+-- Cada escrita em categorias de transação, planos, ativos e categorias de ativo envia um NOTIFY no canal
+-- reference_data com o nome da tabela. Com REFERENCE_DATA_LISTEN=true, o ReferenceDataCache de cada
+-- instância escuta o canal e recarrega o catálogo na hora, em vez de esperar a recarga agendada.
+
+CREATE OR REPLACE FUNCTION notify_reference_data_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('reference_data', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS transaction_categories_notify ON transaction_categories;
+CREATE TRIGGER transaction_categories_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON transaction_categories
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_reference_data_change();
+
+DROP TRIGGER IF EXISTS subscription_plans_notify ON subscription_plans;
+CREATE TRIGGER subscription_plans_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON subscription_plans
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_reference_data_change();
+
+DROP TRIGGER IF EXISTS asset_notify ON investments.asset;
+CREATE TRIGGER asset_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON investments.asset
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_reference_data_change();
+
+DROP TRIGGER IF EXISTS asset_category_notify ON investments.asset_category;
+CREATE TRIGGER asset_category_notify
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON investments.asset_category
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_reference_data_change();
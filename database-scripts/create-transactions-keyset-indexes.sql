@@ -0,0 +1,18 @@
+-- ============================================
+-- ÍNDICES PARA PAGINAÇÃO POR CURSOR (KEYSET) DO EXTRATO
+-- ============================================
+-- As páginas de /api/transactions são lidas na ordem
+-- (transaction_date DESC, created_at DESC, transaction_id DESC) a partir do cursor da página
+-- anterior. Com estes índices o PostgreSQL desce direto na posição do cursor e lê só
+-- "limit + 1" linhas, então o custo não cresce com o tamanho do histórico.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_keyset
+    ON transactions (transaction_date DESC, created_at DESC, transaction_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_source_keyset
+    ON transactions (source_account_id, transaction_date DESC, created_at DESC, transaction_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_destination_keyset
+    ON transactions (destination_account_id, transaction_date DESC, created_at DESC, transaction_id DESC);
+
+ANALYZE transactions;
@@ -625,6 +625,9 @@ CREATE INDEX idx_accounts_user_id ON accounts(user_id);
 CREATE INDEX idx_transactions_source_account ON transactions(source_account_id);
 CREATE INDEX idx_transactions_dest_account ON transactions(destination_account_id);
 CREATE INDEX idx_transactions_date ON transactions(transaction_date);
+CREATE INDEX idx_transactions_keyset ON transactions(transaction_date DESC, created_at DESC, transaction_id DESC);
+CREATE INDEX idx_transactions_source_keyset ON transactions(source_account_id, transaction_date DESC, created_at DESC, transaction_id DESC);
+CREATE INDEX idx_transactions_destination_keyset ON transactions(destination_account_id, transaction_date DESC, created_at DESC, transaction_id DESC);
 CREATE INDEX idx_budgets_user_id ON budgets(user_id);
 CREATE INDEX idx_savings_goals_user_id ON savings_goals(user_id);
 CREATE INDEX idx_cards_user_id ON cards(user_id);
@@ -0,0 +1,22 @@
+#!/bin/bash
+# Teste de carga para comparar o launcher embarcado com virtual threads e com o pool de plataforma.
+# Uso: suba a API com `make run-embedded` (virtual threads) ou `SERVER_THREADS=platform make run-embedded`
+# e rode ./scripts/load-test.sh [URL] [DURAÇÃO]. Requer o hey (https://github.com/rakyll/hey).
+# A vazão máxima é o maior "Requests/sec" antes de a latência p99 disparar ou aparecerem erros.
+
+API_URL="${1:-http://localhost:8080/api/transactions?limit=50}"
+DURATION="${2:-30s}"
+
+if ! command -v hey > /dev/null 2>&1; then
+    echo "❌ hey não encontrado (go install github.com/rakyll/hey@latest)"
+    exit 1
+fi
+
+echo "🚀 Teste de carga em $API_URL ($DURATION por nível de concorrência)"
+
+for CONCURRENCY in 50 200 400 800 1600; do
+    echo ""
+    echo "=== Concorrência: $CONCURRENCY ==="
+    hey -z "$DURATION" -c "$CONCURRENCY" "$API_URL" \
+        | grep -E "Requests/sec|99%|\[[0-9]{3}\]|Error distribution" 
+done
@@ -1,9 +1,165 @@
 package org.example;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardVirtualThreadExecutor;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.example.config.ConditionalGetFilter;
+import org.example.config.CorsFilter;
+import org.example.config.DatabaseLifecycleListener;
+import org.example.config.UnitOfWorkFilter;
+import org.example.controller.*;
+
+import javax.servlet.Filter;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Sobe a API num Tomcat embarcado. Cada requisição roda numa virtual thread, então as esperas de JDBC e de
+ * HTTP bloqueante não ocupam threads de plataforma e a concorrência passa a ser limitada pelo pool de conexões,
+ * não pelo {@code maxThreads} do Tomcat. {@code SERVER_THREADS=platform} volta ao pool clássico, para comparação.
+ * <p>
+ * Servlets, filtros e o listener são registrados em código, sem varrer anotações nem ler web.xml, e todos os
+ * servlets são inicializados antes de abrir a porta. Com {@code --exit-after-start} o servidor sobe e encerra
+ * sem tocar no banco: é a execução de treino que gera o arquivo AppCDS da imagem Docker.
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.printf("Hello and welcome!");
-        for (int i = 1; i <= 5; i++) {
-            System.out.println("i = " + i);
+
+    public static final String CDS_TRAINING_PROPERTY = "cofry.cdsTraining";
+    private static final int MAX_CONNECTIONS = 10000;
+    private static final int COMPRESSION_MIN_SIZE = 1024;
+    private static final List<Class<? extends HttpServlet>> SERVLETS = Arrays.asList(
+            AccountFormServlet.class, AccountServlet.class, AddressFormServlet.class, AddressServlet.class,
+            AssetServlet.class, AuthServlet.class, BoletoFormServlet.class, BudgetServlet.class,
+            CardFormServlet.class, ChangePasswordServlet.class, InvestmentServlet.class, JobServlet.class,
+            MonitoringServlet.class, PixServlet.class, SavingsGoalServlet.class, SubscriptionPlanServlet.class,
+            SupabaseAuthServlet.class, TransactionServlet.class, UserFormServlet.class, UserServlet.class);
+
+    public static void main(String[] args) throws Exception {
+        long mainStarted = System.currentTimeMillis();
+        long jvmStarted = ManagementFactory.getRuntimeMXBean().getStartTime();
+        boolean exitAfterStart = Arrays.asList(args).contains("--exit-after-start");
+        if (exitAfterStart) {
+            System.setProperty(CDS_TRAINING_PROPERTY, "true");
         }
+        checkServletList();
+
+        int port = Integer.parseInt(System.getenv().getOrDefault("PORT", "8080"));
+        boolean virtualThreads = !"platform".equalsIgnoreCase(System.getenv("SERVER_THREADS"));
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("cofry-tomcat").toString());
+        tomcat.setPort(port);
+        Connector connector = tomcat.getConnector();
+        connector.setProperty("compression", "on");
+        connector.setProperty("compressionMinSize", String.valueOf(COMPRESSION_MIN_SIZE));
+        connector.setProperty("compressibleMimeType", "application/json");
+        if (virtualThreads) {
+            StandardVirtualThreadExecutor executor = new StandardVirtualThreadExecutor();
+            executor.setName("virtualThreadExecutor");
+            executor.setNamePrefix("http-vt-");
+            tomcat.getService().addExecutor(executor);
+            connector.getProtocolHandler().setExecutor(executor);
+            connector.setProperty("maxConnections", String.valueOf(MAX_CONNECTIONS));
+        }
+
+        Context context = tomcat.addContext("", Files.createTempDirectory("cofry-docbase").toString());
+        context.setRequestCharacterEncoding("UTF-8");
+        context.setResponseCharacterEncoding("UTF-8");
+        context.addApplicationListener(DatabaseLifecycleListener.class.getName());
+        addFilter(context, new CorsFilter(), "CorsFilter", "/*");
+        addFilter(context, new ConditionalGetFilter(), "ConditionalGetFilter",
+                ConditionalGetFilter.class.getAnnotation(WebFilter.class).urlPatterns());
+        addFilter(context, new UnitOfWorkFilter(), "UnitOfWorkFilter", "/api/*");
+        for (Class<? extends HttpServlet> servletClass : SERVLETS) {
+            addServlet(context, servletClass);
+        }
+
+        long configured = System.currentTimeMillis();
+        tomcat.start();
+        long started = System.currentTimeMillis();
+        System.out.printf("Cofry API ouvindo na porta %d (%s). Inicialização: JVM %d ms, configuração %d ms, " +
+                        "contexto e conector %d ms, total %d ms%n",
+                port, virtualThreads ? "virtual threads" : "threads de plataforma",
+                mainStarted - jvmStarted, configured - mainStarted, started - configured, started - jvmStarted);
+        if (exitAfterStart) {
+            tomcat.stop();
+            tomcat.destroy();
+            return;
+        }
+        tomcat.getServer().await();
+    }
+
+    /**
+     * Confere que toda classe com {@code @WebServlet} do pacote de controllers está em {@link #SERVLETS}.
+     * Um servlet novo que ficou fora da lista derruba a subida (e o build da imagem, na execução de treino)
+     * em vez de ficar sem rota. Só lista os arquivos do pacote; as classes não são inicializadas.
+     */
+    private static void checkServletList() throws Exception {
+        String packageName = AccountServlet.class.getPackageName();
+        String packagePath = packageName.replace('.', '/') + "/";
+        Path root = Paths.get(AccountServlet.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> fileNames = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.list(root.resolve(packagePath))) {
+                files.forEach(file -> fileNames.add(file.getFileName().toString()));
+            }
+        } else {
+            try (JarFile jar = new JarFile(root.toFile())) {
+                jar.stream().map(JarEntry::getName)
+                        .filter(name -> name.startsWith(packagePath) && name.indexOf('/', packagePath.length()) < 0)
+                        .forEach(name -> fileNames.add(name.substring(packagePath.length())));
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (String fileName : fileNames) {
+            if (!fileName.endsWith(".class") || fileName.contains("$")) {
+                continue;
+            }
+            String className = packageName + "." + fileName.substring(0, fileName.length() - ".class".length());
+            Class<?> candidate = Class.forName(className, false, Main.class.getClassLoader());
+            if (candidate.isAnnotationPresent(WebServlet.class) && !SERVLETS.contains(candidate)) {
+                missing.add(candidate.getSimpleName());
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Servlets com @WebServlet fora de Main.SERVLETS: " + missing);
+        }
+    }
+
+    private static void addServlet(Context context, Class<? extends HttpServlet> servletClass) throws Exception {
+        WebServlet mapping = servletClass.getAnnotation(WebServlet.class);
+        Wrapper wrapper = Tomcat.addServlet(context, mapping.name(), servletClass.getDeclaredConstructor().newInstance());
+        wrapper.setLoadOnStartup(1);
+        for (String urlPattern : mapping.urlPatterns()) {
+            context.addServletMappingDecoded(urlPattern, mapping.name());
+        }
+    }
+
+    private static void addFilter(Context context, Filter filter, String name, String... urlPatterns) {
+        FilterDef filterDef = new FilterDef();
+        filterDef.setFilterName(name);
+        filterDef.setFilter(filter);
+        context.addFilterDef(filterDef);
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName(name);
+        for (String urlPattern : urlPatterns) {
+            filterMap.addURLPatternDecoded(urlPattern);
+        }
+        context.addFilterMap(filterMap);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,242 @@
+package org.example.config;
+
+import org.example.persistence.CatalogVersions;
+
+import javax.servlet.*;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GETs condicionais para os catálogos (planos, ativos, estados e cidades). A resposta é capturada e ganha
+ * um ETag forte (SHA-256 dos bytes) e o Cache-Control do endpoint. O ETag fica guardado com a versão do
+ * catálogo lida antes de gerar a resposta: enquanto {@link CatalogVersions} não mudar, um
+ * {@code If-None-Match} igual recebe 304 sem chegar ao servlet nem ao banco. Como a versão é local à
+ * instância, o ETag guardado também expira após {@link #VALIDATOR_TTL_MS} e é recalculado.
+ */
+@WebFilter(filterName = "ConditionalGetFilter", urlPatterns = {
+    "/api/plans", "/api/plans/*", "/api/assets", "/api/assets/*",
+    "/api/form/address/states", "/api/form/address/cities"
+})
+public class ConditionalGetFilter implements Filter {
+    private static final long VALIDATOR_TTL_MS = 60_000;
+    private static final int MAX_VALIDATORS = 10_000;
+    private static final List<CachedEndpoint> ENDPOINTS = List.of(
+        new CachedEndpoint("/api/plans", CatalogVersions.PLANS, "public, max-age=60"),
+        new CachedEndpoint("/api/assets", CatalogVersions.ASSETS, "no-cache"),
+        new CachedEndpoint("/api/form/address/states", CatalogVersions.STATIC, "public, max-age=86400"),
+        new CachedEndpoint("/api/form/address/cities", CatalogVersions.STATIC, "public, max-age=86400"));
+    private final Map<String, Validator> validators = new ConcurrentHashMap<>();
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        CachedEndpoint endpoint = "GET".equals(httpRequest.getMethod()) ? endpointFor(httpRequest) : null;
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = httpRequest.getRequestURI() +
+            (httpRequest.getQueryString() != null ? "?" + httpRequest.getQueryString() : "");
+        String ifNoneMatch = httpRequest.getHeader("If-None-Match");
+        long version = CatalogVersions.current(endpoint.catalog);
+        Validator validator = validators.get(key);
+        if (validator != null && validator.version == version
+                && System.currentTimeMillis() - validator.createdAt < VALIDATOR_TTL_MS
+                && matches(ifNoneMatch, validator.etag)) {
+            sendNotModified(httpResponse, validator.etag, endpoint);
+            return;
+        }
+
+        BufferedResponse buffered = new BufferedResponse(httpResponse);
+        chain.doFilter(request, buffered);
+        byte[] body = buffered.toByteArray();
+        if (buffered.getStatus() != HttpServletResponse.SC_OK) {
+            httpResponse.setContentLength(body.length);
+            httpResponse.getOutputStream().write(body);
+            return;
+        }
+
+        String etag = etagOf(body);
+        if (validators.size() >= MAX_VALIDATORS) {
+            validators.clear();
+        }
+        validators.put(key, new Validator(version, etag, System.currentTimeMillis()));
+        if (matches(ifNoneMatch, etag)) {
+            sendNotModified(httpResponse, etag, endpoint);
+            return;
+        }
+        httpResponse.setHeader("ETag", etag);
+        httpResponse.setHeader("Cache-Control", endpoint.cacheControl);
+        httpResponse.setContentLength(body.length);
+        httpResponse.getOutputStream().write(body);
+    }
+
+    private static CachedEndpoint endpointFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (CachedEndpoint endpoint : ENDPOINTS) {
+            if (path.equals(endpoint.path) || path.startsWith(endpoint.path + "/")) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static void sendNotModified(HttpServletResponse response, String etag, CachedEndpoint endpoint) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", endpoint.cacheControl);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private static class CachedEndpoint {
+        private final String path;
+        private final String catalog;
+        private final String cacheControl;
+
+        CachedEndpoint(String path, String catalog, String cacheControl) {
+            this.path = path;
+            this.catalog = catalog;
+            this.cacheControl = cacheControl;
+        }
+    }
+
+    private static class Validator {
+        private final long version;
+        private final String etag;
+        private final long createdAt;
+
+        Validator(long version, String etag, long createdAt) {
+            this.version = version;
+            this.etag = etag;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Segura o corpo em memória para o ETag ser calculado antes de qualquer byte sair; flush e commit
+     * ficam adiados até o filtro escrever a resposta.
+     */
+    private static class BufferedResponse extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        BufferedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        buffer.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        buffer.write(b, off, len);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), StandardCharsets.UTF_8));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            buffer.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            buffer.reset();
+        }
+
+        @Override
+        public void setContentLength(int len) {
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        byte[] toByteArray() {
+            flushBuffer();
+            return buffer.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.config;
+
+import org.example.Main;
+import org.example.persistence.ConnectionFactory;
+import org.example.service.LotAccountingService;
+import org.example.service.MarketPriceCache;
+import org.example.service.OutboxWorker;
+import org.example.service.ReferenceDataCache;
+import org.example.service.UserFormService;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.UUID;
+
+@WebListener
+public class DatabaseLifecycleListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        // Execução de treino do AppCDS (Main --exit-after-start): sobe e desce sem acessar o banco
+        if (Boolean.getBoolean(Main.CDS_TRAINING_PROPERTY)) {
+            return;
+        }
+        try {
+            ConnectionFactory.warmUp();
+        } catch (Exception e) {
+            System.err.println("Não foi possível pré-aquecer o pool de conexões: " + e.getMessage());
+        }
+        ReferenceDataCache.start();
+        try {
+            MarketPriceCache.start();
+        } catch (IllegalStateException e) {
+            System.err.println("Feed de preços não iniciado: " + e.getMessage());
+        }
+        UserFormService userFormService = new UserFormService();
+        OutboxWorker.register(OutboxWorker.JOB_USER_PROVISIONING,
+                payload -> userFormService.provisionUser(UUID.fromString(payload)));
+        LotAccountingService lotAccountingService = new LotAccountingService();
+        OutboxWorker.register(LotAccountingService.JOB_RECOMPUTE,
+                payload -> lotAccountingService.recompute(Integer.valueOf(payload)));
+        OutboxWorker.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        OutboxWorker.stop();
+        MarketPriceCache.stop();
+        ReferenceDataCache.stop();
+        ConnectionFactory.shutdown();
+    }
+}
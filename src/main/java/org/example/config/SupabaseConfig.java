@@ -4,19 +4,51 @@ public class SupabaseConfig {
     private static final String SUPABASE_URL;
     private static final String SUPABASE_ANON_KEY;
     private static final String SUPABASE_SERVICE_ROLE_KEY;
+    private static final String SUPABASE_JWT_SECRET;
     private static final String DATABASE_URL;
+    private static final String DATABASE_DIRECT_URL;
     private static final String DATABASE_USER;
     private static final String DATABASE_PASSWORD;
+    private static final int DB_POOL_MIN_SIZE;
+    private static final int DB_POOL_MAX_SIZE;
+    private static final long DB_POOL_IDLE_TIMEOUT_MS;
+    private static final long DB_POOL_ACQUIRE_TIMEOUT_MS;
+    private static final long DB_POOL_LEAK_DETECTION_MS;
+    private static final int DB_POOL_VALIDATION_TIMEOUT_SECONDS;
+    private static final int DB_STATEMENT_CACHE_SIZE;
+    private static final boolean TRANSACTION_POOLER;
     
     static {
         SUPABASE_URL = getEnvOrDefault("SUPABASE_URL", "https://qcgvvrbwtjijyylxxugb.supabase.co");
         SUPABASE_ANON_KEY = getEnvOrDefault("SUPABASE_ANON_KEY", "");
         SUPABASE_SERVICE_ROLE_KEY = getEnvOrDefault("SUPABASE_SERVICE_ROLE_KEY", "");
+        SUPABASE_JWT_SECRET = getEnvOrDefault("SUPABASE_JWT_SECRET", "");
         
-        DATABASE_URL = getEnvOrDefault("DATABASE_URL", 
+        String databaseUrl = getEnvOrDefault("DATABASE_URL", 
             "jdbc:postgresql://aws-0-us-west-2.pooler.supabase.com:6543/postgres?sslmode=require");
+        // O pooler do Supabase em modo transação (porta 6543) troca o backend a cada transação: statements
+        // nomeados no servidor falham com "prepared statement S_n already exists", então o driver não deve
+        // criá-los e o cache de statements fica desligado
+        TRANSACTION_POOLER = Boolean.parseBoolean(getEnvOrDefault("DB_TRANSACTION_POOLER",
+            String.valueOf(databaseUrl.contains(":6543/") || databaseUrl.contains("pgbouncer=true"))));
+        if (TRANSACTION_POOLER && !databaseUrl.contains("prepareThreshold=")) {
+            databaseUrl += (databaseUrl.contains("?") ? "&" : "?") + "prepareThreshold=0";
+        }
+        DATABASE_URL = databaseUrl;
+        // LISTEN/NOTIFY precisa de uma sessão fixa no backend: conexão direta ou pooler em modo sessão (porta 5432)
+        String directUrl = getEnvOrDefault("DATABASE_DIRECT_URL", "");
+        DATABASE_DIRECT_URL = !directUrl.isEmpty() ? directUrl : TRANSACTION_POOLER ? null : databaseUrl;
         DATABASE_USER = getEnvOrDefault("DB_USER", "postgres.qcgvvrbwtjijyylxxugb");
         DATABASE_PASSWORD = getEnvOrDefault("DB_PASSWORD", "Cofry.072519");
+        
+        DB_POOL_MIN_SIZE = Integer.parseInt(getEnvOrDefault("DB_POOL_MIN_SIZE", "2"));
+        DB_POOL_MAX_SIZE = Integer.parseInt(getEnvOrDefault("DB_POOL_MAX_SIZE", "10"));
+        DB_POOL_IDLE_TIMEOUT_MS = Long.parseLong(getEnvOrDefault("DB_POOL_IDLE_TIMEOUT_MS", "600000"));
+        DB_POOL_ACQUIRE_TIMEOUT_MS = Long.parseLong(getEnvOrDefault("DB_POOL_ACQUIRE_TIMEOUT_MS", "30000"));
+        DB_POOL_LEAK_DETECTION_MS = Long.parseLong(getEnvOrDefault("DB_POOL_LEAK_DETECTION_MS", "60000"));
+        DB_POOL_VALIDATION_TIMEOUT_SECONDS = Integer.parseInt(getEnvOrDefault("DB_POOL_VALIDATION_TIMEOUT_SECONDS", "5"));
+        DB_STATEMENT_CACHE_SIZE = TRANSACTION_POOLER ? 0
+            : Integer.parseInt(getEnvOrDefault("DB_STATEMENT_CACHE_SIZE", "64"));
     }
     
     private static String getEnvOrDefault(String key, String defaultValue) {
@@ -36,10 +68,22 @@ public class SupabaseConfig {
         return SUPABASE_SERVICE_ROLE_KEY;
     }
     
+    public static String getSupabaseJwtSecret() {
+        return SUPABASE_JWT_SECRET;
+    }
+    
     public static String getDatabaseUrl() {
         return DATABASE_URL;
     }
     
+    /**
+     * URL para conexões que precisam de sessão própria (LISTEN), ou {@code null} quando só há o pooler em
+     * modo transação.
+     */
+    public static String getDirectDatabaseUrl() {
+        return DATABASE_DIRECT_URL;
+    }
+    
     public static String getDatabaseUser() {
         return DATABASE_USER;
     }
@@ -48,6 +92,38 @@ public class SupabaseConfig {
         return DATABASE_PASSWORD;
     }
     
+    public static int getPoolMinSize() {
+        return DB_POOL_MIN_SIZE;
+    }
+    
+    public static int getPoolMaxSize() {
+        return DB_POOL_MAX_SIZE;
+    }
+    
+    public static long getPoolIdleTimeoutMs() {
+        return DB_POOL_IDLE_TIMEOUT_MS;
+    }
+    
+    public static long getPoolAcquireTimeoutMs() {
+        return DB_POOL_ACQUIRE_TIMEOUT_MS;
+    }
+    
+    public static long getPoolLeakDetectionMs() {
+        return DB_POOL_LEAK_DETECTION_MS;
+    }
+    
+    public static int getPoolValidationTimeoutSeconds() {
+        return DB_POOL_VALIDATION_TIMEOUT_SECONDS;
+    }
+    
+    public static int getStatementCacheSize() {
+        return DB_STATEMENT_CACHE_SIZE;
+    }
+    
+    public static boolean isTransactionPooler() {
+        return TRANSACTION_POOLER;
+    }
+    
     public static String getAuthApiUrl() {
         return SUPABASE_URL + "/auth/v1";
     }
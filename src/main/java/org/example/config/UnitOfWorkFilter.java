@@ -0,0 +1,60 @@
+package org.example.config;
+
+import org.example.persistence.ConnectionFactory;
+import org.example.persistence.RlsSessionContext;
+import org.example.persistence.UnitOfWork;
+
+import javax.servlet.*;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+@WebFilter(filterName = "UnitOfWorkFilter", urlPatterns = "/api/*")
+public class UnitOfWorkFilter implements Filter {
+    private static final String SUPABASE_AUTH_PREFIX = "/api/auth/supabase/";
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        // Todas as chamadas de DAO da requisição usam a mesma conexão do pool,
+        // emprestada no primeiro acesso ao banco e devolvida ao final; o token Bearer da
+        // requisição vale para as políticas de RLS só durante ela, e só depois de verificados
+        // a assinatura e o exp; um token que não pode ser verificado (sem SUPABASE_JWT_SECRET,
+        // chave assimétrica, forjado ou expirado) segue sem claims de RLS. As rotas de
+        // /api/auth/supabase/ recebem o token para repassá-lo ao Supabase e não passam pela verificação
+        if (UnitOfWork.isActive()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String token = httpRequest.getRequestURI().startsWith(httpRequest.getContextPath() + SUPABASE_AUTH_PREFIX)
+                ? null : bearerToken(httpRequest);
+        if (token != null && !RlsSessionContext.isValid(token)) {
+            token = null;
+        }
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try (ConnectionFactory.UserTokenScope ignored = ConnectionFactory.openUserTokenScope(token)) {
+            chain.doFilter(request, response);
+        } finally {
+            unitOfWork.end();
+        }
+    }
+
+    private static String bearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        return authHeader.substring(7).trim();
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
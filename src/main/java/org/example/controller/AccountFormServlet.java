@@ -1,5 +1,6 @@
 package org.example.controller;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.AccountRequestDTO;
 import org.example.dto.AccountResponseDTO;
@@ -56,6 +57,8 @@ public class AccountFormServlet extends HttpServlet {
             AccountRequestDTO accountDTO = RequestParser.parseJson(request, AccountRequestDTO.class);
             AccountResponseDTO createdAccount = accountFormService.createAccountFromForm(accountDTO);
             JsonResponse.sendSuccess(response, createdAccount, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
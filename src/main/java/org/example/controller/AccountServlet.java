@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.model.Account;
 import org.example.service.AccountService;
@@ -85,6 +86,8 @@ public class AccountServlet extends HttpServlet {
             
             Account updatedAccount = accountService.updateAccount(account);
             JsonResponse.sendSuccess(response, updatedAccount);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
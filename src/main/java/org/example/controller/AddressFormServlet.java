@@ -1,5 +1,6 @@
 package org.example.controller;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.AddressRequestDTO;
 import org.example.dto.AddressResponseDTO;
@@ -76,6 +77,8 @@ public class AddressFormServlet extends HttpServlet {
             AddressRequestDTO addressDTO = RequestParser.parseJson(request, AddressRequestDTO.class);
             AddressResponseDTO createdAddress = addressFormService.createAddressFromForm(addressDTO);
             JsonResponse.sendSuccess(response, createdAddress, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
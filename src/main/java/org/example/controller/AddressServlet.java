@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.model.Address;
 import org.example.service.AddressService;
@@ -70,6 +71,8 @@ public class AddressServlet extends HttpServlet {
             Address address = RequestParser.parseJson(request, Address.class);
             Address createdAddress = addressService.createAddress(address);
             JsonResponse.sendSuccess(response, createdAddress, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -100,6 +103,8 @@ public class AddressServlet extends HttpServlet {
             
             Address updatedAddress = addressService.updateAddress(address);
             JsonResponse.sendSuccess(response, updatedAddress);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
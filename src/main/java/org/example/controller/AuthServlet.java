@@ -1,5 +1,6 @@
 package org.example.controller;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.LoginRequestDTO;
 import org.example.dto.LoginResponseDTO;
@@ -25,6 +26,8 @@ public class AuthServlet extends HttpServlet {
             LoginRequestDTO loginDTO = RequestParser.parseJson(request, LoginRequestDTO.class);
             LoginResponseDTO loginResponse = authService.login(loginDTO);
             JsonResponse.sendSuccess(response, loginResponse, HttpServletResponse.SC_OK);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -1,12 +1,15 @@
 package org.example.controller;
 
+import org.example.controller.util.IdempotentRequest;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.BoletoRequestDTO;
 import org.example.dto.BoletoResponseDTO;
 import org.example.model.BoletoStatus;
 import org.example.service.BoletoFormService;
 import org.example.service.BoletoService;
+import org.example.service.IdempotencyService;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -18,6 +21,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @WebServlet(name = "BoletoFormServlet", urlPatterns = {
     "/api/form/boleto",
@@ -177,21 +181,22 @@ public class BoletoFormServlet extends HttpServlet {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> parsedBody = (Map<String, Object>) RequestParser.parseJson(request, Map.class);
                     requestBody = parsedBody;
+                } catch (RequestBodyTooLargeException e) {
+                    JsonResponse.sendPayloadTooLarge(response, e.getMessage());
+                    return;
                 } catch (Exception e) {
                     e.printStackTrace();
                     JsonResponse.sendBadRequest(response, "Erro ao processar corpo da requisição: " + e.getMessage());
                     return;
                 }
                 
-                Integer accountId = null;
+                UUID accountId = null;
                 if (requestBody != null && requestBody.get("accountId") != null) {
-                    Object accountIdObj = requestBody.get("accountId");
-                    if (accountIdObj instanceof Integer) {
-                        accountId = (Integer) accountIdObj;
-                    } else if (accountIdObj instanceof Double) {
-                        accountId = ((Double) accountIdObj).intValue();
-                    } else if (accountIdObj instanceof Number) {
-                        accountId = ((Number) accountIdObj).intValue();
+                    try {
+                        accountId = UUID.fromString(requestBody.get("accountId").toString());
+                    } catch (IllegalArgumentException e) {
+                        JsonResponse.sendBadRequest(response, "Invalid accountId format: " + requestBody.get("accountId"));
+                        return;
                     }
                 }
                 String description = requestBody != null ? (String) requestBody.get("description") : null;
@@ -201,28 +206,33 @@ public class BoletoFormServlet extends HttpServlet {
                     return;
                 }
                 
+                final UUID payAccountId = accountId;
                 try {
-                    BoletoService.PayBoletoResult result = boletoService.payBoleto(boletoId, accountId, description);
-                    
-                    BoletoResponseDTO boletoDTO = boletoFormService.convertBoletoToDTO(result.getBoleto());
-                    
-                    Map<String, Object> responseData = new HashMap<>();
-                    responseData.put("success", true);
-                    responseData.put("message", "Boleto pago com sucesso");
-                    responseData.put("boleto", boletoDTO);
-                    
-                    Map<String, Object> transactionData = new HashMap<>();
-                    transactionData.put("transactionId", result.getTransaction().getTransactionId());
-                    transactionData.put("sourceAccountId", result.getTransaction().getSourceAccountId());
-                    transactionData.put("amount", result.getTransaction().getAmount());
-                    transactionData.put("transactionType", result.getTransaction().getTransactionType().name());
-                    transactionData.put("description", result.getTransaction().getDescription());
-                    transactionData.put("transactionDate", result.getTransaction().getTransactionDate().toString());
-                    responseData.put("transaction", transactionData);
-                    
-                    responseData.put("newBalance", result.getNewBalance());
-                    
-                    JsonResponse.sendSuccess(response, responseData);
+                    String fingerprint = boletoId + "|" + accountId + "|" + description;
+                    IdempotentRequest.send(request, response, IdempotencyService.SCOPE_BOLETO_PAYMENT, payAccountId,
+                            fingerprint, HttpServletResponse.SC_OK, () -> {
+                        BoletoService.PayBoletoResult result = boletoService.payBoleto(boletoId, payAccountId, description);
+                        
+                        BoletoResponseDTO boletoDTO = boletoFormService.convertBoletoToDTO(result.getBoleto());
+                        
+                        Map<String, Object> responseData = new HashMap<>();
+                        responseData.put("success", true);
+                        responseData.put("message", "Boleto pago com sucesso");
+                        responseData.put("boleto", boletoDTO);
+                        
+                        Map<String, Object> transactionData = new HashMap<>();
+                        transactionData.put("transactionId", result.getTransaction().getTransactionId());
+                        transactionData.put("sourceAccountId", result.getTransaction().getSourceAccountId());
+                        transactionData.put("amount", result.getTransaction().getAmount());
+                        transactionData.put("transactionType", result.getTransaction().getTransactionType().name());
+                        transactionData.put("description", result.getTransaction().getDescription());
+                        transactionData.put("transactionDate", result.getTransaction().getTransactionDate().toString());
+                        responseData.put("transaction", transactionData);
+                        
+                        responseData.put("newBalance", result.getNewBalance());
+                        
+                        return responseData;
+                    });
                 } catch (IllegalArgumentException e) {
                     e.printStackTrace();
                     JsonResponse.sendBadRequest(response, e.getMessage());
@@ -259,6 +269,9 @@ public class BoletoFormServlet extends HttpServlet {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> parsedBody = (Map<String, Object>) RequestParser.parseJson(request, Map.class);
                     requestBody = parsedBody;
+                } catch (RequestBodyTooLargeException e) {
+                    JsonResponse.sendPayloadTooLarge(response, e.getMessage());
+                    return;
                 } catch (Exception e) {
                     e.printStackTrace();
                     JsonResponse.sendBadRequest(response, "Erro ao processar corpo da requisição: " + e.getMessage());
@@ -311,6 +324,8 @@ public class BoletoFormServlet extends HttpServlet {
                 
                 JsonResponse.sendSuccess(response, createdBoleto, HttpServletResponse.SC_CREATED);
             }
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
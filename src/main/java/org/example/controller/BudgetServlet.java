@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.model.Budget;
 import org.example.service.BudgetService;
@@ -70,6 +71,8 @@ public class BudgetServlet extends HttpServlet {
             Budget budget = RequestParser.parseJson(request, Budget.class);
             Budget createdBudget = budgetService.createBudget(budget);
             JsonResponse.sendSuccess(response, createdBudget, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -100,6 +103,8 @@ public class BudgetServlet extends HttpServlet {
             
             Budget updatedBudget = budgetService.updateBudget(budget);
             JsonResponse.sendSuccess(response, updatedBudget);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package org.example.controller;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.CardRequestDTO;
 import org.example.dto.CardResponseDTO;
@@ -116,6 +117,8 @@ public class CardFormServlet extends HttpServlet {
             CardRequestDTO cardDTO = RequestParser.parseJson(request, CardRequestDTO.class);
             CardResponseDTO createdCard = cardFormService.createCardFromForm(cardDTO);
             JsonResponse.sendSuccess(response, createdCard, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -161,6 +164,8 @@ public class CardFormServlet extends HttpServlet {
             dto.setLimitAmount(updatedCard.getLimitAmount());
             dto.setCurrentBalance(updatedCard.getCurrentBalance());
             JsonResponse.sendSuccess(response, dto);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
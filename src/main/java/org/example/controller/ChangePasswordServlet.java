@@ -1,5 +1,6 @@
 package org.example.controller;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.ChangePasswordRequestDTO;
 import org.example.service.AuthService;
@@ -24,6 +25,8 @@ public class ChangePasswordServlet extends HttpServlet {
             ChangePasswordRequestDTO changePasswordDTO = RequestParser.parseJson(request, ChangePasswordRequestDTO.class);
             authService.changePassword(changePasswordDTO);
             JsonResponse.sendSuccess(response, "Senha alterada com sucesso", HttpServletResponse.SC_OK);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -1,19 +1,28 @@
 package org.example.controller;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.InvestmentTransactionRequestDTO;
 import org.example.dto.PortfolioSummaryDTO;
 import org.example.dto.AssetDistributionDTO;
+import org.example.dto.OrderHistoryItemDTO;
+import org.example.dto.InvestmentTransactionResponseDTO;
 import org.example.model.InvestmentTransaction;
+import org.example.model.RealizedPnl;
 import org.example.service.InvestmentFormService;
 import org.example.service.InvestmentTransactionService;
 import org.example.service.InvestmentPortfolioService;
+import org.example.service.LotAccountingService;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 @WebServlet(name = "InvestmentServlet", urlPatterns = {
     "/api/investments/transaction",
@@ -21,10 +30,16 @@ import java.util.List;
 })
 public class InvestmentServlet extends HttpServlet {
     private InvestmentFormService investmentFormService;
+    private InvestmentPortfolioService portfolioService;
+    private InvestmentTransactionService transactionService;
+    private LotAccountingService lotAccountingService;
     @Override
     public void init() throws ServletException {
         super.init();
         investmentFormService = new InvestmentFormService();
+        portfolioService = new InvestmentPortfolioService();
+        transactionService = new InvestmentTransactionService();
+        lotAccountingService = new LotAccountingService();
     }
     private Integer extractUserIdFromPath(String requestURI) {
         try {
@@ -44,6 +59,101 @@ public class InvestmentServlet extends HttpServlet {
             return null;
         }
     }
+    /**
+     * GET /api/investments/user/{id}/summary | /distribution | /distribution/category | /orders?limit=&cursor=
+     * | /realized?method=AVERAGE|FIFO
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            String pathInfo = request.getPathInfo();
+            Integer userId = extractUserIdFromPath(request.getRequestURI());
+            if (pathInfo == null || !pathInfo.startsWith("/user/") || userId == null) {
+                JsonResponse.sendNotFound(response, "Endpoint not found");
+                return;
+            }
+            String[] parts = pathInfo.split("/");
+            String resource = parts.length > 3 ? String.join("/", Arrays.copyOfRange(parts, 3, parts.length)) : "";
+            switch (resource) {
+                case "summary" -> {
+                    PortfolioSummaryDTO summary = portfolioService.getPortfolioSummary(userId);
+                    JsonResponse.sendSuccess(response, summary);
+                }
+                case "distribution" -> {
+                    List<AssetDistributionDTO> distribution = portfolioService.getAssetDistribution(userId);
+                    JsonResponse.sendSuccess(response, distribution);
+                }
+                case "distribution/category" -> {
+                    List<AssetDistributionDTO> distribution = portfolioService.getDistributionByCategory(userId);
+                    JsonResponse.sendSuccess(response, distribution);
+                }
+                case "orders" -> sendOrderHistory(request, response, userId);
+                case "realized" -> {
+                    List<RealizedPnl> realized = lotAccountingService.getRealizedPnl(userId, request.getParameter("method"));
+                    JsonResponse.sendSuccess(response, realized);
+                }
+                default -> JsonResponse.sendNotFound(response, "Endpoint not found");
+            }
+        } catch (IllegalArgumentException e) {
+            JsonResponse.sendBadRequest(response, e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            JsonResponse.sendInternalError(response, "Error processing request: " + e.getMessage());
+        }
+    }
+    /**
+     * Página do histórico de ordens, escrita na resposta conforme as linhas chegam do banco. Filtros opcionais:
+     * {@code assetId}, {@code type} (Compra/Venda), {@code startDate} e {@code endDate} (yyyy-MM-dd);
+     * {@code view=detail} devolve a ordem completa em vez do item resumido.
+     */
+    private void sendOrderHistory(HttpServletRequest request, HttpServletResponse response, Integer userId)
+            throws IOException {
+        String limitParam = request.getParameter("limit");
+        int limit;
+        try {
+            limit = limitParam == null || limitParam.trim().isEmpty()
+                    ? InvestmentTransactionService.DEFAULT_PAGE_SIZE
+                    : Integer.parseInt(limitParam.trim());
+        } catch (NumberFormatException e) {
+            JsonResponse.sendBadRequest(response, "Limite inválido");
+            return;
+        }
+        String assetIdParam = request.getParameter("assetId");
+        Integer assetId = RequestParser.getIntParameter(request, "assetId");
+        if (assetId == null && assetIdParam != null && !assetIdParam.trim().isEmpty()) {
+            JsonResponse.sendBadRequest(response, "ID do ativo inválido");
+            return;
+        }
+        String typeParam = request.getParameter("type");
+        String type = typeParam == null || typeParam.trim().isEmpty() ? null : typeParam.trim();
+        LocalDate startDate = parseDate(request.getParameter("startDate"));
+        LocalDate endDate = parseDate(request.getParameter("endDate"));
+        String cursor = request.getParameter("cursor");
+        try {
+            if ("detail".equals(request.getParameter("view"))) {
+                JsonResponse.sendPage(response, InvestmentTransactionResponseDTO.class, limit,
+                        writer -> transactionService.streamTransactionHistory(
+                                userId, assetId, type, startDate, endDate, cursor, limit, writer::write));
+            } else {
+                JsonResponse.sendPage(response, OrderHistoryItemDTO.class, limit,
+                        writer -> transactionService.streamOrderHistory(
+                                userId, assetId, type, startDate, endDate, cursor, limit, writer::write));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    private LocalDate parseDate(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + value + ". Use o formato yyyy-MM-dd");
+        }
+    }
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
@@ -51,6 +161,8 @@ public class InvestmentServlet extends HttpServlet {
             InvestmentTransactionRequestDTO transactionDTO = RequestParser.parseJson(request, InvestmentTransactionRequestDTO.class);
             InvestmentTransaction transaction = investmentFormService.createTransactionFromForm(transactionDTO);
             JsonResponse.sendSuccess(response, transaction, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,87 @@
+package org.example.controller;
+import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestParser;
+import org.example.dao.OutboxJobDAO;
+import org.example.model.OutboxJob;
+import org.example.persistence.ConnectionFactory;
+import org.example.persistence.RlsSessionContext;
+import org.example.service.LotAccountingService;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+@WebServlet(name = "JobServlet", urlPatterns = {"/api/jobs/*"})
+public class JobServlet extends HttpServlet {
+    private static final String ADMIN_ROLE = "service_role";
+    private OutboxJobDAO outboxJobDAO;
+    private LotAccountingService lotAccountingService;
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        outboxJobDAO = new OutboxJobDAO();
+        lotAccountingService = new LotAccountingService();
+    }
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            String pathInfo = request.getPathInfo();
+            if (pathInfo == null || pathInfo.equals("/")) {
+                JsonResponse.sendBadRequest(response, "ID do job é obrigatório");
+                return;
+            }
+            UUID jobId = UUID.fromString(pathInfo.substring(1));
+            Optional<OutboxJob> job = outboxJobDAO.findById(jobId);
+            if (!job.isPresent()) {
+                JsonResponse.sendNotFound(response, "Job não encontrado");
+                return;
+            }
+            JsonResponse.sendSuccess(response, job.get());
+        } catch (IllegalArgumentException e) {
+            JsonResponse.sendBadRequest(response, "ID do job inválido");
+        } catch (Exception e) {
+            e.printStackTrace();
+            JsonResponse.sendInternalError(response, "Erro ao buscar job: " + e.getMessage());
+        }
+    }
+    /**
+     * POST /api/jobs/realized-pnl[?userId=] enfileira o recálculo de lotes e resultado realizado, de um usuário
+     * ou de todos; os jobs rodam em paralelo no OutboxWorker. Restrito a administradores: exige um token
+     * com {@code role = service_role}.
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            if (!"/realized-pnl".equals(request.getPathInfo())) {
+                JsonResponse.sendNotFound(response, "Job não encontrado");
+                return;
+            }
+            if (!ADMIN_ROLE.equals(RlsSessionContext.extractRole(ConnectionFactory.getUserToken()))) {
+                JsonResponse.sendError(response, "Apenas administradores podem enfileirar o recálculo",
+                        HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+            String userIdParam = request.getParameter("userId");
+            Integer userId = RequestParser.getIntParameter(request, "userId");
+            if (userId == null && userIdParam != null && !userIdParam.trim().isEmpty()) {
+                JsonResponse.sendBadRequest(response, "ID do usuário inválido");
+                return;
+            }
+            int enqueued = lotAccountingService.enqueueRecompute(userId);
+            Map<String, Object> result = new HashMap<>();
+            result.put("jobType", LotAccountingService.JOB_RECOMPUTE);
+            result.put("enqueued", enqueued);
+            JsonResponse.sendSuccess(response, result, HttpServletResponse.SC_ACCEPTED);
+        } catch (Exception e) {
+            e.printStackTrace();
+            JsonResponse.sendInternalError(response, "Erro ao enfileirar recálculo: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.controller;
+
+import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestParser;
+import org.example.persistence.ConnectionFactory;
+import org.example.service.MarketPriceCache;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@WebServlet(name = "MonitoringServlet", urlPatterns = {"/api/monitoring/*"})
+public class MonitoringServlet extends HttpServlet {
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        try {
+            String pathInfo = request.getPathInfo();
+            
+            if ("/pool".equals(pathInfo)) {
+                JsonResponse.sendSuccess(response, ConnectionFactory.getPoolStats());
+            } else if ("/json".equals(pathInfo)) {
+                JsonResponse.sendSuccess(response, JsonResponse.getStats());
+            } else if ("/requests".equals(pathInfo)) {
+                JsonResponse.sendSuccess(response, RequestParser.getStats());
+            } else if ("/prices".equals(pathInfo)) {
+                JsonResponse.sendSuccess(response, MarketPriceCache.getStats());
+            } else {
+                JsonResponse.sendNotFound(response, "Recurso de monitoramento não encontrado. Disponível: /pool, /json, /requests, /prices");
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            JsonResponse.sendInternalError(response, "Erro ao obter métricas: " + e.getMessage());
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.controller;
+import org.example.controller.util.IdempotentRequest;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.PixRequestDTO;
-import org.example.dto.PixResponseDTO;
+import org.example.service.IdempotencyService;
 import org.example.service.PixService;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -23,8 +25,14 @@ public class PixServlet extends HttpServlet {
             throws ServletException, IOException {
         try {
             PixRequestDTO pixRequest = RequestParser.parseJson(request, PixRequestDTO.class);
-            PixResponseDTO pixResponse = pixService.processPixTransfer(pixRequest);
-            JsonResponse.sendSuccess(response, pixResponse, HttpServletResponse.SC_OK);
+            String fingerprint = pixRequest == null ? "" : pixRequest.getSourceAccountId() + "|"
+                    + pixRequest.getDestinationAccountId() + "|" + pixRequest.getDestinationUserId() + "|"
+                    + pixRequest.getAmount() + "|" + pixRequest.getDescription();
+            IdempotentRequest.send(request, response, IdempotencyService.SCOPE_PIX_TRANSFER,
+                    pixRequest == null ? null : pixRequest.getSourceAccountId(), fingerprint,
+                    HttpServletResponse.SC_OK, () -> pixService.processPixTransfer(pixRequest));
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.model.SavingsGoal;
 import org.example.model.GoalStatusEnum;
@@ -72,6 +73,8 @@ public class SavingsGoalServlet extends HttpServlet {
             SavingsGoal goal = RequestParser.parseJson(request, SavingsGoal.class);
             SavingsGoal createdGoal = savingsGoalService.createGoal(goal);
             JsonResponse.sendSuccess(response, createdGoal, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -102,6 +105,8 @@ public class SavingsGoalServlet extends HttpServlet {
             
             SavingsGoal updatedGoal = savingsGoalService.updateGoal(goal);
             JsonResponse.sendSuccess(response, updatedGoal);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -2,10 +2,10 @@ package org.example.controller;
 
 import com.google.gson.Gson;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.LoginRequestDTO;
 import org.example.dto.UserRequestDTO;
-import org.example.persistence.ConnectionFactory;
 import org.example.service.SupabaseAuthService;
 import org.example.service.SupabaseAuthService.AuthResponse;
 import org.example.service.SupabaseAuthService.UserMetadata;
@@ -55,6 +55,8 @@ public class SupabaseAuthServlet extends HttpServlet {
             } else {
                 JsonResponse.sendBadRequest(response, "Endpoint não encontrado");
             }
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (SupabaseAuthService.SupabaseAuthException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -103,8 +105,6 @@ public class SupabaseAuthServlet extends HttpServlet {
         
         AuthResponse authResponse = authService.login(loginDTO.getEmail(), loginDTO.getPassword());
         
-        ConnectionFactory.setUserToken(authResponse.accessToken);
-        
         JsonResponse.sendSuccess(response, authResponse);
     }
     
@@ -135,8 +135,6 @@ public class SupabaseAuthServlet extends HttpServlet {
         
         AuthResponse authResponse = authService.signUp(userDTO.getEmail(), userDTO.getPassword(), metadata);
         
-        ConnectionFactory.setUserToken(authResponse.accessToken);
-        
         JsonResponse.sendSuccess(response, authResponse, HttpServletResponse.SC_CREATED);
     }
     
@@ -153,8 +151,6 @@ public class SupabaseAuthServlet extends HttpServlet {
         
         authService.logout(token);
         
-        ConnectionFactory.clearUserToken();
-        
         JsonResponse.sendSuccess(response, "Logout realizado com sucesso");
     }
     
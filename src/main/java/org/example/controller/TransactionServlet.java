@@ -1,8 +1,13 @@
 package org.example.controller;
+import org.example.controller.util.IdempotentRequest;
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
+import org.example.dto.PageDTO;
 import org.example.model.Transaction;
 import org.example.model.TransactionTypeEnum;
+import org.example.service.IdempotencyService;
+import org.example.service.TransactionImportService;
 import org.example.service.TransactionService;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -13,14 +18,17 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.UUID;
 @WebServlet(name = "TransactionServlet", urlPatterns = {"/api/transactions", "/api/transactions/*"})
 public class TransactionServlet extends HttpServlet {
     private TransactionService transactionService;
+    private TransactionImportService transactionImportService;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     @Override
     public void init() throws ServletException {
         super.init();
         transactionService = new TransactionService();
+        transactionImportService = new TransactionImportService();
     }
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) 
@@ -28,6 +36,11 @@ public class TransactionServlet extends HttpServlet {
         try {
             String pathInfo = request.getPathInfo();
             if (pathInfo == null || pathInfo.equals("/")) {
+                if (request.getParameter("limit") != null || request.getParameter("cursor") != null
+                        || request.getParameter("view") != null) {
+                    sendTransactionPage(request, response);
+                    return;
+                }
                 String accountIdParam = request.getParameter("accountId");
                 if (accountIdParam != null) {
                     Integer accountId = Integer.parseInt(accountIdParam);
@@ -57,9 +70,48 @@ public class TransactionServlet extends HttpServlet {
             JsonResponse.sendInternalError(response, "Erro ao buscar transações: " + e.getMessage());
         }
     }
+    private void sendTransactionPage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            String limitParam = request.getParameter("limit");
+            int limit = limitParam == null || limitParam.trim().isEmpty()
+                    ? TransactionService.DEFAULT_PAGE_SIZE
+                    : Integer.parseInt(limitParam.trim());
+            UUID userId = parseUuid(request.getParameter("userId"));
+            UUID accountId = parseUuid(request.getParameter("accountId"));
+            LocalDate startDate = parseDate(request.getParameter("startDate"));
+            LocalDate endDate = parseDate(request.getParameter("endDate"));
+            String cursor = request.getParameter("cursor");
+            if ("summary".equals(request.getParameter("view"))) {
+                JsonResponse.sendSuccess(response, transactionService.getTransactionSummaryPage(
+                        userId, accountId, startDate, endDate, cursor, limit));
+                return;
+            }
+            PageDTO<Transaction> page = transactionService.getTransactionPage(
+                    userId, accountId, startDate, endDate, cursor, limit);
+            JsonResponse.sendSuccess(response, page);
+        } catch (NumberFormatException e) {
+            JsonResponse.sendBadRequest(response, "Limite inválido");
+        } catch (IllegalArgumentException e) {
+            JsonResponse.sendBadRequest(response, e.getMessage());
+        }
+    }
+    private UUID parseUuid(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("ID inválido: " + value);
+        }
+    }
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
+        if ("/import".equals(request.getPathInfo())) {
+            importTransactions(request, response);
+            return;
+        }
         try {
             String requestBody = RequestParser.getRequestBody(request);
             com.google.gson.JsonObject jsonObject = com.google.gson.JsonParser.parseString(requestBody).getAsJsonObject();
@@ -83,8 +135,10 @@ public class TransactionServlet extends HttpServlet {
             } else {
                 transaction.setTransactionDate(LocalDate.now());
             }
-            Transaction createdTransaction = transactionService.createTransaction(transaction);
-            JsonResponse.sendSuccess(response, createdTransaction, HttpServletResponse.SC_CREATED);
+            IdempotentRequest.send(request, response, IdempotencyService.SCOPE_TRANSACTION_CREATE,
+                    transaction.getSourceAccountId(), requestBody, HttpServletResponse.SC_CREATED, () -> transactionService.createTransaction(transaction));
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -92,6 +146,27 @@ public class TransactionServlet extends HttpServlet {
             JsonResponse.sendInternalError(response, "Erro ao criar transação: " + e.getMessage());
         }
     }
+    private void importTransactions(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            UUID userId = parseUuid(request.getParameter("userId"));
+            UUID accountId = parseUuid(request.getParameter("accountId"));
+            String body = RequestParser.getRawRequestBody(request, TransactionImportService.MAX_BODY_BYTES);
+            String contentType = request.getContentType();
+            boolean csv = contentType != null && contentType.toLowerCase().contains("csv");
+            IdempotentRequest.send(request, response, IdempotencyService.SCOPE_TRANSACTION_IMPORT, userId,
+                    request.getQueryString() + "\n" + body, HttpServletResponse.SC_CREATED,
+                    () -> csv
+                            ? transactionImportService.importCsv(userId, accountId, body)
+                            : transactionImportService.importJson(userId, accountId, body));
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            JsonResponse.sendBadRequest(response, e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            JsonResponse.sendInternalError(response, "Erro ao importar transações: " + e.getMessage());
+        }
+    }
     private LocalDate parseDate(String dateStr) {
         if (dateStr == null || dateStr.trim().isEmpty()) {
             return null;
@@ -165,6 +240,8 @@ public class TransactionServlet extends HttpServlet {
             transaction.setTransactionId(id);
             Transaction updatedTransaction = transactionService.updateTransaction(transaction);
             JsonResponse.sendSuccess(response, updatedTransaction);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.dto.UserRequestDTO;
 import org.example.dto.UserResponseDTO;
@@ -35,6 +36,8 @@ public class UserFormServlet extends HttpServlet {
             UserRequestDTO userDTO = RequestParser.parseJson(request, UserRequestDTO.class);
             UserResponseDTO createdUser = userFormService.createUserFromForm(userDTO);
             JsonResponse.sendSuccess(response, createdUser, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -62,6 +65,8 @@ public class UserFormServlet extends HttpServlet {
             UserUpdateDTO updateDTO = RequestParser.parseJson(request, UserUpdateDTO.class);
             UserResponseDTO updatedUser = userFormService.updateUserFromForm(userId, updateDTO);
             JsonResponse.sendSuccess(response, updatedUser);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
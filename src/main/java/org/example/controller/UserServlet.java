@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.controller.util.JsonResponse;
+import org.example.controller.util.RequestBodyTooLargeException;
 import org.example.controller.util.RequestParser;
 import org.example.model.User;
 import org.example.service.UserService;
@@ -79,6 +80,8 @@ public class UserServlet extends HttpServlet {
             
             User createdUser = userService.createUser(user);
             JsonResponse.sendSuccess(response, createdUser, HttpServletResponse.SC_CREATED);
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -146,6 +149,8 @@ public class UserServlet extends HttpServlet {
                 User updatedUser = userService.updateUser(user);
                 JsonResponse.sendSuccess(response, updatedUser);
             }
+        } catch (RequestBodyTooLargeException e) {
+            JsonResponse.sendPayloadTooLarge(response, e.getMessage());
         } catch (IllegalArgumentException e) {
             JsonResponse.sendBadRequest(response, e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,468 @@
+package org.example.controller.util;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.example.dto.*;
+import org.example.model.Account;
+import org.example.model.AccountTypeEnum;
+import org.example.model.Transaction;
+import org.example.model.TransactionTypeEnum;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+/**
+ * Adapters escritos à mão para os tipos que mais passam pelas respostas e requisições (listagens de
+ * transações e contas, carteira de investimentos, PIX), no lugar do adapter reflexivo do Gson: sem reflexão
+ * no primeiro uso e sem boxing por campo. Seguem o mesmo contrato do reflexivo: campos na ordem de declaração,
+ * nulos omitidos, campos desconhecidos ignorados e enums pelo nome. Os demais DTOs continuam reflexivos.
+ */
+public class DtoTypeAdapters implements TypeAdapterFactory {
+    private static final TypeToken<List<AssetDistributionDTO>> DISTRIBUTION_LIST = new TypeToken<>() {};
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (rawType == Transaction.class) {
+            adapter = new TransactionAdapter();
+        } else if (rawType == Account.class) {
+            adapter = new AccountAdapter();
+        } else if (rawType == TransactionSummaryDTO.class) {
+            adapter = new TransactionSummaryAdapter();
+        } else if (rawType == PixRequestDTO.class) {
+            adapter = new PixRequestAdapter();
+        } else if (rawType == AssetDistributionDTO.class) {
+            adapter = new AssetDistributionAdapter();
+        } else if (rawType == PortfolioSummaryDTO.class) {
+            adapter = new PortfolioSummaryAdapter(gson.getAdapter(DISTRIBUTION_LIST));
+        } else if (rawType == AssetCardDTO.class) {
+            adapter = new AssetCardAdapter();
+        } else if (rawType == OrderHistoryItemDTO.class) {
+            adapter = new OrderHistoryItemAdapter();
+        } else if (rawType == InvestmentTransactionResponseDTO.class) {
+            adapter = new InvestmentTransactionResponseAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+    private static class TransactionAdapter extends TypeAdapter<Transaction> {
+        @Override
+        public void write(JsonWriter out, Transaction value) throws IOException {
+            out.beginObject();
+            out.name("transactionId").value(uuid(value.getTransactionId()));
+            out.name("sourceAccountId").value(uuid(value.getSourceAccountId()));
+            out.name("destinationAccountId").value(uuid(value.getDestinationAccountId()));
+            out.name("categoryId").value(value.getCategoryId());
+            out.name("amount").value(value.getAmount());
+            out.name("transactionType").value(name(value.getTransactionType()));
+            out.name("description").value(value.getDescription());
+            out.name("transactionDate").value(GsonConfig.formatDate(value.getTransactionDate()));
+            out.name("isRecurring").value(value.getIsRecurring());
+            out.name("installmentCurrent").value(value.getInstallmentCurrent());
+            out.name("installmentTotal").value(value.getInstallmentTotal());
+            out.name("createdAt").value(GsonConfig.formatDateTime(value.getCreatedAt()));
+            out.endObject();
+        }
+        @Override
+        public Transaction read(JsonReader in) throws IOException {
+            Transaction transaction = new Transaction();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "transactionId" -> transaction.setTransactionId(readUuid(in));
+                    case "sourceAccountId" -> transaction.setSourceAccountId(readUuid(in));
+                    case "destinationAccountId" -> transaction.setDestinationAccountId(readUuid(in));
+                    case "categoryId" -> transaction.setCategoryId(readInteger(in));
+                    case "amount" -> transaction.setAmount(readDecimal(in));
+                    case "transactionType" -> transaction.setTransactionType(readEnum(in, TransactionTypeEnum.class));
+                    case "description" -> transaction.setDescription(readString(in));
+                    case "transactionDate" -> transaction.setTransactionDate(GsonConfig.parseDate(readString(in)));
+                    case "isRecurring" -> transaction.setIsRecurring(readBoolean(in));
+                    case "installmentCurrent" -> transaction.setInstallmentCurrent(readInteger(in));
+                    case "installmentTotal" -> transaction.setInstallmentTotal(readInteger(in));
+                    case "createdAt" -> transaction.setCreatedAt(GsonConfig.parseDateTime(readString(in)));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return transaction;
+        }
+    }
+    private static class AccountAdapter extends TypeAdapter<Account> {
+        @Override
+        public void write(JsonWriter out, Account value) throws IOException {
+            out.beginObject();
+            out.name("accountId").value(uuid(value.getAccountId()));
+            out.name("userId").value(uuid(value.getUserId()));
+            out.name("bankCode").value(value.getBankCode());
+            out.name("bankName").value(value.getBankName());
+            out.name("accountNumber").value(value.getAccountNumber());
+            out.name("agencyNumber").value(value.getAgencyNumber());
+            out.name("accountType").value(name(value.getAccountType()));
+            out.name("balance").value(value.getBalance());
+            out.name("createdAt").value(GsonConfig.formatDateTime(value.getCreatedAt()));
+            out.name("status").value(value.getStatus());
+            out.endObject();
+        }
+        @Override
+        public Account read(JsonReader in) throws IOException {
+            Account account = new Account();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "accountId" -> account.setAccountId(readUuid(in));
+                    case "userId" -> account.setUserId(readUuid(in));
+                    case "bankCode" -> account.setBankCode(readString(in));
+                    case "bankName" -> account.setBankName(readString(in));
+                    case "accountNumber" -> account.setAccountNumber(readString(in));
+                    case "agencyNumber" -> account.setAgencyNumber(readString(in));
+                    case "accountType" -> account.setAccountType(readEnum(in, AccountTypeEnum.class));
+                    case "balance" -> account.setBalance(readDecimal(in));
+                    case "createdAt" -> account.setCreatedAt(GsonConfig.parseDateTime(readString(in)));
+                    case "status" -> account.setStatus(readString(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return account;
+        }
+    }
+    private static class TransactionSummaryAdapter extends TypeAdapter<TransactionSummaryDTO> {
+        @Override
+        public void write(JsonWriter out, TransactionSummaryDTO value) throws IOException {
+            out.beginObject();
+            out.name("transactionId").value(uuid(value.getTransactionId()));
+            out.name("amount").value(value.getAmount());
+            out.name("transactionType").value(name(value.getTransactionType()));
+            out.name("description").value(value.getDescription());
+            out.name("transactionDate").value(GsonConfig.formatDate(value.getTransactionDate()));
+            out.name("createdAt").value(GsonConfig.formatDateTime(value.getCreatedAt()));
+            out.endObject();
+        }
+        @Override
+        public TransactionSummaryDTO read(JsonReader in) throws IOException {
+            TransactionSummaryDTO summary = new TransactionSummaryDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "transactionId" -> summary.setTransactionId(readUuid(in));
+                    case "amount" -> summary.setAmount(readDecimal(in));
+                    case "transactionType" -> summary.setTransactionType(readEnum(in, TransactionTypeEnum.class));
+                    case "description" -> summary.setDescription(readString(in));
+                    case "transactionDate" -> summary.setTransactionDate(GsonConfig.parseDate(readString(in)));
+                    case "createdAt" -> summary.setCreatedAt(GsonConfig.parseDateTime(readString(in)));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return summary;
+        }
+    }
+    private static class PixRequestAdapter extends TypeAdapter<PixRequestDTO> {
+        @Override
+        public void write(JsonWriter out, PixRequestDTO value) throws IOException {
+            out.beginObject();
+            out.name("sourceAccountId").value(uuid(value.getSourceAccountId()));
+            out.name("destinationAccountId").value(uuid(value.getDestinationAccountId()));
+            out.name("destinationUserId").value(uuid(value.getDestinationUserId()));
+            out.name("amount").value(value.getAmount());
+            out.name("description").value(value.getDescription());
+            out.endObject();
+        }
+        @Override
+        public PixRequestDTO read(JsonReader in) throws IOException {
+            PixRequestDTO request = new PixRequestDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "sourceAccountId" -> request.setSourceAccountId(readUuid(in));
+                    case "destinationAccountId" -> request.setDestinationAccountId(readUuid(in));
+                    case "destinationUserId" -> request.setDestinationUserId(readUuid(in));
+                    case "amount" -> request.setAmount(readString(in));
+                    case "description" -> request.setDescription(readString(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return request;
+        }
+    }
+    private static class AssetDistributionAdapter extends TypeAdapter<AssetDistributionDTO> {
+        @Override
+        public void write(JsonWriter out, AssetDistributionDTO value) throws IOException {
+            out.beginObject();
+            out.name("assetId").value(value.getAssetId());
+            out.name("ticker").value(value.getTicker());
+            out.name("assetName").value(value.getAssetName());
+            out.name("categoryId").value(value.getCategoryId());
+            out.name("categoryName").value(value.getCategoryName());
+            out.name("quantity").value(value.getQuantity());
+            out.name("averagePrice").value(value.getAveragePrice());
+            out.name("totalValue").value(value.getTotalValue());
+            out.name("percentage").value(value.getPercentage());
+            out.name("currentPrice").value(value.getCurrentPrice());
+            out.name("marketValue").value(value.getMarketValue());
+            out.name("unrealizedPnl").value(value.getUnrealizedPnl());
+            out.name("dailyChange").value(value.getDailyChange());
+            out.endObject();
+        }
+        @Override
+        public AssetDistributionDTO read(JsonReader in) throws IOException {
+            AssetDistributionDTO distribution = new AssetDistributionDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "assetId" -> distribution.setAssetId(readInteger(in));
+                    case "ticker" -> distribution.setTicker(readString(in));
+                    case "assetName" -> distribution.setAssetName(readString(in));
+                    case "categoryId" -> distribution.setCategoryId(readInteger(in));
+                    case "categoryName" -> distribution.setCategoryName(readString(in));
+                    case "quantity" -> distribution.setQuantity(readDecimal(in));
+                    case "averagePrice" -> distribution.setAveragePrice(readDecimal(in));
+                    case "totalValue" -> distribution.setTotalValue(readDecimal(in));
+                    case "percentage" -> distribution.setPercentage(readDecimal(in));
+                    case "currentPrice" -> distribution.setCurrentPrice(readDecimal(in));
+                    case "marketValue" -> distribution.setMarketValue(readDecimal(in));
+                    case "unrealizedPnl" -> distribution.setUnrealizedPnl(readDecimal(in));
+                    case "dailyChange" -> distribution.setDailyChange(readDecimal(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return distribution;
+        }
+    }
+    private static class PortfolioSummaryAdapter extends TypeAdapter<PortfolioSummaryDTO> {
+        private final TypeAdapter<List<AssetDistributionDTO>> distributionAdapter;
+        PortfolioSummaryAdapter(TypeAdapter<List<AssetDistributionDTO>> distributionAdapter) {
+            this.distributionAdapter = distributionAdapter;
+        }
+        @Override
+        public void write(JsonWriter out, PortfolioSummaryDTO value) throws IOException {
+            out.beginObject();
+            out.name("userId").value(value.getUserId());
+            out.name("totalPortfolioValue").value(value.getTotalPortfolioValue());
+            out.name("totalAssets").value(value.getTotalAssets());
+            out.name("distribution");
+            distributionAdapter.write(out, value.getDistribution());
+            out.name("distributionByCategory");
+            distributionAdapter.write(out, value.getDistributionByCategory());
+            out.name("totalMarketValue").value(value.getTotalMarketValue());
+            out.name("totalUnrealizedPnl").value(value.getTotalUnrealizedPnl());
+            out.name("totalDailyChange").value(value.getTotalDailyChange());
+            out.name("pricesUpdatedAt").value(GsonConfig.formatDateTime(value.getPricesUpdatedAt()));
+            out.endObject();
+        }
+        @Override
+        public PortfolioSummaryDTO read(JsonReader in) throws IOException {
+            PortfolioSummaryDTO summary = new PortfolioSummaryDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "userId" -> summary.setUserId(readInteger(in));
+                    case "totalPortfolioValue" -> summary.setTotalPortfolioValue(readDecimal(in));
+                    case "totalAssets" -> summary.setTotalAssets(readInteger(in));
+                    case "distribution" -> summary.setDistribution(distributionAdapter.read(in));
+                    case "distributionByCategory" -> summary.setDistributionByCategory(distributionAdapter.read(in));
+                    case "totalMarketValue" -> summary.setTotalMarketValue(readDecimal(in));
+                    case "totalUnrealizedPnl" -> summary.setTotalUnrealizedPnl(readDecimal(in));
+                    case "totalDailyChange" -> summary.setTotalDailyChange(readDecimal(in));
+                    case "pricesUpdatedAt" -> summary.setPricesUpdatedAt(GsonConfig.parseDateTime(readString(in)));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return summary;
+        }
+    }
+    private static class AssetCardAdapter extends TypeAdapter<AssetCardDTO> {
+        @Override
+        public void write(JsonWriter out, AssetCardDTO value) throws IOException {
+            out.beginObject();
+            out.name("assetId").value(value.getAssetId());
+            out.name("ticker").value(value.getTicker());
+            out.name("assetName").value(value.getAssetName());
+            out.name("currentPrice").value(value.getCurrentPrice());
+            out.name("priceChange").value(value.getPriceChange());
+            out.name("iconUrl").value(value.getIconUrl());
+            out.name("iconColor").value(value.getIconColor());
+            out.name("currency").value(value.getCurrency());
+            out.endObject();
+        }
+        @Override
+        public AssetCardDTO read(JsonReader in) throws IOException {
+            AssetCardDTO card = new AssetCardDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "assetId" -> card.setAssetId(readInteger(in));
+                    case "ticker" -> card.setTicker(readString(in));
+                    case "assetName" -> card.setAssetName(readString(in));
+                    case "currentPrice" -> card.setCurrentPrice(readDecimal(in));
+                    case "priceChange" -> card.setPriceChange(readDecimal(in));
+                    case "iconUrl" -> card.setIconUrl(readString(in));
+                    case "iconColor" -> card.setIconColor(readString(in));
+                    case "currency" -> card.setCurrency(readString(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return card;
+        }
+    }
+    private static class OrderHistoryItemAdapter extends TypeAdapter<OrderHistoryItemDTO> {
+        @Override
+        public void write(JsonWriter out, OrderHistoryItemDTO value) throws IOException {
+            out.beginObject();
+            out.name("transactionId").value(value.getTransactionId());
+            out.name("assetTicker").value(value.getAssetTicker());
+            out.name("assetName").value(value.getAssetName());
+            out.name("type").value(value.getType());
+            out.name("date").value(GsonConfig.formatDate(value.getDate()));
+            out.name("value").value(value.getValue());
+            out.name("status").value(value.getStatus());
+            out.endObject();
+        }
+        @Override
+        public OrderHistoryItemDTO read(JsonReader in) throws IOException {
+            OrderHistoryItemDTO item = new OrderHistoryItemDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "transactionId" -> item.setTransactionId(readInteger(in));
+                    case "assetTicker" -> item.setAssetTicker(readString(in));
+                    case "assetName" -> item.setAssetName(readString(in));
+                    case "type" -> item.setType(readString(in));
+                    case "date" -> item.setDate(GsonConfig.parseDate(readString(in)));
+                    case "value" -> item.setValue(readDecimal(in));
+                    case "status" -> item.setStatus(readString(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return item;
+        }
+    }
+    private static class InvestmentTransactionResponseAdapter extends TypeAdapter<InvestmentTransactionResponseDTO> {
+        @Override
+        public void write(JsonWriter out, InvestmentTransactionResponseDTO value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("userId").value(value.getUserId());
+            out.name("assetId").value(value.getAssetId());
+            out.name("assetTicker").value(value.getAssetTicker());
+            out.name("assetName").value(value.getAssetName());
+            out.name("type").value(value.getType());
+            out.name("price").value(value.getPrice());
+            out.name("quantity").value(value.getQuantity());
+            out.name("totalValue").value(value.getTotalValue());
+            out.name("transactionDate").value(GsonConfig.formatDateTime(value.getTransactionDate()));
+            out.name("status").value(value.getStatus());
+            out.endObject();
+        }
+        @Override
+        public InvestmentTransactionResponseDTO read(JsonReader in) throws IOException {
+            InvestmentTransactionResponseDTO response = new InvestmentTransactionResponseDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> response.setId(readInteger(in));
+                    case "userId" -> response.setUserId(readInteger(in));
+                    case "assetId" -> response.setAssetId(readInteger(in));
+                    case "assetTicker" -> response.setAssetTicker(readString(in));
+                    case "assetName" -> response.setAssetName(readString(in));
+                    case "type" -> response.setType(readString(in));
+                    case "price" -> response.setPrice(readDecimal(in));
+                    case "quantity" -> response.setQuantity(readDecimal(in));
+                    case "totalValue" -> response.setTotalValue(readDecimal(in));
+                    case "transactionDate" -> response.setTransactionDate(GsonConfig.parseDateTime(readString(in)));
+                    case "status" -> response.setStatus(readString(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+    private static String uuid(UUID value) {
+        return value != null ? value.toString() : null;
+    }
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+    private static boolean nextIsNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+    private static String readString(JsonReader in) throws IOException {
+        if (nextIsNull(in)) {
+            return null;
+        }
+        if (in.peek() == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+    private static UUID readUuid(JsonReader in) throws IOException {
+        String value = readString(in);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException("UUID inválido: " + value + " em " + in.getPreviousPath(), e);
+        }
+    }
+    private static Integer readInteger(JsonReader in) throws IOException {
+        if (nextIsNull(in)) {
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+    private static Boolean readBoolean(JsonReader in) throws IOException {
+        if (nextIsNull(in)) {
+            return null;
+        }
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+    private static BigDecimal readDecimal(JsonReader in) throws IOException {
+        if (nextIsNull(in)) {
+            return null;
+        }
+        String value = in.nextString();
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Número inválido: " + value + " em " + in.getPreviousPath(), e);
+        }
+    }
+    private static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> enumType) throws IOException {
+        String value = readString(in);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumType, value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
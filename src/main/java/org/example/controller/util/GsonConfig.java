@@ -11,12 +11,105 @@ import java.time.format.DateTimeFormatter;
 public class GsonConfig {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final boolean PRETTY_PRINTING = Boolean.parseBoolean(System.getenv("JSON_PRETTY_PRINT"));
     public static Gson createGson() {
-        return new GsonBuilder()
+        GsonBuilder builder = new GsonBuilder()
                 .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .setPrettyPrinting()
-                .create();
+                .registerTypeAdapterFactory(new DtoTypeAdapters());
+        if (PRETTY_PRINTING) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
+    }
+    /**
+     * Caminho rápido para o formato fixo yyyy-MM-dd: preenche os dígitos direto num char[], sem passar pelo
+     * DateTimeFormatter. Anos fora de 0000-9999 usam o formatter.
+     */
+    static String formatDate(LocalDate value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            return value.format(DATE_FORMATTER);
+        }
+        char[] chars = new char[10];
+        writeDate(chars, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        return new String(chars);
+    }
+    /**
+     * Mesmo caminho rápido para yyyy-MM-ddTHH:mm:ss; com fração de segundo o formatter é mantido, para a
+     * saída continuar idêntica à do ISO_LOCAL_DATE_TIME.
+     */
+    static String formatDateTime(LocalDateTime value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.getNano() != 0 || value.getYear() < 0 || value.getYear() > 9999) {
+            return value.format(DATETIME_FORMATTER);
+        }
+        char[] chars = new char[19];
+        writeDate(chars, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        chars[10] = 'T';
+        writeDigits(chars, 11, value.getHour(), 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, value.getMinute(), 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, value.getSecond(), 2);
+        return new String(chars);
+    }
+    static LocalDate parseDate(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        if (value.length() == 10 && value.charAt(4) == '-' && value.charAt(7) == '-') {
+            int year = readDigits(value, 0, 4);
+            int month = readDigits(value, 5, 2);
+            int day = readDigits(value, 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(value, DATE_FORMATTER);
+    }
+    static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        if (value.length() == 19 && value.charAt(10) == 'T' && value.charAt(13) == ':' && value.charAt(16) == ':') {
+            LocalDate date = parseDate(value.substring(0, 10));
+            int hour = readDigits(value, 11, 2);
+            int minute = readDigits(value, 14, 2);
+            int second = readDigits(value, 17, 2);
+            if (hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(value, DATETIME_FORMATTER);
+    }
+    private static void writeDate(char[] chars, int year, int month, int day) {
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+    }
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+    private static int readDigits(String value, int offset, int width) {
+        int result = 0;
+        for (int i = offset; i < offset + width; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
     }
     private static class LocalDateAdapter extends TypeAdapter<LocalDate> {
         @Override
@@ -24,7 +117,7 @@ public class GsonConfig {
             if (value == null) {
                 out.nullValue();
             } else {
-                out.value(value.format(DATE_FORMATTER));
+                out.value(formatDate(value));
             }
         }
         @Override
@@ -37,7 +130,7 @@ public class GsonConfig {
             if (dateStr == null || dateStr.trim().isEmpty()) {
                 return null;
             }
-            return LocalDate.parse(dateStr, DATE_FORMATTER);
+            return parseDate(dateStr);
         }
     }
     private static class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
@@ -46,7 +139,7 @@ public class GsonConfig {
             if (value == null) {
                 out.nullValue();
             } else {
-                out.value(value.format(DATETIME_FORMATTER));
+                out.value(formatDateTime(value));
             }
         }
         @Override
@@ -59,7 +152,7 @@ public class GsonConfig {
             if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
                 return null;
             }
-            return LocalDateTime.parse(dateTimeStr, DATETIME_FORMATTER);
+            return parseDateTime(dateTimeStr);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.example.controller.util;
+import org.example.service.IdempotencyConflictException;
+import org.example.service.IdempotencyService;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.function.Supplier;
+public class IdempotentRequest {
+    private static final IdempotencyService idempotencyService = new IdempotencyService();
+    /**
+     * Sem o header {@code Idempotency-Key} apenas executa a operação e envia o resultado. Com o header,
+     * a operação roda no máximo uma vez por chave e as repetições recebem a resposta original
+     * com {@code Idempotent-Replayed: true}. A chave é separada por {@code owner} (conta de origem ou usuário).
+     */
+    public static void send(HttpServletRequest request, HttpServletResponse response, String scope, UUID owner,
+                            String requestFingerprint, int successStatus, Supplier<Object> operation) throws IOException {
+        String key = request.getHeader(IdempotencyService.HEADER);
+        if (key == null) {
+            JsonResponse.sendSuccess(response, operation.get(), successStatus);
+            return;
+        }
+        IdempotencyService.Result result;
+        try {
+            result = idempotencyService.execute(scope, owner != null ? owner.toString() : null, key.trim(),
+                    requestFingerprint, successStatus, () -> JsonResponse.toJson(operation.get()));
+        } catch (IdempotencyConflictException e) {
+            JsonResponse.sendError(response, e.getMessage(), HttpServletResponse.SC_CONFLICT);
+            return;
+        }
+        if (result.isReplayed()) {
+            response.setHeader("Idempotent-Replayed", "true");
+        }
+        JsonResponse.sendJson(response, result.getBody(), result.getStatusCode());
+    }
+}
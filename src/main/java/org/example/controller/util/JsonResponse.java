@@ -1,39 +1,137 @@
 package org.example.controller.util;
 import com.google.gson.Gson;
+import com.google.gson.JsonNull;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 public class JsonResponse {
     private static final Gson gson = GsonConfig.createGson();
+    private static final int WRITE_BUFFER_CHARS = 8192;
+    private static final com.sun.management.ThreadMXBean threads = allocationMeter();
+    private static final AtomicLong responses = new AtomicLong();
+    private static final AtomicLong measuredResponses = new AtomicLong();
+    private static final AtomicLong allocatedBytes = new AtomicLong();
+    private static final AtomicLong maxAllocatedBytes = new AtomicLong();
+    /**
+     * Serializa direto no stream da resposta com {@link JsonWriter}, sem montar o JSON inteiro numa String.
+     * Sem Content-Length, o container envia em chunks assim que o buffer enche, então listas grandes não
+     * ficam inteiras em memória; a compressão gzip fica a cargo do conector (ver {@code Main}).
+     */
     public static void sendSuccess(HttpServletResponse response, Object data, int statusCode) throws IOException {
+        long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(statusCode);
-        PrintWriter out = response.getWriter();
-        out.print(gson.toJson(data));
-        out.flush();
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        JsonWriter jsonWriter = gson.newJsonWriter(out);
+        if (data == null) {
+            gson.toJson(JsonNull.INSTANCE, jsonWriter);
+        } else {
+            gson.toJson(data, data.getClass(), jsonWriter);
+        }
+        jsonWriter.flush();
+        recordResponse(allocatedBefore);
     }
-    public static void sendSuccess(HttpServletResponse response, Object data) throws IOException {
-        sendSuccess(response, data, HttpServletResponse.SC_OK);
+    /**
+     * Escreve uma página no formato de {@code PageDTO} ({@code items}, {@code limit}, {@code hasMore},
+     * {@code nextCursor}) serializando cada item assim que {@code source} o entrega, sem montar a lista.
+     * Se {@code source} falhar antes de o buffer da resposta ser enviado, nada sai e o erro pode ser
+     * respondido normalmente.
+     */
+    public static <T> void sendPage(HttpServletResponse response, Class<T> itemType, int limit,
+                                    PageSource<T> source) throws IOException {
+        long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        JsonWriter jsonWriter = gson.newJsonWriter(out);
+        TypeAdapter<T> adapter = gson.getAdapter(itemType);
+        jsonWriter.beginObject();
+        jsonWriter.name("items").beginArray();
+        String nextCursor = source.writeItems(item -> adapter.write(jsonWriter, item));
+        jsonWriter.endArray();
+        jsonWriter.name("limit").value(limit);
+        jsonWriter.name("hasMore").value(nextCursor != null);
+        jsonWriter.name("nextCursor").value(nextCursor);
+        jsonWriter.endObject();
+        jsonWriter.flush();
+        recordResponse(allocatedBefore);
     }
-    public static void sendError(HttpServletResponse response, String message, int statusCode) throws IOException {
+    public static void sendJson(HttpServletResponse response, String json, int statusCode) throws IOException {
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(statusCode);
-        ErrorResponse errorResponse = new ErrorResponse(message, statusCode);
-        PrintWriter out = response.getWriter();
-        out.print(gson.toJson(errorResponse));
-        out.flush();
+        response.getOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
+        response.flushBuffer();
+    }
+    public static String toJson(Object data) {
+        return gson.toJson(data);
+    }
+    public static void sendSuccess(HttpServletResponse response, Object data) throws IOException {
+        sendSuccess(response, data, HttpServletResponse.SC_OK);
+    }
+    public static void sendError(HttpServletResponse response, String message, int statusCode) throws IOException {
+        if (response.isCommitted()) {
+            System.err.println("Resposta já enviada parcialmente, erro não pode ser reportado ao cliente: " + message);
+            return;
+        }
+        response.resetBuffer();
+        sendJson(response, gson.toJson(new ErrorResponse(message, statusCode)), statusCode);
     }
     public static void sendBadRequest(HttpServletResponse response, String message) throws IOException {
         sendError(response, message, HttpServletResponse.SC_BAD_REQUEST);
     }
+    public static void sendPayloadTooLarge(HttpServletResponse response, String message) throws IOException {
+        sendError(response, message, 413);
+    }
     public static void sendNotFound(HttpServletResponse response, String message) throws IOException {
         sendError(response, message, HttpServletResponse.SC_NOT_FOUND);
     }
     public static void sendInternalError(HttpServletResponse response, String message) throws IOException {
         sendError(response, message, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
     }
+    /**
+     * Bytes alocados por {@link #sendSuccess} e {@link #sendPage}. A JVM só mede alocação de threads de
+     * plataforma ({@code getCurrentThreadAllocatedBytes()} devolve -1 em virtual threads), então com o executor
+     * padrão só {@code responses} anda; os bytes aparecem com {@code SERVER_THREADS=platform}. Para comparar
+     * com a serialização antiga fora do servidor, use {@code make json-benchmark}.
+     */
+    public static ResponseStats getStats() {
+        return new ResponseStats(responses.get(), measuredResponses.get(),
+                allocatedBytes.get(), maxAllocatedBytes.get());
+    }
+    private static void recordResponse(long allocatedBefore) {
+        responses.incrementAndGet();
+        if (allocatedBefore < 0) {
+            return;
+        }
+        long allocatedAfter = threads.getCurrentThreadAllocatedBytes();
+        if (allocatedAfter < 0) {
+            return;
+        }
+        long allocated = allocatedAfter - allocatedBefore;
+        measuredResponses.incrementAndGet();
+        allocatedBytes.addAndGet(allocated);
+        maxAllocatedBytes.accumulateAndGet(allocated, Math::max);
+    }
+    static com.sun.management.ThreadMXBean allocationMeter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) bean;
+        }
+        return null;
+    }
     private static class ErrorResponse {
         private String error;
         private int status;
@@ -48,4 +146,15 @@ public class JsonResponse {
             return status;
         }
     }
+    /**
+     * Produz os itens de uma página e devolve o cursor da próxima (null na última).
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        String writeItems(ItemWriter<T> writer) throws IOException;
+    }
+    @FunctionalInterface
+    public interface ItemWriter<T> {
+        void write(T item) throws IOException;
+    }
 }
\ No newline at end of file
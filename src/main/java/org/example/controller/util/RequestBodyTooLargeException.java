@@ -0,0 +1,6 @@
+package org.example.controller.util;
+public class RequestBodyTooLargeException extends RuntimeException {
+    public RequestBodyTooLargeException(long maxBytes) {
+        super("Corpo da requisição excede o limite de " + maxBytes + " bytes");
+    }
+}
@@ -1,22 +1,51 @@
 package org.example.controller.util;
 import com.google.gson.Gson;
 import javax.servlet.http.HttpServletRequest;
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Lê o corpo das requisições direto do stream, com limite de tamanho: um Content-Length acima do limite é
+ * recusado antes de ler qualquer byte, e corpos sem Content-Length (chunked) são interrompidos ao passar dele.
+ * {@link #parseJson} entrega o stream ao Gson sem montar uma String intermediária.
+ */
 public class RequestParser {
+    public static final long DEFAULT_MAX_BODY_BYTES = Long.parseLong(
+            System.getenv().getOrDefault("REQUEST_MAX_BODY_BYTES", String.valueOf(1024 * 1024)));
     private static final Gson gson = GsonConfig.createGson();
+    private static final int READ_BUFFER_CHARS = 8192;
+    private static final int MAX_INITIAL_BODY_CHARS = 8192;
+    private static final int MAX_POOLED_BUFFERS = 64;
+    // As requisições rodam em virtual threads, uma por requisição, então um ThreadLocal nunca seria
+    // reaproveitado: os buffers de leitura ficam num pool compartilhado
+    private static final BlockingQueue<char[]> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+    private static final com.sun.management.ThreadMXBean threads = JsonResponse.allocationMeter();
+    private static final AtomicLong bodies = new AtomicLong();
+    private static final AtomicLong bytesRead = new AtomicLong();
+    private static final AtomicLong rejectedBodies = new AtomicLong();
+    private static final AtomicLong measuredBodies = new AtomicLong();
+    private static final AtomicLong allocatedBytes = new AtomicLong();
+    private static final AtomicLong maxAllocatedBytes = new AtomicLong();
     public static <T> T parseJson(HttpServletRequest request, Class<T> clazz) throws IOException {
-        StringBuilder json = new StringBuilder();
-        try (BufferedReader reader = request.getReader()) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                json.append(line);
-            }
+        long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        BoundedInputStream body = openBody(request, DEFAULT_MAX_BODY_BYTES);
+        T result;
+        try (Reader reader = new InputStreamReader(body, charsetOf(request))) {
+            result = gson.fromJson(reader, clazz);
+        } finally {
+            recordBody(body.count, allocatedBefore);
         }
-        if (json.length() == 0) {
+        if (result == null) {
             throw new IllegalArgumentException("Corpo da requisição está vazio");
         }
-        return gson.fromJson(json.toString(), clazz);
+        return result;
     }
     public static Integer extractIdFromPath(String pathInfo) {
         if (pathInfo == null || pathInfo.trim().isEmpty() || pathInfo.equals("/")) {
@@ -41,13 +70,113 @@ public class RequestParser {
         }
     }
     public static String getRequestBody(HttpServletRequest request) throws IOException {
-        StringBuilder json = new StringBuilder();
-        try (BufferedReader reader = request.getReader()) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                json.append(line);
+        return getRawRequestBody(request, DEFAULT_MAX_BODY_BYTES);
+    }
+    public static String getRawRequestBody(HttpServletRequest request) throws IOException {
+        return getRawRequestBody(request, DEFAULT_MAX_BODY_BYTES);
+    }
+    public static String getRawRequestBody(HttpServletRequest request, long maxBytes) throws IOException {
+        long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        BoundedInputStream body = openBody(request, maxBytes);
+        // O Content-Length pode chegar a dezenas de MiB na importação: o buffer começa pequeno e cresce com a leitura
+        long declared = request.getContentLengthLong();
+        StringBuilder text = new StringBuilder((int) Math.min(declared > 0 ? declared : READ_BUFFER_CHARS,
+                MAX_INITIAL_BODY_CHARS));
+        char[] buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new char[READ_BUFFER_CHARS];
+        }
+        try (Reader reader = new InputStreamReader(body, charsetOf(request))) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                text.append(buffer, 0, read);
+            }
+        } finally {
+            buffers.offer(buffer);
+            recordBody(body.count, allocatedBefore);
+        }
+        return text.toString();
+    }
+    /**
+     * Corpos lidos, bytes e recusas contam sempre; os bytes alocados só com {@code SERVER_THREADS=platform},
+     * porque {@code getCurrentThreadAllocatedBytes()} devolve -1 em virtual threads. Para comparar com a
+     * leitura antiga fora do servidor, use {@code make request-benchmark}.
+     */
+    public static RequestStats getStats() {
+        return new RequestStats(bodies.get(), bytesRead.get(), rejectedBodies.get(), measuredBodies.get(),
+                allocatedBytes.get(), maxAllocatedBytes.get());
+    }
+    private static BoundedInputStream openBody(HttpServletRequest request, long maxBytes) throws IOException {
+        if (request.getContentLengthLong() > maxBytes) {
+            rejectedBodies.incrementAndGet();
+            throw new RequestBodyTooLargeException(maxBytes);
+        }
+        return new BoundedInputStream(request.getInputStream(), maxBytes);
+    }
+    private static Charset charsetOf(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        if (encoding == null) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Codificação de caracteres não suportada: " + encoding);
+        }
+    }
+    private static void recordBody(long bytes, long allocatedBefore) {
+        bodies.incrementAndGet();
+        bytesRead.addAndGet(bytes);
+        if (allocatedBefore < 0) {
+            return;
+        }
+        long allocatedAfter = threads.getCurrentThreadAllocatedBytes();
+        if (allocatedAfter < 0) {
+            return;
+        }
+        long allocated = allocatedAfter - allocatedBefore;
+        measuredBodies.incrementAndGet();
+        allocatedBytes.addAndGet(allocated);
+        maxAllocatedBytes.accumulateAndGet(allocated, Math::max);
+    }
+    /**
+     * Conta os bytes lidos e falha assim que o corpo passa do limite, sem precisar de Content-Length.
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long count;
+        BoundedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                advance(1);
+            }
+            return b;
+        }
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            advance(skipped);
+            return skipped;
+        }
+        private void advance(long bytes) {
+            count += bytes;
+            if (count > maxBytes) {
+                rejectedBodies.incrementAndGet();
+                throw new RequestBodyTooLargeException(maxBytes);
             }
         }
-        return json.toString();
     }
-}
\ No newline at end of file
+}
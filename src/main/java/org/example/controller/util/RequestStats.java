@@ -0,0 +1,36 @@
+package org.example.controller.util;
+public class RequestStats {
+    private final long bodies;
+    private final long bytesRead;
+    private final long rejectedBodies;
+    private final long measuredBodies;
+    private final double averageAllocatedBytes;
+    private final long maxAllocatedBytes;
+    public RequestStats(long bodies, long bytesRead, long rejectedBodies, long measuredBodies,
+                        long allocatedBytes, long maxAllocatedBytes) {
+        this.bodies = bodies;
+        this.bytesRead = bytesRead;
+        this.rejectedBodies = rejectedBodies;
+        this.measuredBodies = measuredBodies;
+        this.averageAllocatedBytes = measuredBodies == 0 ? 0.0 : allocatedBytes / (double) measuredBodies;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+    public long getBodies() {
+        return bodies;
+    }
+    public long getBytesRead() {
+        return bytesRead;
+    }
+    public long getRejectedBodies() {
+        return rejectedBodies;
+    }
+    public long getMeasuredBodies() {
+        return measuredBodies;
+    }
+    public double getAverageAllocatedBytes() {
+        return averageAllocatedBytes;
+    }
+    public long getMaxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.controller.util;
+public class ResponseStats {
+    private final long responses;
+    private final long measuredResponses;
+    private final double averageAllocatedBytes;
+    private final long maxAllocatedBytes;
+    public ResponseStats(long responses, long measuredResponses, long allocatedBytes, long maxAllocatedBytes) {
+        this.responses = responses;
+        this.measuredResponses = measuredResponses;
+        this.averageAllocatedBytes = measuredResponses == 0 ? 0.0 : allocatedBytes / (double) measuredResponses;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+    public long getResponses() {
+        return responses;
+    }
+    public long getMeasuredResponses() {
+        return measuredResponses;
+    }
+    public double getAverageAllocatedBytes() {
+        return averageAllocatedBytes;
+    }
+    public long getMaxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+}
@@ -6,41 +6,35 @@ import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 public class AccountDAO {
-    private Account mapResultSetToAccount(ResultSet rs) throws SQLException {
+    private static final Projection<Account> ACCOUNT = new Projection<>(AccountDAO::mapResultSetToAccount,
+            "account_id", "user_id", "bank_code", "bank_name", "account_number", "agency_number",
+            "account_type", "balance", "status", "created_at");
+    private static Account mapResultSetToAccount(ResultSet rs) throws SQLException {
         Account account = new Account();
-        account.setAccountId(rs.getInt("account_id"));
-        account.setUserId(rs.getInt("user_id"));
-        account.setBankCode(getStringSafely(rs, "bank_code"));
-        account.setBankName(getStringSafely(rs, "bank_name"));
-        account.setAccountNumber(rs.getString("account_number"));
-        account.setAgencyNumber(rs.getString("agency_number"));
-        String accountTypeStr = rs.getString("account_type");
+        account.setAccountId(rs.getObject(1, UUID.class));
+        account.setUserId(rs.getObject(2, UUID.class));
+        account.setBankCode(rs.getString(3));
+        account.setBankName(rs.getString(4));
+        account.setAccountNumber(rs.getString(5));
+        account.setAgencyNumber(rs.getString(6));
+        String accountTypeStr = rs.getString(7);
         if (accountTypeStr != null) {
             account.setAccountType(AccountTypeEnum.valueOf(accountTypeStr));
         }
-        BigDecimal balance = rs.getBigDecimal("balance");
+        BigDecimal balance = rs.getBigDecimal(8);
         account.setBalance(balance != null ? balance : BigDecimal.ZERO);
-        account.setStatus(rs.getString("status"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            account.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        account.setStatus(rs.getString(9));
+        account.setCreatedAt(RowMapper.getLocalDateTime(rs, 10));
         return account;
     }
-    private String getStringSafely(ResultSet rs, String columnName) throws SQLException {
-        try {
-            String value = rs.getString(columnName);
-            return rs.wasNull() ? null : value;
-        } catch (SQLException e) {
-            if (e.getMessage() != null && e.getMessage().contains("não foi encontrado")) {
-                return null;
-            }
-            throw e; 
-        }
-    }
     private void prepareAccountForSave(Account account) {
         if (account.getAccountType() == null) {
             account.setAccountType(AccountTypeEnum.CHECKING);
@@ -81,12 +75,12 @@ public class AccountDAO {
     }
     public Optional<Account> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM accounts WHERE account_id = ?";
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE account_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAccount(rs));
+                        return Optional.of(ACCOUNT.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -95,12 +89,12 @@ public class AccountDAO {
     }
     public List<Account> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM accounts ORDER BY account_id";
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts ORDER BY account_id";
             List<Account> accounts = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    accounts.add(mapResultSetToAccount(rs));
+                    accounts.add(ACCOUNT.mapRow(rs));
                 }
                 return accounts;
             }
@@ -108,13 +102,13 @@ public class AccountDAO {
     }
     public List<Account> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM accounts WHERE user_id = ? ORDER BY account_id";
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE user_id = ? ORDER BY account_id";
             List<Account> accounts = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        accounts.add(mapResultSetToAccount(rs));
+                        accounts.add(ACCOUNT.mapRow(rs));
                     }
                     return accounts;
                 }
@@ -123,12 +117,12 @@ public class AccountDAO {
     }
     public Optional<Account> findByAccountNumber(String accountNumber) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM accounts WHERE account_number = ?";
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE account_number = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, accountNumber);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAccount(rs));
+                        return Optional.of(ACCOUNT.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -137,13 +131,13 @@ public class AccountDAO {
     }
     public List<Account> findByAccountType(AccountTypeEnum accountType) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM accounts WHERE account_type = ?::account_type_enum ORDER BY account_id";
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE account_type = ?::account_type_enum ORDER BY account_id";
             List<Account> accounts = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, accountType.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        accounts.add(mapResultSetToAccount(rs));
+                        accounts.add(ACCOUNT.mapRow(rs));
                     }
                     return accounts;
                 }
@@ -155,13 +149,13 @@ public class AccountDAO {
     }
     public List<Account> findByStatus(String status) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM accounts WHERE status = ? ORDER BY account_id";
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE status = ? ORDER BY account_id";
             List<Account> accounts = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, status);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        accounts.add(mapResultSetToAccount(rs));
+                        accounts.add(ACCOUNT.mapRow(rs));
                     }
                     return accounts;
                 }
@@ -239,4 +233,98 @@ public class AccountDAO {
             }
         });
     }
-}
\ No newline at end of file
+    /**
+     * Trava as duas contas de uma transferência com FOR UPDATE, sempre na ordem crescente de account_id.
+     * Como toda transferência trava na mesma ordem, duas transferências em sentidos opostos entre as
+     * mesmas contas esperam uma pela outra em vez de entrar em deadlock.
+     */
+    public List<Account> lockForTransfer(Connection conn, UUID firstAccountId, UUID secondAccountId) throws SQLException {
+        String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE account_id IN (?::uuid, ?::uuid) " +
+                    "ORDER BY account_id FOR UPDATE";
+        List<Account> accounts = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, firstAccountId);
+            stmt.setObject(2, secondAccountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(ACCOUNT.mapRow(rs));
+                }
+                return accounts;
+            }
+        }
+    }
+    public Optional<Account> findFirstActiveByUserId(UUID userId) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT " + ACCOUNT.columns() + " FROM accounts WHERE user_id = ?::uuid AND status = 'ACTIVE' " +
+                        "ORDER BY created_at, account_id LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setObject(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(ACCOUNT.mapRow(rs));
+                    }
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+    public Optional<UUID> findActiveAccountIdByUserId(Connection conn, UUID userId) throws SQLException {
+        String sql = "SELECT account_id FROM accounts WHERE user_id = ?::uuid AND status = 'ACTIVE' " +
+                    "ORDER BY created_at, account_id LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(rs.getObject(1, UUID.class));
+                }
+                return Optional.empty();
+            }
+        }
+    }
+    public Set<UUID> findActiveAccountIdsByUserId(Connection conn, UUID userId) throws SQLException {
+        String sql = "SELECT account_id FROM accounts WHERE user_id = ?::uuid AND status = 'ACTIVE'";
+        Set<UUID> accountIds = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accountIds.add(rs.getObject(1, UUID.class));
+                }
+            }
+        }
+        return accountIds;
+    }
+    /**
+     * Aplica vários deltas de saldo num único UPDATE ... FROM (VALUES ...). Débitos só são aplicados
+     * se o saldo continuar não negativo; contas inativas ou sem saldo ficam fora do retorno, então o
+     * chamador compara o tamanho do mapa devolvido com o enviado.
+     */
+    public Map<UUID, BigDecimal> applyBalanceDeltas(Connection conn, Map<UUID, BigDecimal> deltas) throws SQLException {
+        Map<UUID, BigDecimal> newBalances = new LinkedHashMap<>();
+        if (deltas.isEmpty()) {
+            return newBalances;
+        }
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < deltas.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(?::uuid, ?::numeric)");
+        }
+        String sql = "UPDATE accounts a SET balance = a.balance + v.delta " +
+                    "FROM (VALUES " + values + ") AS v(account_id, delta) " +
+                    "WHERE a.account_id = v.account_id AND a.status = 'ACTIVE' " +
+                    "AND (v.delta >= 0 OR a.balance + v.delta >= 0) " +
+                    "RETURNING a.account_id, a.balance";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Map.Entry<UUID, BigDecimal> delta : deltas.entrySet()) {
+                stmt.setObject(index++, delta.getKey());
+                stmt.setBigDecimal(index++, delta.getValue());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    newBalances.put(rs.getObject(1, UUID.class), rs.getBigDecimal(2));
+                }
+                return newBalances;
+            }
+        }
+    }
+}
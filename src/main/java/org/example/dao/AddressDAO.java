@@ -7,22 +7,22 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class AddressDAO {
-    private Address mapResultSetToAddress(ResultSet rs) throws SQLException {
+    private static final Projection<Address> ADDRESS = new Projection<>(AddressDAO::mapResultSetToAddress,
+            "address_id", "user_id", "street", "number", "complement", "neighborhood", "city",
+            "state", "zip_code", "country", "created_at");
+    private static Address mapResultSetToAddress(ResultSet rs) throws SQLException {
         Address address = new Address();
-        address.setAddressId(rs.getInt("address_id"));
-        address.setUserId(rs.getInt("user_id"));
-        address.setStreet(rs.getString("street"));
-        address.setNumber(rs.getString("number"));
-        address.setComplement(rs.getString("complement"));
-        address.setNeighborhood(rs.getString("neighborhood"));
-        address.setCity(rs.getString("city"));
-        address.setState(rs.getString("state"));
-        address.setZipCode(rs.getString("zip_code"));
-        address.setCountry(rs.getString("country"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            address.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        address.setAddressId(rs.getInt(1));
+        address.setUserId(rs.getInt(2));
+        address.setStreet(rs.getString(3));
+        address.setNumber(rs.getString(4));
+        address.setComplement(rs.getString(5));
+        address.setNeighborhood(rs.getString(6));
+        address.setCity(rs.getString(7));
+        address.setState(rs.getString(8));
+        address.setZipCode(rs.getString(9));
+        address.setCountry(rs.getString(10));
+        address.setCreatedAt(RowMapper.getLocalDateTime(rs, 11));
         return address;
     }
     private void prepareAddressForSave(Address address) {
@@ -61,12 +61,12 @@ public class AddressDAO {
     }
     public Optional<Address> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM addresses WHERE address_id = ?";
+            String sql = "SELECT " + ADDRESS.columns() + " FROM addresses WHERE address_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAddress(rs));
+                        return Optional.of(ADDRESS.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -75,12 +75,12 @@ public class AddressDAO {
     }
     public List<Address> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM addresses ORDER BY address_id";
+            String sql = "SELECT " + ADDRESS.columns() + " FROM addresses ORDER BY address_id";
             List<Address> addresses = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    addresses.add(mapResultSetToAddress(rs));
+                    addresses.add(ADDRESS.mapRow(rs));
                 }
                 return addresses;
             }
@@ -88,13 +88,13 @@ public class AddressDAO {
     }
     public List<Address> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM addresses WHERE user_id = ? ORDER BY address_id";
+            String sql = "SELECT " + ADDRESS.columns() + " FROM addresses WHERE user_id = ? ORDER BY address_id";
             List<Address> addresses = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        addresses.add(mapResultSetToAddress(rs));
+                        addresses.add(ADDRESS.mapRow(rs));
                     }
                     return addresses;
                 }
@@ -103,13 +103,13 @@ public class AddressDAO {
     }
     public List<Address> findByCity(String city) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM addresses WHERE city = ? ORDER BY address_id";
+            String sql = "SELECT " + ADDRESS.columns() + " FROM addresses WHERE city = ? ORDER BY address_id";
             List<Address> addresses = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, city);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        addresses.add(mapResultSetToAddress(rs));
+                        addresses.add(ADDRESS.mapRow(rs));
                     }
                     return addresses;
                 }
@@ -118,13 +118,13 @@ public class AddressDAO {
     }
     public List<Address> findByState(String state) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM addresses WHERE state = ? ORDER BY address_id";
+            String sql = "SELECT " + ADDRESS.columns() + " FROM addresses WHERE state = ? ORDER BY address_id";
             List<Address> addresses = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, state);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        addresses.add(mapResultSetToAddress(rs));
+                        addresses.add(ADDRESS.mapRow(rs));
                     }
                     return addresses;
                 }
@@ -6,10 +6,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class AssetCategoryDAO {
-    private AssetCategory mapResultSetToAssetCategory(ResultSet rs) throws SQLException {
+    private static final Projection<AssetCategory> ASSET_CATEGORY = new Projection<>(AssetCategoryDAO::mapResultSetToAssetCategory,
+            "id", "name");
+    private static AssetCategory mapResultSetToAssetCategory(ResultSet rs) throws SQLException {
         AssetCategory category = new AssetCategory();
-        category.setId(rs.getInt("id"));
-        category.setName(rs.getString("name"));
+        category.setId(rs.getInt(1));
+        category.setName(rs.getString(2));
         return category;
     }
     public AssetCategory save(AssetCategory category) {
@@ -28,12 +30,12 @@ public class AssetCategoryDAO {
     }
     public Optional<AssetCategory> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset_category WHERE id = ?";
+            String sql = "SELECT " + ASSET_CATEGORY.columns() + " FROM investments.asset_category WHERE id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAssetCategory(rs));
+                        return Optional.of(ASSET_CATEGORY.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -42,12 +44,12 @@ public class AssetCategoryDAO {
     }
     public List<AssetCategory> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset_category ORDER BY name";
+            String sql = "SELECT " + ASSET_CATEGORY.columns() + " FROM investments.asset_category ORDER BY name";
             List<AssetCategory> categories = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    categories.add(mapResultSetToAssetCategory(rs));
+                    categories.add(ASSET_CATEGORY.mapRow(rs));
                 }
                 return categories;
             }
@@ -55,12 +57,12 @@ public class AssetCategoryDAO {
     }
     public Optional<AssetCategory> findByName(String name) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset_category WHERE name = ?";
+            String sql = "SELECT " + ASSET_CATEGORY.columns() + " FROM investments.asset_category WHERE name = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, name);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAssetCategory(rs));
+                        return Optional.of(ASSET_CATEGORY.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -6,14 +6,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class AssetDAO {
-    private Asset mapResultSetToAsset(ResultSet rs) throws SQLException {
+    private static final Projection<Asset> ASSET = new Projection<>(AssetDAO::mapResultSetToAsset,
+            "id", "ticker", "name", "category_id", "api_identifier", "is_active");
+    private static Asset mapResultSetToAsset(ResultSet rs) throws SQLException {
         Asset asset = new Asset();
-        asset.setId(rs.getInt("id"));
-        asset.setTicker(rs.getString("ticker"));
-        asset.setName(rs.getString("name"));
-        asset.setCategoryId(rs.getInt("category_id"));
-        asset.setApiIdentifier(rs.getString("api_identifier"));
-        asset.setIsActive(rs.getBoolean("is_active"));
+        asset.setId(rs.getInt(1));
+        asset.setTicker(rs.getString(2));
+        asset.setName(rs.getString(3));
+        asset.setCategoryId(rs.getInt(4));
+        asset.setApiIdentifier(rs.getString(5));
+        asset.setIsActive(rs.getBoolean(6));
         if (rs.wasNull()) {
             asset.setIsActive(true);
         }
@@ -40,12 +42,12 @@ public class AssetDAO {
     }
     public Optional<Asset> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset WHERE id = ?";
+            String sql = "SELECT " + ASSET.columns() + " FROM investments.asset WHERE id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAsset(rs));
+                        return Optional.of(ASSET.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -54,12 +56,12 @@ public class AssetDAO {
     }
     public Optional<Asset> findByTicker(String ticker) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset WHERE ticker = ?";
+            String sql = "SELECT " + ASSET.columns() + " FROM investments.asset WHERE ticker = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, ticker);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToAsset(rs));
+                        return Optional.of(ASSET.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -68,12 +70,12 @@ public class AssetDAO {
     }
     public List<Asset> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset ORDER BY ticker";
+            String sql = "SELECT " + ASSET.columns() + " FROM investments.asset ORDER BY ticker";
             List<Asset> assets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    assets.add(mapResultSetToAsset(rs));
+                    assets.add(ASSET.mapRow(rs));
                 }
                 return assets;
             }
@@ -81,13 +83,13 @@ public class AssetDAO {
     }
     public List<Asset> findByCategoryId(Integer categoryId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset WHERE category_id = ? ORDER BY ticker";
+            String sql = "SELECT " + ASSET.columns() + " FROM investments.asset WHERE category_id = ? ORDER BY ticker";
             List<Asset> assets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, categoryId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        assets.add(mapResultSetToAsset(rs));
+                        assets.add(ASSET.mapRow(rs));
                     }
                     return assets;
                 }
@@ -96,12 +98,12 @@ public class AssetDAO {
     }
     public List<Asset> findActive() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.asset WHERE is_active = TRUE ORDER BY ticker";
+            String sql = "SELECT " + ASSET.columns() + " FROM investments.asset WHERE is_active = TRUE ORDER BY ticker";
             List<Asset> assets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    assets.add(mapResultSetToAsset(rs));
+                    assets.add(ASSET.mapRow(rs));
                 }
                 return assets;
             }
@@ -9,40 +9,29 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 public class BoletoDAO {
-    private Boleto mapResultSetToBoleto(ResultSet rs) throws SQLException {
+    private static final Projection<Boleto> BOLETO = new Projection<>(BoletoDAO::mapResultSetToBoleto,
+            "bill_id", "title", "amount", "due_date", "status", "bank_code", "wallet_code",
+            "our_number", "bill_code", "user_id", "paid_at", "created_at", "updated_at");
+    private static Boleto mapResultSetToBoleto(ResultSet rs) throws SQLException {
         Boleto boleto = new Boleto();
-        boleto.setId(rs.getLong("bill_id"));
-        boleto.setTitle(rs.getString("title"));
-        boleto.setAmount(rs.getBigDecimal("amount"));
-        Date dueDate = rs.getDate("due_date");
-        if (dueDate != null) {
-            boleto.setDueDate(dueDate.toLocalDate());
-        }
-        String statusStr = rs.getString("status");
+        boleto.setId(rs.getLong(1));
+        boleto.setTitle(rs.getString(2));
+        boleto.setAmount(rs.getBigDecimal(3));
+        boleto.setDueDate(rs.getObject(4, LocalDate.class));
+        String statusStr = rs.getString(5);
         if (statusStr != null) {
             boleto.setStatus(BoletoStatus.valueOf(statusStr));
         }
-        boleto.setBankCode(rs.getString("bank_code"));
-        boleto.setWalletCode(rs.getString("wallet_code"));
-        boleto.setOurNumber(rs.getString("our_number"));
-        boleto.setBoletoCode(rs.getString("bill_code"));
-        int userId = rs.getInt("user_id");
-        if (!rs.wasNull()) {
-            boleto.setUserId(userId);
-        }
-        Timestamp paidAt = rs.getTimestamp("paid_at");
-        if (paidAt != null) {
-            boleto.setPaidAt(paidAt.toLocalDateTime());
-        }
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            boleto.setCreatedAt(createdAt.toLocalDateTime());
-        }
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            boleto.setUpdatedAt(updatedAt.toLocalDateTime());
-        }
+        boleto.setBankCode(rs.getString(6));
+        boleto.setWalletCode(rs.getString(7));
+        boleto.setOurNumber(rs.getString(8));
+        boleto.setBoletoCode(rs.getString(9));
+        boleto.setUserId(rs.getObject(10, Integer.class));
+        boleto.setPaidAt(RowMapper.getLocalDateTime(rs, 11));
+        boleto.setCreatedAt(RowMapper.getLocalDateTime(rs, 12));
+        boleto.setUpdatedAt(RowMapper.getLocalDateTime(rs, 13));
         return boleto;
     }
     private void prepareBoletoForSave(Boleto boleto) {
@@ -94,12 +83,12 @@ public class BoletoDAO {
     }
     public Optional<Boleto> findById(Long id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM bills WHERE bill_id = ?";
+            String sql = "SELECT " + BOLETO.columns() + " FROM bills WHERE bill_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setLong(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToBoleto(rs));
+                        return Optional.of(BOLETO.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -108,12 +97,12 @@ public class BoletoDAO {
     }
     public List<Boleto> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM bills ORDER BY due_date ASC, created_at DESC";
+            String sql = "SELECT " + BOLETO.columns() + " FROM bills ORDER BY due_date ASC, created_at DESC";
             List<Boleto> boletos = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    boletos.add(mapResultSetToBoleto(rs));
+                    boletos.add(BOLETO.mapRow(rs));
                 }
                 return boletos;
             }
@@ -121,28 +110,39 @@ public class BoletoDAO {
     }
     public List<Boleto> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM bills WHERE user_id = ? ORDER BY due_date ASC, created_at DESC";
+            String sql = "SELECT " + BOLETO.columns() + " FROM bills WHERE user_id = ? ORDER BY due_date ASC, created_at DESC";
             List<Boleto> boletos = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        boletos.add(mapResultSetToBoleto(rs));
+                        boletos.add(BOLETO.mapRow(rs));
                     }
                     return boletos;
                 }
             }
         });
     }
+    public boolean existsByUserId(UUID userId) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT 1 FROM bills WHERE user_id = ?::uuid LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setObject(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        });
+    }
     public List<Boleto> findByStatus(BoletoStatus status) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM bills WHERE status = ?::bill_status_enum ORDER BY due_date ASC, created_at DESC";
+            String sql = "SELECT " + BOLETO.columns() + " FROM bills WHERE status = ?::bill_status_enum ORDER BY due_date ASC, created_at DESC";
             List<Boleto> boletos = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, status.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        boletos.add(mapResultSetToBoleto(rs));
+                        boletos.add(BOLETO.mapRow(rs));
                     }
                     return boletos;
                 }
@@ -184,6 +184,25 @@ public class BoletoDAO {
             }
         });
     }
+    /**
+     * Marca o boleto como pago apenas se ele ainda não estiver pago; dois pagamentos simultâneos
+     * do mesmo boleto disputam a mesma linha e só um deles recebe a linha de volta.
+     */
+    public Optional<Boleto> markAsPaid(Connection conn, Long id, LocalDateTime paidAt) throws SQLException {
+        String sql = "UPDATE bills SET status = 'PAID'::bill_status_enum, paid_at = ?, updated_at = ? " +
+                    "WHERE bill_id = ? AND status <> 'PAID'::bill_status_enum RETURNING " + BOLETO.columns();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(paidAt));
+            stmt.setTimestamp(2, Timestamp.valueOf(paidAt));
+            stmt.setLong(3, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(BOLETO.mapRow(rs));
+                }
+                return Optional.empty();
+            }
+        }
+    }
     public boolean delete(Long id) {
         return JdbcUtil.executeInTransaction(conn -> {
             String sql = "DELETE FROM bills WHERE bill_id = ?";
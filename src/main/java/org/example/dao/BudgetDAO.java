@@ -8,19 +8,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class BudgetDAO {
-    private Budget mapResultSetToBudget(ResultSet rs) throws SQLException {
+    private static final Projection<Budget> BUDGET = new Projection<>(BudgetDAO::mapResultSetToBudget,
+            "budget_id", "user_id", "category_id", "amount_limit", "period_month", "period_year",
+            "created_at");
+    private static Budget mapResultSetToBudget(ResultSet rs) throws SQLException {
         Budget budget = new Budget();
-        budget.setBudgetId(rs.getInt("budget_id"));
-        budget.setUserId(rs.getInt("user_id"));
-        budget.setCategoryId(rs.getInt("category_id"));
-        BigDecimal amountLimit = rs.getBigDecimal("amount_limit");
+        budget.setBudgetId(rs.getInt(1));
+        budget.setUserId(rs.getInt(2));
+        budget.setCategoryId(rs.getInt(3));
+        BigDecimal amountLimit = rs.getBigDecimal(4);
         budget.setAmountLimit(amountLimit != null ? amountLimit : BigDecimal.ZERO);
-        budget.setPeriodMonth(rs.getInt("period_month"));
-        budget.setPeriodYear(rs.getInt("period_year"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            budget.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        budget.setPeriodMonth(rs.getInt(5));
+        budget.setPeriodYear(rs.getInt(6));
+        budget.setCreatedAt(RowMapper.getLocalDateTime(rs, 7));
         return budget;
     }
     private void prepareBudgetForSave(Budget budget) {
@@ -51,12 +51,12 @@ public class BudgetDAO {
     }
     public Optional<Budget> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM budgets WHERE budget_id = ?";
+            String sql = "SELECT " + BUDGET.columns() + " FROM budgets WHERE budget_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToBudget(rs));
+                        return Optional.of(BUDGET.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -65,12 +65,12 @@ public class BudgetDAO {
     }
     public List<Budget> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM budgets ORDER BY budget_id";
+            String sql = "SELECT " + BUDGET.columns() + " FROM budgets ORDER BY budget_id";
             List<Budget> budgets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    budgets.add(mapResultSetToBudget(rs));
+                    budgets.add(BUDGET.mapRow(rs));
                 }
                 return budgets;
             }
@@ -78,13 +78,13 @@ public class BudgetDAO {
     }
     public List<Budget> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM budgets WHERE user_id = ? ORDER BY period_year DESC, period_month DESC";
+            String sql = "SELECT " + BUDGET.columns() + " FROM budgets WHERE user_id = ? ORDER BY period_year DESC, period_month DESC";
             List<Budget> budgets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        budgets.add(mapResultSetToBudget(rs));
+                        budgets.add(BUDGET.mapRow(rs));
                     }
                     return budgets;
                 }
@@ -93,13 +93,13 @@ public class BudgetDAO {
     }
     public List<Budget> findByCategoryId(Integer categoryId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM budgets WHERE category_id = ? ORDER BY period_year DESC, period_month DESC";
+            String sql = "SELECT " + BUDGET.columns() + " FROM budgets WHERE category_id = ? ORDER BY period_year DESC, period_month DESC";
             List<Budget> budgets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, categoryId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        budgets.add(mapResultSetToBudget(rs));
+                        budgets.add(BUDGET.mapRow(rs));
                     }
                     return budgets;
                 }
@@ -108,14 +108,14 @@ public class BudgetDAO {
     }
     public List<Budget> findByPeriod(Integer month, Integer year) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM budgets WHERE period_month = ? AND period_year = ? ORDER BY budget_id";
+            String sql = "SELECT " + BUDGET.columns() + " FROM budgets WHERE period_month = ? AND period_year = ? ORDER BY budget_id";
             List<Budget> budgets = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, month);
                 stmt.setInt(2, year);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        budgets.add(mapResultSetToBudget(rs));
+                        budgets.add(BUDGET.mapRow(rs));
                     }
                     return budgets;
                 }
@@ -124,7 +124,7 @@ public class BudgetDAO {
     }
     public Optional<Budget> findByUserCategoryAndPeriod(Integer userId, Integer categoryId, Integer month, Integer year) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM budgets WHERE user_id = ? AND category_id = ? " +
+            String sql = "SELECT " + BUDGET.columns() + " FROM budgets WHERE user_id = ? AND category_id = ? " +
                         "AND period_month = ? AND period_year = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
@@ -133,7 +133,7 @@ public class BudgetDAO {
                 stmt.setInt(4, year);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToBudget(rs));
+                        return Optional.of(BUDGET.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -9,40 +9,33 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 public class CardDAO {
-    private Card mapResultSetToCard(ResultSet rs) throws SQLException {
+    private static final Projection<Card> CARD = new Projection<>(CardDAO::mapResultSetToCard,
+            "card_id", "user_id", "account_id", "card_number", "card_holder_name", "expiry_date",
+            "cvv", "card_type", "brand", "status", "limit_amount", "current_balance", "created_at",
+            "updated_at");
+    private static Card mapResultSetToCard(ResultSet rs) throws SQLException {
         Card card = new Card();
-        card.setCardId(rs.getInt("card_id"));
-        card.setUserId(rs.getInt("user_id"));
-        int accountId = rs.getInt("account_id");
-        if (!rs.wasNull()) {
-            card.setAccountId(accountId);
-        }
-        card.setCardNumber(rs.getString("card_number"));
-        card.setCardHolderName(rs.getString("card_holder_name"));
-        Date expiryDate = rs.getDate("expiry_date");
-        if (expiryDate != null) {
-            card.setExpiryDate(expiryDate.toLocalDate());
-        }
-        card.setCvv(rs.getString("cvv"));
-        String cardTypeStr = rs.getString("card_type");
+        card.setCardId(rs.getInt(1));
+        card.setUserId(rs.getInt(2));
+        card.setAccountId(rs.getObject(3, Integer.class));
+        card.setCardNumber(rs.getString(4));
+        card.setCardHolderName(rs.getString(5));
+        card.setExpiryDate(rs.getObject(6, LocalDate.class));
+        card.setCvv(rs.getString(7));
+        String cardTypeStr = rs.getString(8);
         if (cardTypeStr != null) {
             card.setCardType(CardTypeEnum.valueOf(cardTypeStr));
         }
-        card.setBrand(rs.getString("brand"));
-        card.setStatus(rs.getString("status"));
-        BigDecimal limitAmount = rs.getBigDecimal("limit_amount");
+        card.setBrand(rs.getString(9));
+        card.setStatus(rs.getString(10));
+        BigDecimal limitAmount = rs.getBigDecimal(11);
         card.setLimitAmount(limitAmount != null ? limitAmount : null);
-        BigDecimal currentBalance = rs.getBigDecimal("current_balance");
+        BigDecimal currentBalance = rs.getBigDecimal(12);
         card.setCurrentBalance(currentBalance != null ? currentBalance : BigDecimal.ZERO);
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            card.setCreatedAt(createdAt.toLocalDateTime());
-        }
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            card.setUpdatedAt(updatedAt.toLocalDateTime());
-        }
+        card.setCreatedAt(RowMapper.getLocalDateTime(rs, 13));
+        card.setUpdatedAt(RowMapper.getLocalDateTime(rs, 14));
         return card;
     }
     private void prepareCardForSave(Card card) {
@@ -103,12 +96,12 @@ public class CardDAO {
     }
     public Optional<Card> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM cards WHERE card_id = ?";
+            String sql = "SELECT " + CARD.columns() + " FROM cards WHERE card_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToCard(rs));
+                        return Optional.of(CARD.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -117,12 +110,12 @@ public class CardDAO {
     }
     public List<Card> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM cards ORDER BY card_id";
+            String sql = "SELECT " + CARD.columns() + " FROM cards ORDER BY card_id";
             List<Card> cards = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    cards.add(mapResultSetToCard(rs));
+                    cards.add(CARD.mapRow(rs));
                 }
                 return cards;
             }
@@ -130,28 +123,39 @@ public class CardDAO {
     }
     public List<Card> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM cards WHERE user_id = ? ORDER BY created_at DESC";
+            String sql = "SELECT " + CARD.columns() + " FROM cards WHERE user_id = ? ORDER BY created_at DESC";
             List<Card> cards = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        cards.add(mapResultSetToCard(rs));
+                        cards.add(CARD.mapRow(rs));
                     }
                     return cards;
                 }
             }
         });
     }
+    public boolean existsByUserId(UUID userId) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT 1 FROM cards WHERE user_id = ?::uuid LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setObject(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        });
+    }
     public List<Card> findByAccountId(Integer accountId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM cards WHERE account_id = ? ORDER BY created_at DESC";
+            String sql = "SELECT " + CARD.columns() + " FROM cards WHERE account_id = ? ORDER BY created_at DESC";
             List<Card> cards = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, accountId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        cards.add(mapResultSetToCard(rs));
+                        cards.add(CARD.mapRow(rs));
                     }
                     return cards;
                 }
@@ -160,13 +164,13 @@ public class CardDAO {
     }
     public List<Card> findByCardType(CardTypeEnum cardType) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM cards WHERE card_type = ?::card_type_enum ORDER BY created_at DESC";
+            String sql = "SELECT " + CARD.columns() + " FROM cards WHERE card_type = ?::card_type_enum ORDER BY created_at DESC";
             List<Card> cards = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, cardType.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        cards.add(mapResultSetToCard(rs));
+                        cards.add(CARD.mapRow(rs));
                     }
                     return cards;
                 }
@@ -175,13 +179,13 @@ public class CardDAO {
     }
     public List<Card> findByStatus(String status) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM cards WHERE status = ? ORDER BY created_at DESC";
+            String sql = "SELECT " + CARD.columns() + " FROM cards WHERE status = ? ORDER BY created_at DESC";
             List<Card> cards = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, status);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        cards.add(mapResultSetToCard(rs));
+                        cards.add(CARD.mapRow(rs));
                     }
                     return cards;
                 }
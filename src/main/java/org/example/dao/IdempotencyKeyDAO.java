@@ -0,0 +1,66 @@
+package org.example.dao;
+import org.example.model.IdempotencyKey;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Optional;
+public class IdempotencyKeyDAO {
+    private static final Projection<IdempotencyKey> IDEMPOTENCY_KEY = new Projection<>(IdempotencyKeyDAO::mapResultSetToKey,
+            "scope", "owner_id", "idempotency_key", "request_hash", "status_code", "response_body", "created_at");
+    private static IdempotencyKey mapResultSetToKey(ResultSet rs) throws SQLException {
+        IdempotencyKey idempotencyKey = new IdempotencyKey();
+        idempotencyKey.setScope(rs.getString(1));
+        idempotencyKey.setOwnerId(rs.getString(2));
+        idempotencyKey.setKey(rs.getString(3));
+        idempotencyKey.setRequestHash(rs.getString(4));
+        idempotencyKey.setStatusCode(rs.getInt(5));
+        idempotencyKey.setResponseBody(rs.getString(6));
+        idempotencyKey.setCreatedAt(RowMapper.getLocalDateTime(rs, 7));
+        return idempotencyKey;
+    }
+    /**
+     * Reserva a chave inserindo a linha ainda sem resposta. Se outra transação estiver usando a mesma
+     * chave, o INSERT espera ela terminar: depois do commit não insere nada (retorna false) e a resposta
+     * gravada pode ser lida; depois de um rollback a reserva passa a ser desta transação.
+     */
+    public boolean reserve(Connection conn, String scope, String ownerId, String key, String requestHash) throws SQLException {
+        String sql = "INSERT INTO idempotency_keys (scope, owner_id, idempotency_key, request_hash, status_code, response_body, created_at) " +
+                    "VALUES (?, ?, ?, ?, 0, '', ?) ON CONFLICT (scope, owner_id, idempotency_key) DO NOTHING";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, scope);
+            stmt.setString(2, ownerId);
+            stmt.setString(3, key);
+            stmt.setString(4, requestHash);
+            stmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    public Optional<IdempotencyKey> find(Connection conn, String scope, String ownerId, String key) throws SQLException {
+        String sql = "SELECT " + IDEMPOTENCY_KEY.columns() + " FROM idempotency_keys " +
+                    "WHERE scope = ? AND owner_id = ? AND idempotency_key = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, scope);
+            stmt.setString(2, ownerId);
+            stmt.setString(3, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(IDEMPOTENCY_KEY.mapRow(rs));
+                }
+                return Optional.empty();
+            }
+        }
+    }
+    public void complete(Connection conn, IdempotencyKey idempotencyKey) throws SQLException {
+        String sql = "UPDATE idempotency_keys SET status_code = ?, response_body = ? " +
+                    "WHERE scope = ? AND owner_id = ? AND idempotency_key = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, idempotencyKey.getStatusCode());
+            stmt.setString(2, idempotencyKey.getResponseBody());
+            stmt.setString(3, idempotencyKey.getScope());
+            stmt.setString(4, idempotencyKey.getOwnerId());
+            stmt.setString(5, idempotencyKey.getKey());
+            if (stmt.executeUpdate() == 0) {
+                throw new SQLException("Chave de idempotência não reservada: " + idempotencyKey.getKey());
+            }
+        }
+    }
+}
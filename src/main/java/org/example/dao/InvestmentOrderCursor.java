@@ -0,0 +1,41 @@
+package org.example.dao;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+/**
+ * Posição de uma página no histórico de ordens, na ordem (transaction_date DESC, id DESC).
+ * É serializada como token opaco para o cliente repassar em {@code cursor}.
+ */
+public class InvestmentOrderCursor {
+    private final LocalDateTime transactionDate;
+    private final Integer id;
+    public InvestmentOrderCursor(LocalDateTime transactionDate, Integer id) {
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+    public String encode() {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    public static InvestmentOrderCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new InvestmentOrderCursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+    public Integer getId() {
+        return id;
+    }
+}
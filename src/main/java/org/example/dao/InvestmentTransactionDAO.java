@@ -1,64 +1,109 @@
 package org.example.dao;
+import org.example.dto.InvestmentTransactionResponseDTO;
+import org.example.dto.OrderHistoryItemDTO;
 import org.example.model.InvestmentTransaction;
 import org.example.persistence.JdbcUtil;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class InvestmentTransactionDAO {
-    private InvestmentTransaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
+    private static final Projection<InvestmentTransaction> INVESTMENT_TRANSACTION = new Projection<>(InvestmentTransactionDAO::mapResultSetToTransaction,
+            "id", "user_id", "asset_id", "type", "price", "quantity", "total_value", "status",
+            "transaction_date");
+    // Ordem de um ativo removido continua no histórico, como antes da junção
+    private static final String TICKER = "COALESCE(a.ticker, 'N/A')";
+    private static final String ASSET_NAME = "COALESCE(a.name, 'Ativo não encontrado')";
+    private static final String HISTORY_FROM =
+            "FROM investments.transaction t LEFT JOIN investments.asset a ON a.id = t.asset_id ";
+    public static final Projection<InvestmentTransactionResponseDTO> HISTORY = new Projection<>(
+            InvestmentTransactionDAO::mapResultSetToHistory, "t.id", "t.user_id", "t.asset_id", TICKER, ASSET_NAME,
+            "t.type", "t.price", "t.quantity", "t.total_value", "t.transaction_date", "t.status");
+    public static final Projection<OrderHistoryItemDTO> ORDER_HISTORY_ITEM = new Projection<>(
+            InvestmentTransactionDAO::mapResultSetToOrderHistoryItem, "t.id", TICKER, ASSET_NAME, "t.type",
+            "t.transaction_date", "t.total_value", "t.status");
+    private static InvestmentTransactionResponseDTO mapResultSetToHistory(ResultSet rs) throws SQLException {
+        InvestmentTransactionResponseDTO dto = new InvestmentTransactionResponseDTO();
+        dto.setId(rs.getInt(1));
+        dto.setUserId(rs.getInt(2));
+        dto.setAssetId(rs.getInt(3));
+        dto.setAssetTicker(rs.getString(4));
+        dto.setAssetName(rs.getString(5));
+        dto.setType(rs.getString(6));
+        dto.setPrice(rs.getBigDecimal(7));
+        dto.setQuantity(rs.getBigDecimal(8));
+        dto.setTotalValue(rs.getBigDecimal(9));
+        dto.setTransactionDate(RowMapper.getLocalDateTime(rs, 10));
+        dto.setStatus(rs.getString(11));
+        return dto;
+    }
+    private static OrderHistoryItemDTO mapResultSetToOrderHistoryItem(ResultSet rs) throws SQLException {
+        LocalDateTime transactionDate = RowMapper.getLocalDateTime(rs, 5);
+        OrderHistoryItemDTO item = new OrderHistoryItemDTO(rs.getInt(1), rs.getString(2), rs.getString(4),
+                transactionDate != null ? transactionDate.toLocalDate() : null, rs.getBigDecimal(6), rs.getString(7));
+        item.setAssetName(rs.getString(3));
+        return item;
+    }
+    private static InvestmentTransaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         InvestmentTransaction transaction = new InvestmentTransaction();
-        transaction.setId(rs.getInt("id"));
-        transaction.setUserId(rs.getInt("user_id"));
-        transaction.setAssetId(rs.getInt("asset_id"));
-        transaction.setType(rs.getString("type"));
-        transaction.setPrice(rs.getBigDecimal("price"));
-        transaction.setQuantity(rs.getBigDecimal("quantity"));
-        transaction.setTotalValue(rs.getBigDecimal("total_value"));
-        transaction.setStatus(rs.getString("status"));
-        Timestamp transactionDate = rs.getTimestamp("transaction_date");
-        if (transactionDate != null) {
-            transaction.setTransactionDate(transactionDate.toLocalDateTime());
-        }
+        transaction.setId(rs.getInt(1));
+        transaction.setUserId(rs.getInt(2));
+        transaction.setAssetId(rs.getInt(3));
+        transaction.setType(rs.getString(4));
+        transaction.setPrice(rs.getBigDecimal(5));
+        transaction.setQuantity(rs.getBigDecimal(6));
+        transaction.setTotalValue(rs.getBigDecimal(7));
+        transaction.setStatus(rs.getString(8));
+        transaction.setTransactionDate(RowMapper.getLocalDateTime(rs, 9));
         return transaction;
     }
     public InvestmentTransaction save(InvestmentTransaction transaction) {
+        return JdbcUtil.executeInTransaction(conn -> {
+            return save(conn, transaction);
+        });
+    }
+    public InvestmentTransaction save(Connection conn, InvestmentTransaction transaction) throws SQLException {
         if (transaction.getTotalValue() == null && transaction.getPrice() != null && transaction.getQuantity() != null) {
             transaction.setTotalValue(transaction.getPrice().multiply(transaction.getQuantity()));
         }
-        return JdbcUtil.executeInTransaction(conn -> {
-            String sql = "INSERT INTO investments.transaction (user_id, asset_id, type, price, quantity, " +
-                        "total_value, transaction_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, transaction.getUserId());
-                stmt.setInt(2, transaction.getAssetId());
-                stmt.setString(3, transaction.getType());
-                stmt.setBigDecimal(4, transaction.getPrice());
-                stmt.setBigDecimal(5, transaction.getQuantity());
-                stmt.setBigDecimal(6, transaction.getTotalValue());
-                stmt.setTimestamp(7, Timestamp.valueOf(
-                    transaction.getTransactionDate() != null ? transaction.getTransactionDate() : LocalDateTime.now()
-                ));
-                stmt.setString(8, transaction.getStatus() != null ? transaction.getStatus() : "COMPLETED");
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        transaction.setId(rs.getInt("id"));
-                    }
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(LocalDateTime.now());
+        }
+        if (transaction.getStatus() == null) {
+            transaction.setStatus("COMPLETED");
+        }
+        String sql = "INSERT INTO investments.transaction (user_id, asset_id, type, price, quantity, " +
+                    "total_value, transaction_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, transaction.getUserId());
+            stmt.setInt(2, transaction.getAssetId());
+            stmt.setString(3, transaction.getType());
+            stmt.setBigDecimal(4, transaction.getPrice());
+            stmt.setBigDecimal(5, transaction.getQuantity());
+            stmt.setBigDecimal(6, transaction.getTotalValue());
+            stmt.setTimestamp(7, Timestamp.valueOf(transaction.getTransactionDate()));
+            stmt.setString(8, transaction.getStatus());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    transaction.setId(rs.getInt("id"));
                 }
-                return transaction;
             }
-        });
+            return transaction;
+        }
     }
     public Optional<InvestmentTransaction> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.transaction WHERE id = ?";
+            String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction WHERE id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToTransaction(rs));
+                        return Optional.of(INVESTMENT_TRANSACTION.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -67,13 +112,13 @@ public class InvestmentTransactionDAO {
     }
     public List<InvestmentTransaction> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.transaction WHERE user_id = ? ORDER BY transaction_date DESC";
+            String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction WHERE user_id = ? ORDER BY transaction_date DESC";
             List<InvestmentTransaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(INVESTMENT_TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -82,13 +127,13 @@ public class InvestmentTransactionDAO {
     }
     public List<InvestmentTransaction> findByAssetId(Integer assetId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.transaction WHERE asset_id = ? ORDER BY transaction_date DESC";
+            String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction WHERE asset_id = ? ORDER BY transaction_date DESC";
             List<InvestmentTransaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, assetId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(INVESTMENT_TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -97,22 +142,127 @@ public class InvestmentTransactionDAO {
     }
     public List<InvestmentTransaction> findByType(String type) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.transaction WHERE type = ? ORDER BY transaction_date DESC";
+            String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction WHERE type = ? ORDER BY transaction_date DESC";
             List<InvestmentTransaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, type);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(INVESTMENT_TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
             }
         });
     }
+    /**
+     * Todas as ordens do usuário na ordem em que foram aplicadas à posição, para o recálculo dos lotes.
+     */
+    public List<InvestmentTransaction> findByUserIdInExecutionOrder(Connection conn, Integer userId) throws SQLException {
+        String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction WHERE user_id = ? " +
+                    "ORDER BY transaction_date, id";
+        List<InvestmentTransaction> transactions = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(INVESTMENT_TRANSACTION.mapRow(rs));
+                }
+                return transactions;
+            }
+        }
+    }
+    public List<Integer> findUserIds() {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT DISTINCT user_id FROM investments.transaction ORDER BY user_id";
+            List<Integer> userIds = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    userIds.add(rs.getInt(1));
+                }
+                return userIds;
+            }
+        });
+    }
+    public List<InvestmentTransactionResponseDTO> findHistoryByUserId(Integer userId) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT " + HISTORY.columns() + " " + HISTORY_FROM + "WHERE t.user_id = ? " +
+                        "ORDER BY t.transaction_date DESC, t.id DESC";
+            List<InvestmentTransactionResponseDTO> history = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        history.add(HISTORY.mapRow(rs));
+                    }
+                    return history;
+                }
+            }
+        });
+    }
+    /**
+     * Página do histórico de ordens do usuário em (transaction_date DESC, id DESC), já com ticker e nome do
+     * ativo, começando depois de {@code after}. Filtros nulos são ignorados. As linhas são entregues a
+     * {@code handler} conforme são lidas; o retorno é o cursor da próxima página, ou null se esta for a última.
+     */
+    public <T> InvestmentOrderCursor streamPageByUserId(Projection<T> projection, Integer userId, Integer assetId,
+                                                        String type, LocalDate startDate, LocalDate endDate,
+                                                        InvestmentOrderCursor after, int limit, RowHandler<T> handler) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            StringBuilder sql = new StringBuilder("SELECT ").append(projection.columns())
+                    .append(", t.transaction_date AS page_date, t.id AS page_id ").append(HISTORY_FROM)
+                    .append("WHERE t.user_id = ? ");
+            List<Object> params = new ArrayList<>();
+            params.add(userId);
+            if (assetId != null) {
+                sql.append("AND t.asset_id = ? ");
+                params.add(assetId);
+            }
+            if (type != null) {
+                sql.append("AND lower(t.type) = lower(?) ");
+                params.add(type);
+            }
+            if (startDate != null) {
+                sql.append("AND t.transaction_date >= ? ");
+                params.add(Timestamp.valueOf(startDate.atStartOfDay()));
+            }
+            if (endDate != null) {
+                sql.append("AND t.transaction_date < ? ");
+                params.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            }
+            if (after != null) {
+                sql.append("AND (t.transaction_date, t.id) < (?, ?) ");
+                params.add(Timestamp.valueOf(after.getTransactionDate()));
+                params.add(after.getId());
+            }
+            sql.append("ORDER BY t.transaction_date DESC, t.id DESC LIMIT ?");
+            params.add(limit + 1);
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    int delivered = 0;
+                    InvestmentOrderCursor last = null;
+                    while (rs.next()) {
+                        if (delivered == limit) {
+                            return last;
+                        }
+                        handler.handle(projection.mapRow(rs));
+                        last = new InvestmentOrderCursor(RowMapper.getLocalDateTime(rs, "page_date"), rs.getInt("page_id"));
+                        delivered++;
+                    }
+                    return null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
     public List<InvestmentTransaction> findByUserIdAndAssetId(Integer userId, Integer assetId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.transaction WHERE user_id = ? AND asset_id = ? " +
+            String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction WHERE user_id = ? AND asset_id = ? " +
                         "ORDER BY transaction_date DESC";
             List<InvestmentTransaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -120,7 +270,7 @@ public class InvestmentTransactionDAO {
                 stmt.setInt(2, assetId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(INVESTMENT_TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -129,12 +279,12 @@ public class InvestmentTransactionDAO {
     }
     public List<InvestmentTransaction> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.transaction ORDER BY transaction_date DESC";
+            String sql = "SELECT " + INVESTMENT_TRANSACTION.columns() + " FROM investments.transaction ORDER BY transaction_date DESC";
             List<InvestmentTransaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(INVESTMENT_TRANSACTION.mapRow(rs));
                 }
                 return transactions;
             }
@@ -0,0 +1,181 @@
+package org.example.dao;
+import org.example.model.OutboxJob;
+import org.example.persistence.JdbcUtil;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+public class OutboxJobDAO {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final Projection<OutboxJob> OUTBOX_JOB = new Projection<>(OutboxJobDAO::mapResultSetToJob,
+            "job_id", "job_type", "payload", "status", "attempts", "max_attempts", "last_error",
+            "available_at", "created_at", "updated_at");
+    private static OutboxJob mapResultSetToJob(ResultSet rs) throws SQLException {
+        OutboxJob job = new OutboxJob();
+        job.setJobId(rs.getObject(1, UUID.class));
+        job.setJobType(rs.getString(2));
+        job.setPayload(rs.getString(3));
+        job.setStatus(rs.getString(4));
+        job.setAttempts(rs.getInt(5));
+        job.setMaxAttempts(rs.getInt(6));
+        job.setLastError(rs.getString(7));
+        job.setAvailableAt(RowMapper.getLocalDateTime(rs, 8));
+        job.setCreatedAt(RowMapper.getLocalDateTime(rs, 9));
+        job.setUpdatedAt(RowMapper.getLocalDateTime(rs, 10));
+        return job;
+    }
+    /**
+     * Grava o job na transação do chamador, então ele só passa a existir se a operação que o originou
+     * for confirmada.
+     */
+    public OutboxJob enqueue(Connection conn, String jobType, String payload) throws SQLException {
+        String sql = "INSERT INTO outbox_jobs (job_id, job_type, payload, status, attempts, max_attempts, " +
+                    "available_at, created_at, updated_at) VALUES (?::uuid, ?, ?, ?, 0, ?, ?, ?, ?) " +
+                    "RETURNING " + OUTBOX_JOB.columns();
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, UUID.randomUUID());
+            stmt.setString(2, jobType);
+            stmt.setString(3, payload);
+            stmt.setString(4, STATUS_PENDING);
+            stmt.setInt(5, DEFAULT_MAX_ATTEMPTS);
+            stmt.setTimestamp(6, Timestamp.valueOf(now));
+            stmt.setTimestamp(7, Timestamp.valueOf(now));
+            stmt.setTimestamp(8, Timestamp.valueOf(now));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return OUTBOX_JOB.mapRow(rs);
+            }
+        }
+    }
+    /**
+     * Grava vários jobs do mesmo tipo num único lote, na transação do chamador.
+     */
+    public int enqueueAll(Connection conn, String jobType, List<String> payloads) throws SQLException {
+        if (payloads.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO outbox_jobs (job_id, job_type, payload, status, attempts, max_attempts, " +
+                    "available_at, created_at, updated_at) VALUES (?::uuid, ?, ?, ?, 0, ?, ?, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String payload : payloads) {
+                stmt.setObject(1, UUID.randomUUID());
+                stmt.setString(2, jobType);
+                stmt.setString(3, payload);
+                stmt.setString(4, STATUS_PENDING);
+                stmt.setInt(5, DEFAULT_MAX_ATTEMPTS);
+                stmt.setTimestamp(6, now);
+                stmt.setTimestamp(7, now);
+                stmt.setTimestamp(8, now);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        return payloads.size();
+    }
+    /**
+     * Marca como RUNNING até {@code limit} jobs prontos para execução. {@code FOR UPDATE SKIP LOCKED} deixa
+     * várias instâncias da aplicação consumirem a fila sem pegar o mesmo job; jobs em RUNNING há mais de
+     * {@code staleAfterSeconds} (instância que caiu no meio da execução) voltam a ser elegíveis, com um novo
+     * número de tentativa que invalida a reserva anterior (ver {@link #lockClaimed} e {@link #markDone}).
+     */
+    public List<OutboxJob> claim(Connection conn, int limit, long staleAfterSeconds) throws SQLException {
+        String sql = "UPDATE outbox_jobs SET status = ?, attempts = attempts + 1, updated_at = ? " +
+                    "WHERE job_id IN (SELECT job_id FROM outbox_jobs " +
+                    "WHERE (status = ? AND available_at <= ?) OR (status = ? AND updated_at < ?) " +
+                    "ORDER BY available_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING " + OUTBOX_JOB.columns();
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxJob> jobs = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, STATUS_RUNNING);
+            stmt.setTimestamp(2, Timestamp.valueOf(now));
+            stmt.setString(3, STATUS_PENDING);
+            stmt.setTimestamp(4, Timestamp.valueOf(now));
+            stmt.setString(5, STATUS_RUNNING);
+            stmt.setTimestamp(6, Timestamp.valueOf(now.minusSeconds(staleAfterSeconds)));
+            stmt.setInt(7, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(OUTBOX_JOB.mapRow(rs));
+                }
+            }
+        }
+        return jobs;
+    }
+    /**
+     * Trava a linha do job na transação do handler enquanto ele roda, o que faz o {@code SKIP LOCKED} de
+     * {@link #claim} ignorá-lo mesmo depois de {@code staleAfterSeconds}. Devolve {@code false} se o job já
+     * foi reservado de novo (outra tentativa) ou está travado por outra instância: o chamador não deve executá-lo.
+     */
+    public boolean lockClaimed(Connection conn, UUID jobId, int attempts) throws SQLException {
+        String sql = "SELECT 1 FROM outbox_jobs WHERE job_id = ?::uuid AND status = ? AND attempts = ? " +
+                    "FOR UPDATE SKIP LOCKED";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, jobId);
+            stmt.setString(2, STATUS_RUNNING);
+            stmt.setInt(3, attempts);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    /**
+     * Só conclui a tentativa {@code attempts} que ainda está em RUNNING; devolve {@code false} se o job foi
+     * reservado de novo nesse meio tempo.
+     */
+    public boolean markDone(Connection conn, UUID jobId, int attempts) throws SQLException {
+        String sql = "UPDATE outbox_jobs SET status = ?, last_error = NULL, updated_at = ? " +
+                    "WHERE job_id = ?::uuid AND status = ? AND attempts = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, STATUS_DONE);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setObject(3, jobId);
+            stmt.setString(4, STATUS_RUNNING);
+            stmt.setInt(5, attempts);
+            return stmt.executeUpdate() == 1;
+        }
+    }
+    /**
+     * Registra a falha da tentativa {@code attempts}. Com {@code retryAt} o job volta para PENDING e só é
+     * executado de novo a partir desse horário; sem ele, as tentativas se esgotaram e o job fica em FAILED.
+     * Não faz nada se o job já foi reservado de novo por outra tentativa.
+     */
+    public void markFailed(UUID jobId, int attempts, String error, LocalDateTime retryAt) {
+        JdbcUtil.executeInTransaction(conn -> {
+            String sql = "UPDATE outbox_jobs SET status = ?, last_error = ?, available_at = COALESCE(?, available_at), " +
+                        "updated_at = ? WHERE job_id = ?::uuid AND status = ? AND attempts = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, retryAt != null ? STATUS_PENDING : STATUS_FAILED);
+                stmt.setString(2, error);
+                stmt.setTimestamp(3, retryAt != null ? Timestamp.valueOf(retryAt) : null);
+                stmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                stmt.setObject(5, jobId);
+                stmt.setString(6, STATUS_RUNNING);
+                stmt.setInt(7, attempts);
+                stmt.executeUpdate();
+            }
+        });
+    }
+    public Optional<OutboxJob> findById(UUID jobId) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT " + OUTBOX_JOB.columns() + " FROM outbox_jobs WHERE job_id = ?::uuid";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setObject(1, jobId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(OUTBOX_JOB.mapRow(rs));
+                    }
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.dao;
+import org.example.model.PositionLot;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+public class PositionLotDAO {
+    private static final Projection<PositionLot> POSITION_LOT = new Projection<>(PositionLotDAO::mapResultSetToLot,
+            "id", "user_id", "asset_id", "transaction_id", "acquired_at", "quantity", "remaining_quantity", "unit_cost");
+    private static PositionLot mapResultSetToLot(ResultSet rs) throws SQLException {
+        PositionLot lot = new PositionLot();
+        lot.setId(rs.getInt(1));
+        lot.setUserId(rs.getInt(2));
+        lot.setAssetId(rs.getInt(3));
+        lot.setTransactionId(rs.getInt(4));
+        lot.setAcquiredAt(RowMapper.getLocalDateTime(rs, 5));
+        lot.setQuantity(rs.getBigDecimal(6));
+        lot.setRemainingQuantity(rs.getBigDecimal(7));
+        lot.setUnitCost(rs.getBigDecimal(8));
+        return lot;
+    }
+    public void save(Connection conn, PositionLot lot) throws SQLException {
+        saveAll(conn, List.of(lot));
+    }
+    public void saveAll(Connection conn, List<PositionLot> lots) throws SQLException {
+        if (lots.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO investments.position_lot (user_id, asset_id, transaction_id, acquired_at, " +
+                    "quantity, remaining_quantity, unit_cost) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (PositionLot lot : lots) {
+                stmt.setInt(1, lot.getUserId());
+                stmt.setInt(2, lot.getAssetId());
+                stmt.setInt(3, lot.getTransactionId());
+                stmt.setTimestamp(4, Timestamp.valueOf(lot.getAcquiredAt()));
+                stmt.setBigDecimal(5, lot.getQuantity());
+                stmt.setBigDecimal(6, lot.getRemainingQuantity());
+                stmt.setBigDecimal(7, lot.getUnitCost());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    /**
+     * Lotes com saldo do usuário no ativo, na ordem em que uma venda os consome, travados até o fim da transação.
+     */
+    public List<PositionLot> findOpenLotsForUpdate(Connection conn, Integer userId, Integer assetId) throws SQLException {
+        String sql = "SELECT " + POSITION_LOT.columns() + " FROM investments.position_lot " +
+                    "WHERE user_id = ? AND asset_id = ? AND remaining_quantity > 0 " +
+                    "ORDER BY acquired_at, id FOR UPDATE";
+        List<PositionLot> lots = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, assetId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lots.add(POSITION_LOT.mapRow(rs));
+                }
+                return lots;
+            }
+        }
+    }
+    public void updateRemaining(Connection conn, List<PositionLot> lots) throws SQLException {
+        if (lots.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE investments.position_lot SET remaining_quantity = ? WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (PositionLot lot : lots) {
+                stmt.setBigDecimal(1, lot.getRemainingQuantity());
+                stmt.setInt(2, lot.getId());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    public void deleteByUserId(Connection conn, Integer userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM investments.position_lot WHERE user_id = ?")) {
+            stmt.setInt(1, userId);
+            stmt.executeUpdate();
+        }
+    }
+}
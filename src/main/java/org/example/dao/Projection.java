@@ -0,0 +1,35 @@
+package org.example.dao;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+/**
+ * Lista de colunas de uma consulta junto com o mapper que as lê. O mapper lê pela posição
+ * (1, 2, 3...) na mesma ordem de {@link #columns()}, então a consulta deve usar exatamente essa lista
+ * no SELECT em vez de {@code SELECT *}.
+ */
+public class Projection<T> implements RowMapper<T> {
+    private final String[] columnNames;
+    private final String columns;
+    private final RowMapper<T> mapper;
+    public Projection(RowMapper<T> mapper, String... columnNames) {
+        this.columnNames = columnNames.clone();
+        this.columns = String.join(", ", columnNames);
+        this.mapper = mapper;
+    }
+    public String columns() {
+        return columns;
+    }
+    public String columns(String alias) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(alias).append('.').append(columnNames[i]);
+        }
+        return sb.toString();
+    }
+    @Override
+    public T mapRow(ResultSet rs) throws SQLException {
+        return mapper.mapRow(rs);
+    }
+}
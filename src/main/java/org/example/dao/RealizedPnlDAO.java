@@ -0,0 +1,93 @@
+package org.example.dao;
+import org.example.model.RealizedPnl;
+import org.example.persistence.JdbcUtil;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+public class RealizedPnlDAO {
+    private static final Projection<RealizedPnl> REALIZED_PNL = new Projection<>(RealizedPnlDAO::mapResultSetToRealizedPnl,
+            "user_id", "asset_id", "cost_method", "quantity_sold", "proceeds", "cost_basis", "realized_pnl", "updated_at");
+    private static RealizedPnl mapResultSetToRealizedPnl(ResultSet rs) throws SQLException {
+        RealizedPnl realized = new RealizedPnl();
+        realized.setUserId(rs.getInt(1));
+        realized.setAssetId(rs.getInt(2));
+        realized.setCostMethod(rs.getString(3));
+        realized.setQuantitySold(rs.getBigDecimal(4));
+        realized.setProceeds(rs.getBigDecimal(5));
+        realized.setCostBasis(rs.getBigDecimal(6));
+        realized.setRealizedPnl(rs.getBigDecimal(7));
+        realized.setUpdatedAt(RowMapper.getLocalDateTime(rs, 8));
+        return realized;
+    }
+    /**
+     * Soma uma venda ao acumulado do usuário no ativo para o método informado, criando a linha na primeira venda.
+     */
+    public void addSale(Connection conn, Integer userId, Integer assetId, String costMethod, BigDecimal quantity,
+                        BigDecimal proceeds, BigDecimal costBasis) throws SQLException {
+        String sql = "INSERT INTO investments.realized_pnl AS r (user_id, asset_id, cost_method, quantity_sold, " +
+                    "proceeds, cost_basis, realized_pnl, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (user_id, asset_id, cost_method) DO UPDATE SET " +
+                    "quantity_sold = r.quantity_sold + EXCLUDED.quantity_sold, " +
+                    "proceeds = r.proceeds + EXCLUDED.proceeds, " +
+                    "cost_basis = r.cost_basis + EXCLUDED.cost_basis, " +
+                    "realized_pnl = r.realized_pnl + EXCLUDED.realized_pnl, " +
+                    "updated_at = EXCLUDED.updated_at";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, assetId);
+            stmt.setString(3, costMethod);
+            stmt.setBigDecimal(4, quantity);
+            stmt.setBigDecimal(5, proceeds);
+            stmt.setBigDecimal(6, costBasis);
+            stmt.setBigDecimal(7, proceeds.subtract(costBasis));
+            stmt.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.executeUpdate();
+        }
+    }
+    public void saveAll(Connection conn, List<RealizedPnl> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO investments.realized_pnl (user_id, asset_id, cost_method, quantity_sold, " +
+                    "proceeds, cost_basis, realized_pnl, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (RealizedPnl row : rows) {
+                stmt.setInt(1, row.getUserId());
+                stmt.setInt(2, row.getAssetId());
+                stmt.setString(3, row.getCostMethod());
+                stmt.setBigDecimal(4, row.getQuantitySold());
+                stmt.setBigDecimal(5, row.getProceeds());
+                stmt.setBigDecimal(6, row.getCostBasis());
+                stmt.setBigDecimal(7, row.getRealizedPnl());
+                stmt.setTimestamp(8, Timestamp.valueOf(row.getUpdatedAt()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    public void deleteByUserId(Connection conn, Integer userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM investments.realized_pnl WHERE user_id = ?")) {
+            stmt.setInt(1, userId);
+            stmt.executeUpdate();
+        }
+    }
+    public List<RealizedPnl> findByUserId(Integer userId, String costMethod) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            String sql = "SELECT " + REALIZED_PNL.columns() + " FROM investments.realized_pnl " +
+                        "WHERE user_id = ? AND cost_method = ? ORDER BY asset_id";
+            List<RealizedPnl> rows = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                stmt.setString(2, costMethod);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(REALIZED_PNL.mapRow(rs));
+                    }
+                    return rows;
+                }
+            }
+        });
+    }
+}
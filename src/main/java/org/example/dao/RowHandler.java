@@ -0,0 +1,10 @@
+package org.example.dao;
+import java.io.IOException;
+/**
+ * Recebe as linhas de uma consulta uma a uma, enquanto o ResultSet ainda está aberto, para quem as consome
+ * (por exemplo, escrevendo direto na resposta HTTP) não precisar juntar tudo numa lista antes.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    void handle(T row) throws IOException;
+}
@@ -0,0 +1,21 @@
+package org.example.dao;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+    /**
+     * Lê uma coluna de data e hora como {@link LocalDateTime} no fuso da JVM. As colunas do schema são
+     * TIMESTAMPTZ, que o driver não converte em {@code getObject(i, LocalDateTime.class)}.
+     */
+    static LocalDateTime getLocalDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+    static LocalDateTime getLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -10,27 +10,24 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class SavingsGoalDAO {
-    private SavingsGoal mapResultSetToGoal(ResultSet rs) throws SQLException {
+    private static final Projection<SavingsGoal> SAVINGS_GOAL = new Projection<>(SavingsGoalDAO::mapResultSetToGoal,
+            "goal_id", "user_id", "name", "target_amount", "current_amount", "target_date", "status",
+            "created_at");
+    private static SavingsGoal mapResultSetToGoal(ResultSet rs) throws SQLException {
         SavingsGoal goal = new SavingsGoal();
-        goal.setGoalId(rs.getInt("goal_id"));
-        goal.setUserId(rs.getInt("user_id"));
-        goal.setName(rs.getString("name"));
-        BigDecimal targetAmount = rs.getBigDecimal("target_amount");
+        goal.setGoalId(rs.getInt(1));
+        goal.setUserId(rs.getInt(2));
+        goal.setName(rs.getString(3));
+        BigDecimal targetAmount = rs.getBigDecimal(4);
         goal.setTargetAmount(targetAmount != null ? targetAmount : BigDecimal.ZERO);
-        BigDecimal currentAmount = rs.getBigDecimal("current_amount");
+        BigDecimal currentAmount = rs.getBigDecimal(5);
         goal.setCurrentAmount(currentAmount != null ? currentAmount : BigDecimal.ZERO);
-        Date targetDate = rs.getDate("target_date");
-        if (targetDate != null) {
-            goal.setTargetDate(targetDate.toLocalDate());
-        }
-        String statusStr = rs.getString("status");
+        goal.setTargetDate(rs.getObject(6, LocalDate.class));
+        String statusStr = rs.getString(7);
         if (statusStr != null) {
             goal.setStatus(GoalStatusEnum.valueOf(statusStr));
         }
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            goal.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        goal.setCreatedAt(RowMapper.getLocalDateTime(rs, 8));
         return goal;
     }
     private void prepareGoalForSave(SavingsGoal goal) {
@@ -72,12 +69,12 @@ public class SavingsGoalDAO {
     }
     public Optional<SavingsGoal> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM savings_goals WHERE goal_id = ?";
+            String sql = "SELECT " + SAVINGS_GOAL.columns() + " FROM savings_goals WHERE goal_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToGoal(rs));
+                        return Optional.of(SAVINGS_GOAL.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -86,12 +83,12 @@ public class SavingsGoalDAO {
     }
     public List<SavingsGoal> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM savings_goals ORDER BY goal_id";
+            String sql = "SELECT " + SAVINGS_GOAL.columns() + " FROM savings_goals ORDER BY goal_id";
             List<SavingsGoal> goals = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    goals.add(mapResultSetToGoal(rs));
+                    goals.add(SAVINGS_GOAL.mapRow(rs));
                 }
                 return goals;
             }
@@ -99,13 +96,13 @@ public class SavingsGoalDAO {
     }
     public List<SavingsGoal> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM savings_goals WHERE user_id = ? ORDER BY created_at DESC";
+            String sql = "SELECT " + SAVINGS_GOAL.columns() + " FROM savings_goals WHERE user_id = ? ORDER BY created_at DESC";
             List<SavingsGoal> goals = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        goals.add(mapResultSetToGoal(rs));
+                        goals.add(SAVINGS_GOAL.mapRow(rs));
                     }
                     return goals;
                 }
@@ -114,13 +111,13 @@ public class SavingsGoalDAO {
     }
     public List<SavingsGoal> findByStatus(GoalStatusEnum status) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM savings_goals WHERE status = ?::goal_status_enum ORDER BY created_at DESC";
+            String sql = "SELECT " + SAVINGS_GOAL.columns() + " FROM savings_goals WHERE status = ?::goal_status_enum ORDER BY created_at DESC";
             List<SavingsGoal> goals = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, status.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        goals.add(mapResultSetToGoal(rs));
+                        goals.add(SAVINGS_GOAL.mapRow(rs));
                     }
                     return goals;
                 }
@@ -129,14 +126,14 @@ public class SavingsGoalDAO {
     }
     public List<SavingsGoal> findByUserIdAndStatus(Integer userId, GoalStatusEnum status) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM savings_goals WHERE user_id = ? AND status = ?::goal_status_enum ORDER BY created_at DESC";
+            String sql = "SELECT " + SAVINGS_GOAL.columns() + " FROM savings_goals WHERE user_id = ? AND status = ?::goal_status_enum ORDER BY created_at DESC";
             List<SavingsGoal> goals = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 stmt.setString(2, status.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        goals.add(mapResultSetToGoal(rs));
+                        goals.add(SAVINGS_GOAL.mapRow(rs));
                     }
                     return goals;
                 }
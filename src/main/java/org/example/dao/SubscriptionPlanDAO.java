@@ -8,17 +8,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class SubscriptionPlanDAO {
-    private SubscriptionPlan mapResultSetToPlan(ResultSet rs) throws SQLException {
+    private static final Projection<SubscriptionPlan> SUBSCRIPTION_PLAN = new Projection<>(SubscriptionPlanDAO::mapResultSetToPlan,
+            "plan_id", "name", "price", "description", "created_at");
+    private static SubscriptionPlan mapResultSetToPlan(ResultSet rs) throws SQLException {
         SubscriptionPlan plan = new SubscriptionPlan();
-        plan.setPlanId(rs.getInt("plan_id"));
-        plan.setName(rs.getString("name"));
-        BigDecimal price = rs.getBigDecimal("price");
+        plan.setPlanId(rs.getInt(1));
+        plan.setName(rs.getString(2));
+        BigDecimal price = rs.getBigDecimal(3);
         plan.setPrice(price != null ? price : BigDecimal.ZERO);
-        plan.setDescription(rs.getString("description"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            plan.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        plan.setDescription(rs.getString(4));
+        plan.setCreatedAt(RowMapper.getLocalDateTime(rs, 5));
         return plan;
     }
     private void preparePlanForSave(SubscriptionPlan plan) {
@@ -50,12 +49,12 @@ public class SubscriptionPlanDAO {
     }
     public Optional<SubscriptionPlan> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM subscription_plans WHERE plan_id = ?";
+            String sql = "SELECT " + SUBSCRIPTION_PLAN.columns() + " FROM subscription_plans WHERE plan_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToPlan(rs));
+                        return Optional.of(SUBSCRIPTION_PLAN.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -64,12 +63,12 @@ public class SubscriptionPlanDAO {
     }
     public List<SubscriptionPlan> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM subscription_plans ORDER BY plan_id";
+            String sql = "SELECT " + SUBSCRIPTION_PLAN.columns() + " FROM subscription_plans ORDER BY plan_id";
             List<SubscriptionPlan> plans = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    plans.add(mapResultSetToPlan(rs));
+                    plans.add(SUBSCRIPTION_PLAN.mapRow(rs));
                 }
                 return plans;
             }
@@ -77,12 +76,12 @@ public class SubscriptionPlanDAO {
     }
     public Optional<SubscriptionPlan> findByName(String name) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM subscription_plans WHERE name = ?";
+            String sql = "SELECT " + SUBSCRIPTION_PLAN.columns() + " FROM subscription_plans WHERE name = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, name);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToPlan(rs));
+                        return Optional.of(SUBSCRIPTION_PLAN.mapRow(rs));
                     }
                     return Optional.empty();
                 }
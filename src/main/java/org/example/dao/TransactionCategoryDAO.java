@@ -4,18 +4,19 @@ import org.example.persistence.JdbcUtil;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 public class TransactionCategoryDAO {
-    private TransactionCategory mapResultSetToCategory(ResultSet rs) throws SQLException {
+    private static final Projection<TransactionCategory> TRANSACTION_CATEGORY = new Projection<>(TransactionCategoryDAO::mapResultSetToCategory,
+            "category_id", "name", "icon_code", "created_at");
+    private static TransactionCategory mapResultSetToCategory(ResultSet rs) throws SQLException {
         TransactionCategory category = new TransactionCategory();
-        category.setCategoryId(rs.getInt("category_id"));
-        category.setName(rs.getString("name"));
-        category.setIconCode(rs.getString("icon_code"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            category.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        category.setCategoryId(rs.getInt(1));
+        category.setName(rs.getString(2));
+        category.setIconCode(rs.getString(3));
+        category.setCreatedAt(RowMapper.getLocalDateTime(rs, 4));
         return category;
     }
     private void prepareCategoryForSave(TransactionCategory category) {
@@ -47,12 +48,12 @@ public class TransactionCategoryDAO {
     }
     public Optional<TransactionCategory> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transaction_categories WHERE category_id = ?";
+            String sql = "SELECT " + TRANSACTION_CATEGORY.columns() + " FROM transaction_categories WHERE category_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToCategory(rs));
+                        return Optional.of(TRANSACTION_CATEGORY.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -61,25 +62,36 @@ public class TransactionCategoryDAO {
     }
     public List<TransactionCategory> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transaction_categories ORDER BY category_id";
+            String sql = "SELECT " + TRANSACTION_CATEGORY.columns() + " FROM transaction_categories ORDER BY category_id";
             List<TransactionCategory> categories = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    categories.add(mapResultSetToCategory(rs));
+                    categories.add(TRANSACTION_CATEGORY.mapRow(rs));
                 }
                 return categories;
             }
         });
     }
+    public Set<Integer> findAllIds(Connection conn) throws SQLException {
+        String sql = "SELECT category_id FROM transaction_categories";
+        Set<Integer> categoryIds = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                categoryIds.add(rs.getInt(1));
+            }
+        }
+        return categoryIds;
+    }
     public Optional<TransactionCategory> findByName(String name) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transaction_categories WHERE name = ?";
+            String sql = "SELECT " + TRANSACTION_CATEGORY.columns() + " FROM transaction_categories WHERE name = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, name);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToCategory(rs));
+                        return Optional.of(TRANSACTION_CATEGORY.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -0,0 +1,54 @@
+package org.example.dao;
+import org.example.model.Transaction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+/**
+ * Posição de uma página no extrato, na mesma ordem do índice
+ * (transaction_date DESC, created_at DESC, transaction_id DESC).
+ * É serializada como token opaco para o cliente repassar em {@code cursor}; created_at nulo vira campo vazio.
+ */
+public class TransactionCursor {
+    private final LocalDate transactionDate;
+    private final LocalDateTime createdAt;
+    private final UUID transactionId;
+    public TransactionCursor(LocalDate transactionDate, LocalDateTime createdAt, UUID transactionId) {
+        this.transactionDate = transactionDate;
+        this.createdAt = createdAt;
+        this.transactionId = transactionId;
+    }
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getCreatedAt(), transaction.getTransactionId());
+    }
+    public String encode() {
+        String raw = transactionDate + "|" + (createdAt != null ? createdAt : "") + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime createdAt = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new TransactionCursor(LocalDate.parse(parts[0]), createdAt, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+}
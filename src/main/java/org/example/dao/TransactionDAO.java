@@ -1,13 +1,18 @@
 package org.example.dao;
 
+import org.example.dto.TransactionSummaryDTO;
 import org.example.model.Transaction;
 import org.example.model.TransactionTypeEnum;
 import org.example.persistence.JdbcUtil;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -15,67 +20,61 @@ import java.util.UUID;
 
 public class TransactionDAO {
     
-    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
+    public static final Projection<Transaction> TRANSACTION = new Projection<>(TransactionDAO::mapResultSetToTransaction,
+            "transaction_id", "source_account_id", "destination_account_id", "category_id", "amount",
+            "transaction_type", "description", "transaction_date", "is_recurring", "installment_current",
+            "installment_total", "created_at");
+    
+    public static final Projection<TransactionSummaryDTO> SUMMARY = new Projection<>(TransactionDAO::mapResultSetToSummary,
+            "transaction_id", "amount", "transaction_type", "description", "transaction_date", "created_at");
+    
+    private static final String COPY_SQL = "COPY transactions (transaction_id, source_account_id, destination_account_id, " +
+                "category_id, amount, transaction_type, description, transaction_date, is_recurring, " +
+                "installment_current, installment_total, created_at) FROM STDIN WITH (FORMAT csv)";
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    
+    private static Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
+        transaction.setTransactionId(rs.getObject(1, UUID.class));
+        transaction.setSourceAccountId(rs.getObject(2, UUID.class));
+        transaction.setDestinationAccountId(rs.getObject(3, UUID.class));
+        transaction.setCategoryId(rs.getObject(4, Integer.class));
         
-        Object transactionIdObj = rs.getObject("transaction_id");
-        if (transactionIdObj != null) {
-            transaction.setTransactionId(UUID.fromString(transactionIdObj.toString()));
-        }
-        
-        Object sourceAccountIdObj = rs.getObject("source_account_id");
-        if (sourceAccountIdObj != null) {
-            transaction.setSourceAccountId(UUID.fromString(sourceAccountIdObj.toString()));
-        }
-        
-        Object destAccountIdObj = rs.getObject("destination_account_id");
-        if (destAccountIdObj != null) {
-            transaction.setDestinationAccountId(UUID.fromString(destAccountIdObj.toString()));
-        }
-        
-        int categoryId = rs.getInt("category_id");
-        if (!rs.wasNull()) {
-            transaction.setCategoryId(categoryId);
-        }
-        
-        BigDecimal amount = rs.getBigDecimal("amount");
+        BigDecimal amount = rs.getBigDecimal(5);
         transaction.setAmount(amount != null ? amount : BigDecimal.ZERO);
         
-        String transactionTypeStr = rs.getString("transaction_type");
+        String transactionTypeStr = rs.getString(6);
         if (transactionTypeStr != null) {
             transaction.setTransactionType(TransactionTypeEnum.valueOf(transactionTypeStr));
         }
         
-        transaction.setDescription(rs.getString("description"));
+        transaction.setDescription(rs.getString(7));
+        transaction.setTransactionDate(rs.getObject(8, LocalDate.class));
         
-        Date transactionDate = rs.getDate("transaction_date");
-        if (transactionDate != null) {
-            transaction.setTransactionDate(transactionDate.toLocalDate());
-        }
-        
-        transaction.setIsRecurring(rs.getBoolean("is_recurring"));
-        if (rs.wasNull()) {
-            transaction.setIsRecurring(false);
-        }
-        
-        int installmentCurrent = rs.getInt("installment_current");
-        if (!rs.wasNull()) {
-            transaction.setInstallmentCurrent(installmentCurrent);
-        }
-        
-        int installmentTotal = rs.getInt("installment_total");
-        if (!rs.wasNull()) {
-            transaction.setInstallmentTotal(installmentTotal);
-        }
-        
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            transaction.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        Boolean isRecurring = rs.getObject(9, Boolean.class);
+        transaction.setIsRecurring(isRecurring != null ? isRecurring : false);
         
+        transaction.setInstallmentCurrent(rs.getObject(10, Integer.class));
+        transaction.setInstallmentTotal(rs.getObject(11, Integer.class));
+        transaction.setCreatedAt(RowMapper.getLocalDateTime(rs, 12));
         return transaction;
     }
     
+    private static TransactionSummaryDTO mapResultSetToSummary(ResultSet rs) throws SQLException {
+        TransactionSummaryDTO summary = new TransactionSummaryDTO();
+        summary.setTransactionId(rs.getObject(1, UUID.class));
+        BigDecimal amount = rs.getBigDecimal(2);
+        summary.setAmount(amount != null ? amount : BigDecimal.ZERO);
+        String transactionTypeStr = rs.getString(3);
+        if (transactionTypeStr != null) {
+            summary.setTransactionType(TransactionTypeEnum.valueOf(transactionTypeStr));
+        }
+        summary.setDescription(rs.getString(4));
+        summary.setTransactionDate(rs.getObject(5, LocalDate.class));
+        summary.setCreatedAt(RowMapper.getLocalDateTime(rs, 6));
+        return summary;
+    }
+    
     private void prepareTransactionForSave(Transaction transaction) {
         if (transaction.getTransactionDate() == null) {
             transaction.setTransactionDate(LocalDate.now());
@@ -89,64 +88,182 @@ public class TransactionDAO {
     }
     
     public Transaction save(Transaction transaction) {
+        return JdbcUtil.executeInTransaction(conn -> {
+            return save(conn, transaction);
+        });
+    }
+    
+    public Transaction save(Connection conn, Transaction transaction) throws SQLException {
         prepareTransactionForSave(transaction);
+        if (transaction.getTransactionId() == null) {
+            transaction.setTransactionId(UUID.randomUUID());
+        }
+        String sql = "INSERT INTO transactions (transaction_id, source_account_id, destination_account_id, category_id, " +
+                    "amount, transaction_type, description, transaction_date, is_recurring, " +
+                    "installment_current, installment_total, created_at) " +
+                    "VALUES (?::uuid, ?::uuid, ?::uuid, ?, ?, ?::transaction_type_enum, ?, ?, ?, ?, ?, ?)";
         
-        return JdbcUtil.executeInTransaction(conn -> {
-            String sql = "INSERT INTO transactions (transaction_id, source_account_id, destination_account_id, category_id, " +
-                        "amount, transaction_type, description, transaction_date, is_recurring, " +
-                        "installment_current, installment_total, created_at) " +
-                        "VALUES (?::uuid, ?::uuid, ?::uuid, ?, ?, ?::transaction_type_enum, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, transaction.getTransactionId());
+            stmt.setObject(2, transaction.getSourceAccountId());
             
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setObject(1, transaction.getTransactionId());
-                stmt.setObject(2, transaction.getSourceAccountId());
-                
-                if (transaction.getDestinationAccountId() != null) {
-                    stmt.setObject(3, transaction.getDestinationAccountId());
-                } else {
-                    stmt.setNull(3, Types.OTHER);
+            if (transaction.getDestinationAccountId() != null) {
+                stmt.setObject(3, transaction.getDestinationAccountId());
+            } else {
+                stmt.setNull(3, Types.OTHER);
+            }
+            
+            if (transaction.getCategoryId() != null) {
+                stmt.setInt(4, transaction.getCategoryId());
+            } else {
+                stmt.setNull(4, Types.INTEGER);
+            }
+            
+            stmt.setBigDecimal(5, transaction.getAmount());
+            stmt.setString(6, transaction.getTransactionType().toString());
+            stmt.setString(7, transaction.getDescription());
+            stmt.setDate(8, Date.valueOf(transaction.getTransactionDate()));
+            stmt.setBoolean(9, transaction.getIsRecurring());
+            
+            if (transaction.getInstallmentCurrent() != null) {
+                stmt.setInt(10, transaction.getInstallmentCurrent());
+            } else {
+                stmt.setNull(10, Types.INTEGER);
+            }
+            
+            if (transaction.getInstallmentTotal() != null) {
+                stmt.setInt(11, transaction.getInstallmentTotal());
+            } else {
+                stmt.setNull(11, Types.INTEGER);
+            }
+            
+            stmt.setTimestamp(12, Timestamp.valueOf(transaction.getCreatedAt()));
+            
+            stmt.executeUpdate();
+            return transaction;
+        }
+    }
+    
+    /**
+     * Grava todas as pernas de um lançamento num único INSERT de várias linhas.
+     */
+    public List<Transaction> saveAll(Connection conn, List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO transactions (transaction_id, source_account_id, destination_account_id, " +
+                    "category_id, amount, transaction_type, description, transaction_date, is_recurring, " +
+                    "installment_current, installment_total, created_at) VALUES ");
+        for (int i = 0; i < transactions.size(); i++) {
+            sql.append(i == 0 ? "" : ", ")
+               .append("(?::uuid, ?::uuid, ?::uuid, ?, ?, ?::transaction_type_enum, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" RETURNING transaction_id");
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Transaction transaction : transactions) {
+                prepareTransactionForSave(transaction);
+                if (transaction.getTransactionId() == null) {
+                    transaction.setTransactionId(UUID.randomUUID());
                 }
-                
-                if (transaction.getCategoryId() != null) {
-                    stmt.setInt(4, transaction.getCategoryId());
-                } else {
-                    stmt.setNull(4, Types.INTEGER);
+                stmt.setObject(index++, transaction.getTransactionId());
+                stmt.setObject(index++, transaction.getSourceAccountId());
+                stmt.setObject(index++, transaction.getDestinationAccountId(), Types.OTHER);
+                stmt.setObject(index++, transaction.getCategoryId(), Types.INTEGER);
+                stmt.setBigDecimal(index++, transaction.getAmount());
+                stmt.setString(index++, transaction.getTransactionType().toString());
+                stmt.setString(index++, transaction.getDescription());
+                stmt.setDate(index++, Date.valueOf(transaction.getTransactionDate()));
+                stmt.setBoolean(index++, transaction.getIsRecurring());
+                stmt.setObject(index++, transaction.getInstallmentCurrent(), Types.INTEGER);
+                stmt.setObject(index++, transaction.getInstallmentTotal(), Types.INTEGER);
+                stmt.setTimestamp(index++, Timestamp.valueOf(transaction.getCreatedAt()));
+            }
+            
+            int inserted = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    inserted++;
                 }
-                
-                stmt.setBigDecimal(5, transaction.getAmount());
-                stmt.setString(6, transaction.getTransactionType().toString());
-                stmt.setString(7, transaction.getDescription());
-                stmt.setDate(8, Date.valueOf(transaction.getTransactionDate()));
-                stmt.setBoolean(9, transaction.getIsRecurring());
-                
-                if (transaction.getInstallmentCurrent() != null) {
-                    stmt.setInt(10, transaction.getInstallmentCurrent());
-                } else {
-                    stmt.setNull(10, Types.INTEGER);
+            }
+            if (inserted != transactions.size()) {
+                throw new SQLException("Esperava gravar " + transactions.size() + " transações, gravou " + inserted);
+            }
+            return transactions;
+        }
+    }
+    
+    /**
+     * Grava as transações com {@code COPY ... FROM STDIN} (formato CSV), enviando as linhas em blocos
+     * de {@link #COPY_BUFFER_CHARS} caracteres em vez de um INSERT por linha. Deve rodar na transação do chamador.
+     */
+    public long copyIn(Connection conn, List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 512);
+            for (Transaction transaction : transactions) {
+                prepareTransactionForSave(transaction);
+                if (transaction.getTransactionId() == null) {
+                    transaction.setTransactionId(UUID.randomUUID());
                 }
-                
-                if (transaction.getInstallmentTotal() != null) {
-                    stmt.setInt(11, transaction.getInstallmentTotal());
-                } else {
-                    stmt.setNull(11, Types.INTEGER);
+                appendCsvRow(buffer, transaction);
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    writeToCopy(copy, buffer);
                 }
-                
-                stmt.setTimestamp(12, Timestamp.valueOf(transaction.getCreatedAt()));
-                
-                stmt.executeUpdate();
-                return transaction;
             }
-        });
+            writeToCopy(copy, buffer);
+            long copied = copy.endCopy();
+            if (copied != transactions.size()) {
+                throw new SQLException("Esperava copiar " + transactions.size() + " transações, copiou " + copied);
+            }
+            return copied;
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+    
+    private static void appendCsvRow(StringBuilder row, Transaction transaction) {
+        row.append(transaction.getTransactionId()).append(',')
+           .append(transaction.getSourceAccountId()).append(',');
+        appendNullable(row, transaction.getDestinationAccountId()).append(',');
+        appendNullable(row, transaction.getCategoryId()).append(',')
+           .append(transaction.getAmount().toPlainString()).append(',')
+           .append(transaction.getTransactionType()).append(',')
+           .append('"').append(transaction.getDescription().replace("\"", "\"\"")).append('"').append(',')
+           .append(transaction.getTransactionDate()).append(',')
+           .append(transaction.getIsRecurring()).append(',');
+        appendNullable(row, transaction.getInstallmentCurrent()).append(',');
+        appendNullable(row, transaction.getInstallmentTotal()).append(',')
+           .append(transaction.getCreatedAt().atZone(ZoneId.systemDefault()).toOffsetDateTime()).append('\n');
+    }
+    
+    private static StringBuilder appendNullable(StringBuilder row, Object value) {
+        return value != null ? row.append(value) : row;
+    }
+    
+    private static void writeToCopy(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
     }
     
     public Optional<Transaction> findById(UUID id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE transaction_id = ?::uuid";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE transaction_id = ?::uuid";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setObject(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToTransaction(rs));
+                        return Optional.of(TRANSACTION.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -156,12 +273,12 @@ public class TransactionDAO {
     
     public List<Transaction> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(TRANSACTION.mapRow(rs));
                 }
                 return transactions;
             }
@@ -170,13 +287,13 @@ public class TransactionDAO {
     
     public List<Transaction> findBySourceAccountId(UUID accountId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE source_account_id = ?::uuid ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE source_account_id = ?::uuid ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setObject(1, accountId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -186,13 +303,13 @@ public class TransactionDAO {
     
     public List<Transaction> findByDestinationAccountId(UUID accountId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE destination_account_id = ?::uuid ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE destination_account_id = ?::uuid ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setObject(1, accountId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -202,13 +319,13 @@ public class TransactionDAO {
     
     public List<Transaction> findByCategoryId(Integer categoryId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE category_id = ? ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE category_id = ? ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, categoryId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -218,13 +335,13 @@ public class TransactionDAO {
     
     public List<Transaction> findByTransactionType(TransactionTypeEnum transactionType) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE transaction_type = ?::transaction_type_enum ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE transaction_type = ?::transaction_type_enum ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, transactionType.toString());
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -238,12 +355,12 @@ public class TransactionDAO {
     
     public List<Transaction> findRecurring() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE is_recurring = true ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE is_recurring = true ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
+                    transactions.add(TRANSACTION.mapRow(rs));
                 }
                 return transactions;
             }
@@ -256,14 +373,14 @@ public class TransactionDAO {
     
     public List<Transaction> findByDateRange(LocalDate startDate, LocalDate endDate) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM transactions WHERE transaction_date >= ? AND transaction_date <= ? ORDER BY transaction_date DESC";
+            String sql = "SELECT " + TRANSACTION.columns() + " FROM transactions WHERE transaction_date >= ? AND transaction_date <= ? ORDER BY transaction_date DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setDate(1, Date.valueOf(startDate));
                 stmt.setDate(2, Date.valueOf(endDate));
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
@@ -340,24 +457,116 @@ public class TransactionDAO {
         return false;
     }
     
+    /**
+     * Extrato do usuário como UNION ALL de dois ramos que usam os índices por conta de origem e de destino.
+     * O segundo ramo descarta transferências entre contas do próprio usuário, que já vieram no primeiro,
+     * substituindo o DISTINCT sobre todas as colunas.
+     */
     public List<Transaction> findByUserId(UUID userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT DISTINCT t.* FROM transactions t " +
-                        "INNER JOIN accounts a1 ON t.source_account_id = a1.account_id " +
-                        "LEFT JOIN accounts a2 ON t.destination_account_id = a2.account_id " +
-                        "WHERE a1.user_id = ?::uuid OR a2.user_id = ?::uuid " +
-                        "ORDER BY t.transaction_date DESC, t.created_at DESC";
+            String sql = "WITH user_accounts AS (SELECT account_id FROM accounts WHERE user_id = ?::uuid) " +
+                        "SELECT " + TRANSACTION.columns("t") + " FROM transactions t " +
+                        "WHERE t.source_account_id IN (SELECT account_id FROM user_accounts) " +
+                        "UNION ALL " +
+                        "SELECT " + TRANSACTION.columns("t") + " FROM transactions t " +
+                        "WHERE t.destination_account_id IN (SELECT account_id FROM user_accounts) " +
+                        "AND t.source_account_id NOT IN (SELECT account_id FROM user_accounts) " +
+                        "ORDER BY transaction_date DESC, created_at DESC";
             List<Transaction> transactions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setObject(1, userId);
-                stmt.setObject(2, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        transactions.add(mapResultSetToTransaction(rs));
+                        transactions.add(TRANSACTION.mapRow(rs));
                     }
                     return transactions;
                 }
             }
         });
     }
+    
+    /**
+     * Busca até {@code limit} linhas depois do cursor, na ordem do índice
+     * (transaction_date, created_at, transaction_id) decrescente, aplicando juntos todos os filtros informados
+     * (nulos são ignorados). Com {@code userId} a consulta é o UNION ALL dos ramos por conta de origem e de
+     * destino, cada um já com os demais filtros e o predicado de keyset, para o custo não depender de quantas
+     * páginas já foram lidas; {@code accountId} filtra pela conta de origem.
+     */
+    public <T> List<T> findPage(Projection<T> projection, UUID userId, UUID accountId, LocalDate startDate,
+                                LocalDate endDate, TransactionCursor after, int limit) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            StringBuilder filters = new StringBuilder();
+            List<Object> params = new ArrayList<>();
+            if (accountId != null) {
+                filters.append("AND t.source_account_id = ?::uuid ");
+                params.add(accountId);
+            }
+            if (startDate != null) {
+                filters.append("AND t.transaction_date >= ? ");
+                params.add(Date.valueOf(startDate));
+            }
+            if (endDate != null) {
+                filters.append("AND t.transaction_date <= ? ");
+                params.add(Date.valueOf(endDate));
+            }
+            if (after != null) {
+                filters.append("AND ").append(keysetPredicate(after));
+                params.addAll(keysetParams(after));
+            }
+            String order = "ORDER BY t.transaction_date DESC, t.created_at DESC, t.transaction_id DESC LIMIT ?";
+            String sql;
+            List<Object> allParams = new ArrayList<>();
+            if (userId == null) {
+                sql = "SELECT " + projection.columns("t") + " FROM transactions t WHERE TRUE " + filters + order;
+                allParams.addAll(params);
+            } else {
+                sql = "WITH user_accounts AS (SELECT account_id FROM accounts WHERE user_id = ?::uuid) " +
+                        "SELECT " + projection.columns("t") + " FROM (" +
+                        "(SELECT " + projection.columns("t") + " FROM transactions t " +
+                        "WHERE t.source_account_id IN (SELECT account_id FROM user_accounts) " + filters + order + ") " +
+                        "UNION ALL " +
+                        "(SELECT " + projection.columns("t") + " FROM transactions t " +
+                        "WHERE t.destination_account_id IN (SELECT account_id FROM user_accounts) " +
+                        "AND t.source_account_id NOT IN (SELECT account_id FROM user_accounts) " + filters + order + ")" +
+                        ") t " + order;
+                allParams.add(userId);
+                for (int branch = 0; branch < 2; branch++) {
+                    allParams.addAll(params);
+                    allParams.add(limit);
+                }
+            }
+            allParams.add(limit);
+            List<T> rows = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (Object param : allParams) {
+                    stmt.setObject(index++, param);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(projection.mapRow(rs));
+                    }
+                    return rows;
+                }
+            }
+        });
+    }
+    
+    /**
+     * Linhas depois do cursor. Na ordem decrescente o PostgreSQL põe created_at nulo antes dos demais da
+     * mesma data; a comparação de linha com nulo não é verdadeira, então esse caso tem predicado próprio.
+     */
+    private static String keysetPredicate(TransactionCursor after) {
+        return after.getCreatedAt() != null
+                ? "(t.transaction_date, t.created_at, t.transaction_id) < (?, ?, ?::uuid) "
+                : "(t.transaction_date < ? OR (t.transaction_date = ? AND " +
+                  "(t.created_at IS NOT NULL OR t.transaction_id < ?::uuid))) ";
+    }
+    
+    private static List<Object> keysetParams(TransactionCursor after) {
+        Date date = Date.valueOf(after.getTransactionDate());
+        return after.getCreatedAt() != null
+                ? List.of(date, Timestamp.valueOf(after.getCreatedAt()), after.getTransactionId())
+                : List.of(date, date, after.getTransactionId());
+    }
 }
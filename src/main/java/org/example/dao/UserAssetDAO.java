@@ -1,4 +1,5 @@
 package org.example.dao;
+import org.example.dto.AssetDistributionDTO;
 import org.example.model.UserAsset;
 import org.example.persistence.JdbcUtil;
 import java.math.BigDecimal;
@@ -8,62 +9,126 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 public class UserAssetDAO {
-    private UserAsset mapResultSetToUserAsset(ResultSet rs) throws SQLException {
+    private static final Projection<UserAsset> USER_ASSET = new Projection<>(UserAssetDAO::mapResultSetToUserAsset,
+            "id", "user_id", "asset_id", "quantity", "average_price", "last_updated");
+    private static final Projection<AssetDistributionDTO> POSITION = new Projection<>(UserAssetDAO::mapResultSetToPosition,
+            "a.id", "a.ticker", "a.name", "c.id", "c.name", "ua.quantity", "ua.average_price");
+    private static AssetDistributionDTO mapResultSetToPosition(ResultSet rs) throws SQLException {
+        AssetDistributionDTO position = new AssetDistributionDTO();
+        position.setAssetId(rs.getInt(1));
+        position.setTicker(rs.getString(2));
+        position.setAssetName(rs.getString(3));
+        position.setCategoryId(rs.getInt(4));
+        position.setCategoryName(rs.getString(5));
+        position.setQuantity(rs.getBigDecimal(6));
+        position.setAveragePrice(rs.getBigDecimal(7));
+        return position;
+    }
+    private static UserAsset mapResultSetToUserAsset(ResultSet rs) throws SQLException {
         UserAsset userAsset = new UserAsset();
-        userAsset.setId(rs.getInt("id"));
-        userAsset.setUserId(rs.getInt("user_id"));
-        userAsset.setAssetId(rs.getInt("asset_id"));
-        userAsset.setQuantity(rs.getBigDecimal("quantity"));
-        userAsset.setAveragePrice(rs.getBigDecimal("average_price"));
-        Timestamp lastUpdated = rs.getTimestamp("last_updated");
-        if (lastUpdated != null) {
-            userAsset.setLastUpdated(lastUpdated.toLocalDateTime());
-        }
+        userAsset.setId(rs.getInt(1));
+        userAsset.setUserId(rs.getInt(2));
+        userAsset.setAssetId(rs.getInt(3));
+        userAsset.setQuantity(rs.getBigDecimal(4));
+        userAsset.setAveragePrice(rs.getBigDecimal(5));
+        userAsset.setLastUpdated(RowMapper.getLocalDateTime(rs, 6));
         return userAsset;
     }
     public UserAsset saveOrUpdate(UserAsset userAsset) {
         return JdbcUtil.executeInTransaction(conn -> {
-            Optional<UserAsset> existing = findByUserIdAndAssetId(userAsset.getUserId(), userAsset.getAssetId());
-            if (existing.isPresent()) {
-                UserAsset existingAsset = existing.get();
-                existingAsset.setQuantity(userAsset.getQuantity());
-                existingAsset.setAveragePrice(userAsset.getAveragePrice());
-                existingAsset.setLastUpdated(LocalDateTime.now());
-                return update(existingAsset);
-            } else {
-                return save(userAsset);
-            }
+            return saveOrUpdate(conn, userAsset);
         });
     }
+    public UserAsset saveOrUpdate(Connection conn, UserAsset userAsset) throws SQLException {
+        Optional<UserAsset> existing = findByUserIdAndAssetId(conn, userAsset.getUserId(), userAsset.getAssetId());
+        if (existing.isPresent()) {
+            UserAsset existingAsset = existing.get();
+            existingAsset.setQuantity(userAsset.getQuantity());
+            existingAsset.setAveragePrice(userAsset.getAveragePrice());
+            return update(conn, existingAsset);
+        }
+        return save(conn, userAsset);
+    }
     public UserAsset save(UserAsset userAsset) {
         return JdbcUtil.executeInTransaction(conn -> {
-            String sql = "INSERT INTO investments.user_asset (user_id, asset_id, quantity, average_price, last_updated) " +
-                        "VALUES (?, ?, ?, ?, ?) RETURNING id";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, userAsset.getUserId());
-                stmt.setInt(2, userAsset.getAssetId());
-                stmt.setBigDecimal(3, userAsset.getQuantity());
-                stmt.setBigDecimal(4, userAsset.getAveragePrice());
-                stmt.setTimestamp(5, Timestamp.valueOf(
-                    userAsset.getLastUpdated() != null ? userAsset.getLastUpdated() : LocalDateTime.now()
-                ));
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        userAsset.setId(rs.getInt("id"));
-                    }
+            return save(conn, userAsset);
+        });
+    }
+    public UserAsset save(Connection conn, UserAsset userAsset) throws SQLException {
+        String sql = "INSERT INTO investments.user_asset (user_id, asset_id, quantity, average_price, last_updated) " +
+                    "VALUES (?, ?, ?, ?, ?) RETURNING id";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userAsset.getUserId());
+            stmt.setInt(2, userAsset.getAssetId());
+            stmt.setBigDecimal(3, userAsset.getQuantity());
+            stmt.setBigDecimal(4, userAsset.getAveragePrice());
+            stmt.setTimestamp(5, Timestamp.valueOf(
+                userAsset.getLastUpdated() != null ? userAsset.getLastUpdated() : LocalDateTime.now()
+            ));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    userAsset.setId(rs.getInt("id"));
                 }
-                return userAsset;
             }
-        });
+            return userAsset;
+        }
+    }
+    /**
+     * Soma uma compra à posição numa única instrução: insere a posição ou, se já existir,
+     * recalcula o preço médio ponderado no próprio banco. O ON CONFLICT trava a linha existente,
+     * então compras concorrentes do mesmo ativo são serializadas sem perder quantidade.
+     */
+    public UserAsset addToPosition(Connection conn, Integer userId, Integer assetId,
+                                   BigDecimal quantity, BigDecimal price) throws SQLException {
+        String sql = "INSERT INTO investments.user_asset AS ua (user_id, asset_id, quantity, average_price, last_updated) " +
+                    "VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (user_id, asset_id) DO UPDATE SET " +
+                    "average_price = CASE WHEN ua.quantity + EXCLUDED.quantity > 0 " +
+                    "THEN ROUND((ua.quantity * ua.average_price + EXCLUDED.quantity * EXCLUDED.average_price) " +
+                    "/ (ua.quantity + EXCLUDED.quantity), 8) ELSE ua.average_price END, " +
+                    "quantity = ua.quantity + EXCLUDED.quantity, " +
+                    "last_updated = EXCLUDED.last_updated " +
+                    "RETURNING " + USER_ASSET.columns();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, assetId);
+            stmt.setBigDecimal(3, quantity);
+            stmt.setBigDecimal(4, price);
+            stmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Falha ao atualizar posição do ativo " + assetId);
+                }
+                return USER_ASSET.mapRow(rs);
+            }
+        }
+    }
+    public UserAsset subtractFromPosition(Connection conn, Integer userId, Integer assetId,
+                                          BigDecimal quantity) throws SQLException {
+        String sql = "UPDATE investments.user_asset SET quantity = quantity - ?, last_updated = ? " +
+                    "WHERE user_id = ? AND asset_id = ? AND quantity >= ? RETURNING " + USER_ASSET.columns();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setBigDecimal(1, quantity);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setInt(3, userId);
+            stmt.setInt(4, assetId);
+            stmt.setBigDecimal(5, quantity);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalArgumentException("Quantidade insuficiente para venda do ativo " + assetId);
+                }
+                return USER_ASSET.mapRow(rs);
+            }
+        }
     }
     public Optional<UserAsset> findById(Integer id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.user_asset WHERE id = ?";
+            String sql = "SELECT " + USER_ASSET.columns() + " FROM investments.user_asset WHERE id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToUserAsset(rs));
+                        return Optional.of(USER_ASSET.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -71,29 +136,57 @@ public class UserAssetDAO {
         });
     }
     public Optional<UserAsset> findByUserIdAndAssetId(Integer userId, Integer assetId) {
+        return JdbcUtil.executeWithoutTransaction(conn -> findByUserIdAndAssetId(conn, userId, assetId));
+    }
+    public Optional<UserAsset> findByUserIdAndAssetId(Connection conn, Integer userId, Integer assetId) throws SQLException {
+        return findPosition(conn, "SELECT " + USER_ASSET.columns() + " FROM investments.user_asset WHERE user_id = ? AND asset_id = ?", userId, assetId);
+    }
+    public Optional<UserAsset> findByUserIdAndAssetIdForUpdate(Connection conn, Integer userId, Integer assetId) throws SQLException {
+        return findPosition(conn, "SELECT " + USER_ASSET.columns() + " FROM investments.user_asset WHERE user_id = ? AND asset_id = ? FOR UPDATE", userId, assetId);
+    }
+    private Optional<UserAsset> findPosition(Connection conn, String sql, Integer userId, Integer assetId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, assetId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(USER_ASSET.mapRow(rs));
+                }
+                return Optional.empty();
+            }
+        }
+    }
+    public List<UserAsset> findByUserId(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.user_asset WHERE user_id = ? AND asset_id = ?";
+            String sql = "SELECT " + USER_ASSET.columns() + " FROM investments.user_asset WHERE user_id = ? ORDER BY last_updated DESC";
+            List<UserAsset> positions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
-                stmt.setInt(2, assetId);
                 try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return Optional.of(mapResultSetToUserAsset(rs));
+                    while (rs.next()) {
+                        positions.add(USER_ASSET.mapRow(rs));
                     }
-                    return Optional.empty();
+                    return positions;
                 }
             }
         });
     }
-    public List<UserAsset> findByUserId(Integer userId) {
+    /**
+     * Posições abertas do usuário já com ativo e categoria, numa única consulta. O total e o percentual
+     * de cada posição ficam a cargo de quem chama.
+     */
+    public List<AssetDistributionDTO> findOpenPositionsWithAsset(Integer userId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.user_asset WHERE user_id = ? ORDER BY last_updated DESC";
-            List<UserAsset> positions = new ArrayList<>();
+            String sql = "SELECT " + POSITION.columns() + " FROM investments.user_asset ua " +
+                        "JOIN investments.asset a ON a.id = ua.asset_id " +
+                        "JOIN investments.asset_category c ON c.id = a.category_id " +
+                        "WHERE ua.user_id = ? AND ua.quantity > 0";
+            List<AssetDistributionDTO> positions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, userId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        positions.add(mapResultSetToUserAsset(rs));
+                        positions.add(POSITION.mapRow(rs));
                     }
                     return positions;
                 }
@@ -102,13 +195,13 @@ public class UserAssetDAO {
     }
     public List<UserAsset> findByAssetId(Integer assetId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM investments.user_asset WHERE asset_id = ? ORDER BY last_updated DESC";
+            String sql = "SELECT " + USER_ASSET.columns() + " FROM investments.user_asset WHERE asset_id = ? ORDER BY last_updated DESC";
             List<UserAsset> positions = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, assetId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        positions.add(mapResultSetToUserAsset(rs));
+                        positions.add(USER_ASSET.mapRow(rs));
                     }
                     return positions;
                 }
@@ -116,23 +209,26 @@ public class UserAssetDAO {
         });
     }
     public UserAsset update(UserAsset userAsset) {
-        userAsset.setLastUpdated(LocalDateTime.now());
         return JdbcUtil.executeInTransaction(conn -> {
-            String sql = "UPDATE investments.user_asset SET quantity = ?, average_price = ?, last_updated = ? " +
-                        "WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setBigDecimal(1, userAsset.getQuantity());
-                stmt.setBigDecimal(2, userAsset.getAveragePrice());
-                stmt.setTimestamp(3, Timestamp.valueOf(userAsset.getLastUpdated()));
-                stmt.setInt(4, userAsset.getId());
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected == 0) {
-                    throw new RuntimeException("Posição não encontrada para atualização: " + userAsset.getId());
-                }
-                return userAsset;
-            }
+            return update(conn, userAsset);
         });
     }
+    public UserAsset update(Connection conn, UserAsset userAsset) throws SQLException {
+        userAsset.setLastUpdated(LocalDateTime.now());
+        String sql = "UPDATE investments.user_asset SET quantity = ?, average_price = ?, last_updated = ? " +
+                    "WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setBigDecimal(1, userAsset.getQuantity());
+            stmt.setBigDecimal(2, userAsset.getAveragePrice());
+            stmt.setTimestamp(3, Timestamp.valueOf(userAsset.getLastUpdated()));
+            stmt.setInt(4, userAsset.getId());
+            int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected == 0) {
+                throw new RuntimeException("Posição não encontrada para atualização: " + userAsset.getId());
+            }
+            return userAsset;
+        }
+    }
     public boolean delete(Integer id) {
         return JdbcUtil.executeInTransaction(conn -> {
             String sql = "DELETE FROM investments.user_asset WHERE id = ?";
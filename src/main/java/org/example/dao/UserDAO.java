@@ -13,46 +13,37 @@ import java.util.UUID;
 
 public class UserDAO {
     
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
+    private static final Projection<User> USER = new Projection<>(UserDAO::mapResultSetToUser,
+            "user_id", "plan_id", "first_name", "last_name", "tax_id", "email", "phone_number",
+            "date_of_birth", "is_active", "created_at", "updated_at");
+    
+    private static User mapResultSetToUser(ResultSet rs) throws SQLException {
         User user = new User();
         
-        Object userIdObj = rs.getObject("user_id");
-        if (userIdObj != null) {
-            user.setUserId(UUID.fromString(userIdObj.toString()));
-        }
+        user.setUserId(rs.getObject(1, UUID.class));
         
-        int planId = rs.getInt("plan_id");
+        int planId = rs.getInt(2);
         if (rs.wasNull()) {
             user.setPlanId(1);
         } else {
             user.setPlanId(planId);
         }
         
-        user.setFirstName(rs.getString("first_name"));
-        user.setLastName(rs.getString("last_name"));
-        user.setTaxId(rs.getString("tax_id"));
-        user.setEmail(rs.getString("email"));
-        user.setPhoneNumber(rs.getString("phone_number"));
+        user.setFirstName(rs.getString(3));
+        user.setLastName(rs.getString(4));
+        user.setTaxId(rs.getString(5));
+        user.setEmail(rs.getString(6));
+        user.setPhoneNumber(rs.getString(7));
         
-        Date dateOfBirth = rs.getDate("date_of_birth");
-        if (dateOfBirth != null) {
-            user.setDateOfBirth(dateOfBirth.toLocalDate());
-        }
+        user.setDateOfBirth(rs.getObject(8, LocalDate.class));
         
-        user.setIsActive(rs.getBoolean("is_active"));
+        user.setIsActive(rs.getBoolean(9));
         if (rs.wasNull()) {
             user.setIsActive(true);
         }
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            user.setCreatedAt(createdAt.toLocalDateTime());
-        }
-        
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            user.setUpdatedAt(updatedAt.toLocalDateTime());
-        }
+        user.setCreatedAt(RowMapper.getLocalDateTime(rs, 10));
+        user.setUpdatedAt(RowMapper.getLocalDateTime(rs, 11));
         
         return user;
     }
@@ -102,12 +93,12 @@ public class UserDAO {
     
     public Optional<User> findById(UUID id) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM users WHERE user_id = ?::uuid";
+            String sql = "SELECT " + USER.columns() + " FROM users WHERE user_id = ?::uuid";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setObject(1, id);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToUser(rs));
+                        return Optional.of(USER.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -117,12 +108,12 @@ public class UserDAO {
     
     public List<User> findAll() {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM users ORDER BY created_at DESC";
+            String sql = "SELECT " + USER.columns() + " FROM users ORDER BY created_at DESC";
             List<User> users = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    users.add(mapResultSetToUser(rs));
+                    users.add(USER.mapRow(rs));
                 }
                 return users;
             }
@@ -131,12 +122,12 @@ public class UserDAO {
     
     public Optional<User> findByEmail(String email) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM users WHERE email = ?";
+            String sql = "SELECT " + USER.columns() + " FROM users WHERE email = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, email);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToUser(rs));
+                        return Optional.of(USER.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -146,12 +137,12 @@ public class UserDAO {
     
     public Optional<User> findByTaxId(String taxId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM users WHERE tax_id = ?";
+            String sql = "SELECT " + USER.columns() + " FROM users WHERE tax_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, taxId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapResultSetToUser(rs));
+                        return Optional.of(USER.mapRow(rs));
                     }
                     return Optional.empty();
                 }
@@ -161,13 +152,13 @@ public class UserDAO {
     
     public List<User> findByStatus(Boolean isActive) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM users WHERE is_active = ? ORDER BY created_at DESC";
+            String sql = "SELECT " + USER.columns() + " FROM users WHERE is_active = ? ORDER BY created_at DESC";
             List<User> users = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setBoolean(1, isActive);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        users.add(mapResultSetToUser(rs));
+                        users.add(USER.mapRow(rs));
                     }
                     return users;
                 }
@@ -177,13 +168,13 @@ public class UserDAO {
     
     public List<User> findByPlanId(Integer planId) {
         return JdbcUtil.executeWithoutTransaction(conn -> {
-            String sql = "SELECT * FROM users WHERE plan_id = ? ORDER BY created_at DESC";
+            String sql = "SELECT " + USER.columns() + " FROM users WHERE plan_id = ? ORDER BY created_at DESC";
             List<User> users = new ArrayList<>();
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, planId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        users.add(mapResultSetToUser(rs));
+                        users.add(USER.mapRow(rs));
                     }
                     return users;
                 }
@@ -10,6 +10,10 @@ public class AssetDistributionDTO {
     private BigDecimal averagePrice;
     private BigDecimal totalValue;
     private BigDecimal percentage; 
+    private BigDecimal currentPrice;
+    private BigDecimal marketValue;
+    private BigDecimal unrealizedPnl;
+    private BigDecimal dailyChange;
     public AssetDistributionDTO() {
     }
     public Integer getAssetId() {
@@ -66,4 +70,28 @@ public class AssetDistributionDTO {
     public void setPercentage(BigDecimal percentage) {
         this.percentage = percentage;
     }
+    public BigDecimal getCurrentPrice() {
+        return currentPrice;
+    }
+    public void setCurrentPrice(BigDecimal currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+    public BigDecimal getMarketValue() {
+        return marketValue;
+    }
+    public void setMarketValue(BigDecimal marketValue) {
+        this.marketValue = marketValue;
+    }
+    public BigDecimal getUnrealizedPnl() {
+        return unrealizedPnl;
+    }
+    public void setUnrealizedPnl(BigDecimal unrealizedPnl) {
+        this.unrealizedPnl = unrealizedPnl;
+    }
+    public BigDecimal getDailyChange() {
+        return dailyChange;
+    }
+    public void setDailyChange(BigDecimal dailyChange) {
+        this.dailyChange = dailyChange;
+    }
 }
\ No newline at end of file
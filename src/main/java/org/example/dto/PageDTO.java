@@ -0,0 +1,40 @@
+package org.example.dto;
+import java.util.List;
+public class PageDTO<T> {
+    private List<T> items;
+    private Integer limit;
+    private Boolean hasMore;
+    private String nextCursor;
+    public PageDTO() {
+    }
+    public PageDTO(List<T> items, Integer limit, Boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.limit = limit;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+    public List<T> getItems() {
+        return items;
+    }
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    public Integer getLimit() {
+        return limit;
+    }
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
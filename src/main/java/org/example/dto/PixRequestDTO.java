@@ -1,28 +1,29 @@
 package org.example.dto;
+import java.util.UUID;
 public class PixRequestDTO {
-    private Integer sourceAccountId; 
-    private Integer destinationAccountId; 
-    private Integer destinationUserId; 
+    private UUID sourceAccountId; 
+    private UUID destinationAccountId; 
+    private UUID destinationUserId; 
     private String amount; 
     private String description; 
     public PixRequestDTO() {
     }
-    public Integer getSourceAccountId() {
+    public UUID getSourceAccountId() {
         return sourceAccountId;
     }
-    public void setSourceAccountId(Integer sourceAccountId) {
+    public void setSourceAccountId(UUID sourceAccountId) {
         this.sourceAccountId = sourceAccountId;
     }
-    public Integer getDestinationAccountId() {
+    public UUID getDestinationAccountId() {
         return destinationAccountId;
     }
-    public void setDestinationAccountId(Integer destinationAccountId) {
+    public void setDestinationAccountId(UUID destinationAccountId) {
         this.destinationAccountId = destinationAccountId;
     }
-    public Integer getDestinationUserId() {
+    public UUID getDestinationUserId() {
         return destinationUserId;
     }
-    public void setDestinationUserId(Integer destinationUserId) {
+    public void setDestinationUserId(UUID destinationUserId) {
         this.destinationUserId = destinationUserId;
     }
     public String getAmount() {
@@ -2,12 +2,13 @@ package org.example.dto;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 public class PixResponseDTO {
-    private Integer transactionId;
-    private Integer sourceAccountId;
-    private Integer destinationAccountId;
-    private Integer sourceUserId;
-    private Integer destinationUserId;
+    private UUID transactionId;
+    private UUID sourceAccountId;
+    private UUID destinationAccountId;
+    private UUID sourceUserId;
+    private UUID destinationUserId;
     private BigDecimal amount;
     private String description;
     private LocalDate transactionDate;
@@ -16,34 +17,34 @@ public class PixResponseDTO {
     private String message;
     public PixResponseDTO() {
     }
-    public Integer getTransactionId() {
+    public UUID getTransactionId() {
         return transactionId;
     }
-    public void setTransactionId(Integer transactionId) {
+    public void setTransactionId(UUID transactionId) {
         this.transactionId = transactionId;
     }
-    public Integer getSourceAccountId() {
+    public UUID getSourceAccountId() {
         return sourceAccountId;
     }
-    public void setSourceAccountId(Integer sourceAccountId) {
+    public void setSourceAccountId(UUID sourceAccountId) {
         this.sourceAccountId = sourceAccountId;
     }
-    public Integer getDestinationAccountId() {
+    public UUID getDestinationAccountId() {
         return destinationAccountId;
     }
-    public void setDestinationAccountId(Integer destinationAccountId) {
+    public void setDestinationAccountId(UUID destinationAccountId) {
         this.destinationAccountId = destinationAccountId;
     }
-    public Integer getSourceUserId() {
+    public UUID getSourceUserId() {
         return sourceUserId;
     }
-    public void setSourceUserId(Integer sourceUserId) {
+    public void setSourceUserId(UUID sourceUserId) {
         this.sourceUserId = sourceUserId;
     }
-    public Integer getDestinationUserId() {
+    public UUID getDestinationUserId() {
         return destinationUserId;
     }
-    public void setDestinationUserId(Integer destinationUserId) {
+    public void setDestinationUserId(UUID destinationUserId) {
         this.destinationUserId = destinationUserId;
     }
     public BigDecimal getAmount() {
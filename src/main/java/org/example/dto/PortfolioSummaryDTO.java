@@ -1,5 +1,6 @@
 package org.example.dto;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 public class PortfolioSummaryDTO {
     private Integer userId;
@@ -7,6 +8,10 @@ public class PortfolioSummaryDTO {
     private Integer totalAssets;
     private List<AssetDistributionDTO> distribution;
     private List<AssetDistributionDTO> distributionByCategory;
+    private BigDecimal totalMarketValue;
+    private BigDecimal totalUnrealizedPnl;
+    private BigDecimal totalDailyChange;
+    private LocalDateTime pricesUpdatedAt;
     public PortfolioSummaryDTO() {
     }
     public Integer getUserId() {
@@ -39,4 +44,28 @@ public class PortfolioSummaryDTO {
     public void setDistributionByCategory(List<AssetDistributionDTO> distributionByCategory) {
         this.distributionByCategory = distributionByCategory;
     }
+    public BigDecimal getTotalMarketValue() {
+        return totalMarketValue;
+    }
+    public void setTotalMarketValue(BigDecimal totalMarketValue) {
+        this.totalMarketValue = totalMarketValue;
+    }
+    public BigDecimal getTotalUnrealizedPnl() {
+        return totalUnrealizedPnl;
+    }
+    public void setTotalUnrealizedPnl(BigDecimal totalUnrealizedPnl) {
+        this.totalUnrealizedPnl = totalUnrealizedPnl;
+    }
+    public BigDecimal getTotalDailyChange() {
+        return totalDailyChange;
+    }
+    public void setTotalDailyChange(BigDecimal totalDailyChange) {
+        this.totalDailyChange = totalDailyChange;
+    }
+    public LocalDateTime getPricesUpdatedAt() {
+        return pricesUpdatedAt;
+    }
+    public void setPricesUpdatedAt(LocalDateTime pricesUpdatedAt) {
+        this.pricesUpdatedAt = pricesUpdatedAt;
+    }
 }
\ No newline at end of file
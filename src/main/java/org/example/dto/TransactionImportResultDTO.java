@@ -0,0 +1,51 @@
+package org.example.dto;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+public class TransactionImportResultDTO {
+    private Integer importedCount;
+    private Integer batchCount;
+    private Long elapsedMillis;
+    private Long rowsPerSecond;
+    private Map<UUID, BigDecimal> balances;
+    public TransactionImportResultDTO() {
+    }
+    public TransactionImportResultDTO(Integer importedCount, Integer batchCount, Long elapsedMillis,
+                                      Map<UUID, BigDecimal> balances) {
+        this.importedCount = importedCount;
+        this.batchCount = batchCount;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis > 0 ? importedCount * 1000L / elapsedMillis : importedCount;
+        this.balances = balances;
+    }
+    public Integer getImportedCount() {
+        return importedCount;
+    }
+    public void setImportedCount(Integer importedCount) {
+        this.importedCount = importedCount;
+    }
+    public Integer getBatchCount() {
+        return batchCount;
+    }
+    public void setBatchCount(Integer batchCount) {
+        this.batchCount = batchCount;
+    }
+    public Long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public void setElapsedMillis(Long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    public Long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    public void setRowsPerSecond(Long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+    public Map<UUID, BigDecimal> getBalances() {
+        return balances;
+    }
+    public void setBalances(Map<UUID, BigDecimal> balances) {
+        this.balances = balances;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.dto;
+import org.example.model.TransactionTypeEnum;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+public class TransactionSummaryDTO {
+    private UUID transactionId;
+    private BigDecimal amount;
+    private TransactionTypeEnum transactionType;
+    private String description;
+    private LocalDate transactionDate;
+    private LocalDateTime createdAt;
+    public TransactionSummaryDTO() {
+    }
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+    public void setTransactionId(UUID transactionId) {
+        this.transactionId = transactionId;
+    }
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    public TransactionTypeEnum getTransactionType() {
+        return transactionType;
+    }
+    public void setTransactionType(TransactionTypeEnum transactionType) {
+        this.transactionType = transactionType;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+    public void setTransactionDate(LocalDate transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.dto;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 public class UserResponseDTO {
     private Integer userId;
     private String firstName;
@@ -13,6 +14,8 @@ public class UserResponseDTO {
     private Boolean isActive;
     private Integer planId;
     private LocalDateTime createdAt;
+    private UUID provisioningJobId;
+    private String provisioningStatus;
     public UserResponseDTO() {
     }
     public Integer getUserId() {
@@ -81,4 +84,16 @@ public class UserResponseDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+    public UUID getProvisioningJobId() {
+        return provisioningJobId;
+    }
+    public void setProvisioningJobId(UUID provisioningJobId) {
+        this.provisioningJobId = provisioningJobId;
+    }
+    public String getProvisioningStatus() {
+        return provisioningStatus;
+    }
+    public void setProvisioningStatus(String provisioningStatus) {
+        this.provisioningStatus = provisioningStatus;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.model;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+    @Id
+    @Column(name = "scope", nullable = false, length = 50)
+    private String scope;
+    @Id
+    @Column(name = "owner_id", nullable = false, length = 64)
+    private String ownerId;
+    @Id
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String key;
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    @Column(name = "status_code", nullable = false)
+    private Integer statusCode;
+    @Column(name = "response_body", nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    public IdempotencyKey() {
+    }
+    public IdempotencyKey(String scope, String ownerId, String key, String requestHash, Integer statusCode,
+                          String responseBody) {
+        this.scope = scope;
+        this.ownerId = ownerId;
+        this.key = key;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.createdAt = LocalDateTime.now();
+    }
+    public String getScope() {
+        return scope;
+    }
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+    public String getOwnerId() {
+        return ownerId;
+    }
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+    public String getKey() {
+        return key;
+    }
+    public void setKey(String key) {
+        this.key = key;
+    }
+    public String getRequestHash() {
+        return requestHash;
+    }
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+    public String getResponseBody() {
+        return responseBody;
+    }
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
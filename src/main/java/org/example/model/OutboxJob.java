@@ -0,0 +1,91 @@
+package org.example.model;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+@Entity
+@Table(name = "outbox_jobs")
+public class OutboxJob {
+    @Id
+    @Column(name = "job_id", columnDefinition = "uuid")
+    private UUID jobId;
+    @Column(name = "job_type", nullable = false, length = 50)
+    private String jobType;
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    public OutboxJob() {
+    }
+    public UUID getJobId() {
+        return jobId;
+    }
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+    public String getJobType() {
+        return jobType;
+    }
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+    public String getPayload() {
+        return payload;
+    }
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    public String getStatus() {
+        return status;
+    }
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    public Integer getAttempts() {
+        return attempts;
+    }
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    public Integer getMaxAttempts() {
+        return maxAttempts;
+    }
+    public void setMaxAttempts(Integer maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+    public String getLastError() {
+        return lastError;
+    }
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.model;
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "position_lot", schema = "investments")
+public class PositionLot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Integer id;
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+    @Column(name = "asset_id", nullable = false)
+    private Integer assetId;
+    @Column(name = "transaction_id", nullable = false)
+    private Integer transactionId;
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+    @Column(name = "quantity", nullable = false, precision = 18, scale = 8)
+    private BigDecimal quantity;
+    @Column(name = "remaining_quantity", nullable = false, precision = 18, scale = 8)
+    private BigDecimal remainingQuantity;
+    @Column(name = "unit_cost", nullable = false, precision = 18, scale = 8)
+    private BigDecimal unitCost;
+    public PositionLot() {
+    }
+    public PositionLot(Integer userId, Integer assetId, Integer transactionId, LocalDateTime acquiredAt,
+                       BigDecimal quantity, BigDecimal unitCost) {
+        this.userId = userId;
+        this.assetId = assetId;
+        this.transactionId = transactionId;
+        this.acquiredAt = acquiredAt;
+        this.quantity = quantity;
+        this.remainingQuantity = quantity;
+        this.unitCost = unitCost;
+    }
+    public Integer getId() {
+        return id;
+    }
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    public Integer getUserId() {
+        return userId;
+    }
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+    public Integer getAssetId() {
+        return assetId;
+    }
+    public void setAssetId(Integer assetId) {
+        this.assetId = assetId;
+    }
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+    public void setAcquiredAt(LocalDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+    public BigDecimal getRemainingQuantity() {
+        return remainingQuantity;
+    }
+    public void setRemainingQuantity(BigDecimal remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+    public BigDecimal getUnitCost() {
+        return unitCost;
+    }
+    public void setUnitCost(BigDecimal unitCost) {
+        this.unitCost = unitCost;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.model;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+/**
+ * Última cotação conhecida de um ativo, identificado pelo {@code api_identifier} usado no feed de preços.
+ */
+public class PriceQuote {
+    private final String apiIdentifier;
+    private final BigDecimal price;
+    private final BigDecimal previousClose;
+    private final LocalDateTime quotedAt;
+    public PriceQuote(String apiIdentifier, BigDecimal price, BigDecimal previousClose, LocalDateTime quotedAt) {
+        this.apiIdentifier = apiIdentifier;
+        this.price = price;
+        this.previousClose = previousClose;
+        this.quotedAt = quotedAt;
+    }
+    public String getApiIdentifier() {
+        return apiIdentifier;
+    }
+    public BigDecimal getPrice() {
+        return price;
+    }
+    public BigDecimal getPreviousClose() {
+        return previousClose;
+    }
+    public LocalDateTime getQuotedAt() {
+        return quotedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.model;
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+@Entity
+@Table(name = "realized_pnl", schema = "investments")
+public class RealizedPnl {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+    @Id
+    @Column(name = "asset_id", nullable = false)
+    private Integer assetId;
+    @Id
+    @Column(name = "cost_method", nullable = false, length = 10)
+    private String costMethod;
+    @Column(name = "quantity_sold", nullable = false, precision = 20, scale = 8)
+    private BigDecimal quantitySold;
+    @Column(name = "proceeds", nullable = false, precision = 20, scale = 8)
+    private BigDecimal proceeds;
+    @Column(name = "cost_basis", nullable = false, precision = 20, scale = 8)
+    private BigDecimal costBasis;
+    @Column(name = "realized_pnl", nullable = false, precision = 20, scale = 8)
+    private BigDecimal realizedPnl;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    public RealizedPnl() {
+    }
+    public RealizedPnl(Integer userId, Integer assetId, String costMethod) {
+        this.userId = userId;
+        this.assetId = assetId;
+        this.costMethod = costMethod;
+        this.quantitySold = BigDecimal.ZERO;
+        this.proceeds = BigDecimal.ZERO;
+        this.costBasis = BigDecimal.ZERO;
+        this.realizedPnl = BigDecimal.ZERO;
+    }
+    public Integer getUserId() {
+        return userId;
+    }
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+    public Integer getAssetId() {
+        return assetId;
+    }
+    public void setAssetId(Integer assetId) {
+        this.assetId = assetId;
+    }
+    public String getCostMethod() {
+        return costMethod;
+    }
+    public void setCostMethod(String costMethod) {
+        this.costMethod = costMethod;
+    }
+    public BigDecimal getQuantitySold() {
+        return quantitySold;
+    }
+    public void setQuantitySold(BigDecimal quantitySold) {
+        this.quantitySold = quantitySold;
+    }
+    public BigDecimal getProceeds() {
+        return proceeds;
+    }
+    public void setProceeds(BigDecimal proceeds) {
+        this.proceeds = proceeds;
+    }
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+    public BigDecimal getRealizedPnl() {
+        return realizedPnl;
+    }
+    public void setRealizedPnl(BigDecimal realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
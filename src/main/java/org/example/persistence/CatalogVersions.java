@@ -0,0 +1,56 @@
+package org.example.persistence;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Contador de versão por catálogo de dados de referência (planos, ativos, categorias). Os services
+ * incrementam a versão a cada escrita, depois do commit, e quem guarda algo derivado do catálogo
+ * (ETags, caches em memória) compara a versão para saber se ainda vale, ou se inscreve com
+ * {@link #addListener} para ser avisado a cada mudança.
+ */
+public class CatalogVersions {
+    public static final String PLANS = "plans";
+    public static final String ASSETS = "assets";
+    public static final String ASSET_CATEGORIES = "asset-categories";
+    public static final String TRANSACTION_CATEGORIES = "transaction-categories";
+    public static final String STATIC = "static";
+    private static final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private static final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public static long current(String catalog) {
+        return counter(catalog).get();
+    }
+
+    public static void bump(String catalog) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null && unitOfWork.isInTransaction()) {
+            unitOfWork.afterCommit(() -> increment(catalog));
+        } else {
+            increment(catalog);
+        }
+    }
+
+    public static void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    private static void increment(String catalog) {
+        counter(catalog).incrementAndGet();
+        for (Consumer<String> listener : listeners) {
+            listener.accept(catalog);
+        }
+    }
+
+    private static AtomicLong counter(String catalog) {
+        return versions.computeIfAbsent(catalog, key -> new AtomicLong());
+    }
+}
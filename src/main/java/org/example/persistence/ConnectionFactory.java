@@ -5,85 +5,152 @@ import org.example.config.SupabaseConfig;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public class ConnectionFactory {
     private static final ThreadLocal<String> currentUserToken = new ThreadLocal<>();
     
-    public static void setUserToken(String jwtToken) {
+    /**
+     * Associa o token JWT do usuário às conexões abertas pela thread atual até o {@code close()} do escopo,
+     * que restaura o valor anterior. Usado com try-with-resources em volta da requisição: o token nunca
+     * sobra para a próxima tarefa da mesma thread, seja ela de plataforma (pool do Tomcat) ou virtual.
+     */
+    public static UserTokenScope openUserTokenScope(String jwtToken) {
+        String previous = currentUserToken.get();
         currentUserToken.set(jwtToken);
-    }
-    
-    public static void clearUserToken() {
-        currentUserToken.remove();
+        return () -> {
+            if (previous == null) {
+                currentUserToken.remove();
+            } else {
+                currentUserToken.set(previous);
+            }
+        };
     }
     
     public static String getUserToken() {
         return currentUserToken.get();
     }
     
+    @FunctionalInterface
+    public interface UserTokenScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+    
+    private static volatile ConnectionPool pool;
+    
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (ConnectionFactory.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName("org.postgresql.Driver");
+                    } catch (ClassNotFoundException e) {
+                        throw new RuntimeException("O Driver do PostgreSQL não foi encontrado! Verifique os Artifacts.", e);
+                    }
+                    current = new ConnectionPool(
+                        SupabaseConfig.getDatabaseUrl(),
+                        SupabaseConfig.getDatabaseUser(),
+                        SupabaseConfig.getDatabasePassword(),
+                        SupabaseConfig.getPoolMinSize(),
+                        SupabaseConfig.getPoolMaxSize(),
+                        SupabaseConfig.getPoolIdleTimeoutMs(),
+                        SupabaseConfig.getPoolAcquireTimeoutMs(),
+                        SupabaseConfig.getPoolLeakDetectionMs(),
+                        SupabaseConfig.getPoolValidationTimeoutSeconds(),
+                        SupabaseConfig.getStatementCacheSize()
+                    );
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    public static void warmUp() {
+        getPool().fillToMinimum();
+    }
+    
+    public static PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+    
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+    
+    /**
+     * Conexão em autocommit. Atrás do pooler em modo transação cada comando pode ir para outro backend,
+     * então claims de sessão não valem: elas só são aplicadas nas transações abertas sobre a conexão
+     * ({@link #applyTransactionClaims}), e comandos fora de transação rodam sem claims de RLS.
+     */
     public static Connection getConnection() throws SQLException {
+        return borrow(false);
+    }
+    
+    public static Connection getTransactionalConnection() throws SQLException {
+        return borrow(true);
+    }
+    
+    /**
+     * Aplica as claims do token atual como locais à transação que acabou de ser aberta numa conexão obtida
+     * por {@link #getConnection()}. Só é necessário atrás do pooler em modo transação; nos demais casos a
+     * conexão já carrega as claims de sessão.
+     */
+    static void applyTransactionClaims(Connection conn) throws SQLException {
+        String token = currentUserToken.get();
+        if (SupabaseConfig.isTransactionPooler() && token != null && !token.trim().isEmpty()) {
+            RlsSessionContext.apply(conn, token, true);
+        }
+    }
+    
+    private static Connection borrow(boolean transactional) throws SQLException {
+        ConnectionPool current = getPool();
+        Connection conn;
+        try {
+            conn = current.borrow();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao conectar ao banco de dados: " + e.getMessage(), e);
+        }
         try {
-            Class.forName("org.postgresql.Driver");
-            
-            String url = SupabaseConfig.getDatabaseUrl();
-            String user = SupabaseConfig.getDatabaseUser();
-            String password = SupabaseConfig.getDatabasePassword();
-            
-            Connection conn = DriverManager.getConnection(url, user, password);
-            
+            if (transactional) {
+                conn.setAutoCommit(false);
+            }
             String token = currentUserToken.get();
             if (token != null && !token.trim().isEmpty()) {
-                configureRLSSession(conn, token);
+                if (transactional) {
+                    RlsSessionContext.apply(conn, token, true);
+                } else if (!SupabaseConfig.isTransactionPooler()) {
+                    RlsSessionContext.apply(conn, token, false);
+                    current.resetOnReturn(conn, RlsSessionContext.RESET_SQL);
+                }
             }
-            
             return conn;
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("O Driver do PostgreSQL não foi encontrado! Verifique os Artifacts.", e);
         } catch (SQLException e) {
+            conn.close();
             throw new RuntimeException("Erro ao conectar ao banco de dados: " + e.getMessage(), e);
         }
     }
     
-    private static void configureRLSSession(Connection conn, String jwtToken) throws SQLException {
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(String.format("SET request.jwt.claim.sub = '%s'", extractUserIdFromToken(jwtToken)));
-            stmt.execute(String.format("SET request.jwt.claims = '%s'", jwtToken));
-        }
-    }
-    
-    private static String extractUserIdFromToken(String jwtToken) {
-        try {
-            String[] parts = jwtToken.split("\\.");
-            if (parts.length < 2) {
-                return "";
-            }
-            
-            String payload = new String(java.util.Base64.getUrlDecoder().decode(parts[1]));
-            com.google.gson.JsonObject jsonPayload = new com.google.gson.Gson().fromJson(payload, com.google.gson.JsonObject.class);
-            
-            if (jsonPayload.has("sub")) {
-                return jsonPayload.get("sub").getAsString();
-            }
-            
-            return "";
-        } catch (Exception e) {
-            System.err.println("Erro ao extrair userId do token JWT: " + e.getMessage());
-            return "";
+    /**
+     * Conexão fora do pool, para quem a segura indefinidamente (ex.: LISTEN do PostgreSQL) sem ocupar
+     * uma vaga do pool nem disparar a detecção de vazamento. Usa a URL direta (ou do pooler em modo
+     * sessão), já que o modo transação não mantém a sessão. Quem abre é responsável por fechar.
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        String url = SupabaseConfig.getDirectDatabaseUrl();
+        if (url == null) {
+            throw new SQLException("DATABASE_DIRECT_URL não configurado e DATABASE_URL usa o pooler em modo transação");
         }
+        getPool();
+        return DriverManager.getConnection(url, SupabaseConfig.getDatabaseUser(), SupabaseConfig.getDatabasePassword());
     }
     
     public static Connection getAdminConnection() throws SQLException {
-        try {
-            Class.forName("org.postgresql.Driver");
-            
-            String url = SupabaseConfig.getDatabaseUrl();
-            String user = SupabaseConfig.getDatabaseUser();
-            String password = SupabaseConfig.getDatabasePassword();
-            
-            return DriverManager.getConnection(url, user, password);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("O Driver do PostgreSQL não foi encontrado!", e);
-        }
+        return getPool().borrow();
     }
 }
@@ -0,0 +1,372 @@
+package org.example.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool JDBC limitado usado por {@link ConnectionFactory}.
+ * As conexões entregues são proxies: {@code close()} devolve a conexão física ao pool
+ * em vez de fechá-la. Cada empréstimo recebe um proxy novo, então quem guardou a conexão
+ * depois do {@code close()} não alcança o próximo usuário dela. Uma tarefa de manutenção
+ * remove conexões ociosas além do mínimo, repõe o mínimo e registra vazamentos (conexões
+ * emprestadas por mais tempo que o limite).
+ */
+public class ConnectionPool {
+    private static final long ALIVE_BYPASS_WINDOW_MS = 500;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long acquireTimeoutMs;
+    private final long leakDetectionThresholdMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsClosed = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalAcquireNanos = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMs, long acquireTimeoutMs, long leakDetectionThresholdMs,
+                          int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do pool deve ser maior que zero");
+        }
+        if (minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tamanho mínimo do pool deve estar entre 0 e " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cofry-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMs, 30_000) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool de conexões encerrado");
+        }
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.incrementAndGet();
+                throw new SQLTransientConnectionException(String.format(
+                    "Tempo esgotado aguardando conexão do pool após %d ms (ativas: %d, máximo: %d)",
+                    acquireTimeoutMs, borrowed.size(), maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            Connection proxy = pooled.markBorrowed(
+                leakDetectionThresholdMs > 0 ? new Throwable("Conexão emprestada aqui") : null);
+            borrowed.add(pooled);
+            borrowCount.incrementAndGet();
+            totalAcquireNanos.addAndGet(System.nanoTime() - start);
+            return proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pooled.lastReturnedAt < ALIVE_BYPASS_WINDOW_MS || isAlive(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            closePhysical(pooled);
+        }
+        return null;
+    }
+
+    private boolean isAlive(PooledConnection pooled) {
+        try {
+            return pooled.raw.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        return raw;
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+        try {
+            if (closed || pooled.raw.isClosed()) {
+                closePhysical(pooled);
+                return;
+            }
+            resetState(pooled);
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            System.err.println("Descartando conexão que falhou ao ser devolvida ao pool: " + e.getMessage());
+            closePhysical(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Registra um comando a ser executado quando a conexão voltar ao pool, para desfazer
+     * estado de sessão (ex.: variáveis de RLS) antes que outra requisição a reutilize.
+     */
+    public void resetOnReturn(Connection conn, String sql) {
+        if (Proxy.isProxyClass(conn.getClass()) && Proxy.getInvocationHandler(conn) instanceof Lease) {
+            Lease lease = (Lease) Proxy.getInvocationHandler(conn);
+            if (!lease.closed.get()) {
+                lease.pooled.resetSql = sql;
+            }
+        }
+    }
+
+    private void resetState(PooledConnection pooled) throws SQLException {
+        Connection raw = pooled.raw;
+        if (!raw.getAutoCommit()) {
+            raw.rollback();
+            raw.setAutoCommit(true);
+        }
+        if (raw.isReadOnly()) {
+            raw.setReadOnly(false);
+        }
+        if (pooled.resetSql != null) {
+            try (Statement stmt = raw.createStatement()) {
+                stmt.execute(pooled.resetSql);
+            }
+            pooled.resetSql = null;
+        }
+        raw.clearWarnings();
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        try {
+            if (pooled.statementCache != null) {
+                pooled.statementCache.closeAll();
+            }
+            pooled.raw.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar conexão física: " + e.getMessage());
+        } finally {
+            totalConnections.decrementAndGet();
+            connectionsClosed.incrementAndGet();
+        }
+    }
+
+    public void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = new PooledConnection(openPhysical());
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Erro ao abrir conexão mínima do pool: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && totalConnections.get() > minSize) {
+                PooledConnection pooled = iterator.next();
+                if (now - pooled.lastReturnedAt > idleTimeoutMs && idle.remove(pooled)) {
+                    closePhysical(pooled);
+                }
+            }
+            if (leakDetectionThresholdMs > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMs) {
+                        pooled.leakReported = true;
+                        leaksDetected.incrementAndGet();
+                        System.err.println("Possível vazamento de conexão: emprestada há "
+                            + (now - pooled.borrowedAt) + " ms sem ser devolvida");
+                        if (pooled.borrowSite != null) {
+                            pooled.borrowSite.printStackTrace();
+                        }
+                    }
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            System.err.println("Erro na manutenção do pool de conexões: " + e.getMessage());
+        }
+    }
+
+    public PoolStats getStats() {
+        long borrows = borrowCount.get();
+        return new PoolStats(
+            minSize,
+            maxSize,
+            totalConnections.get(),
+            borrowed.size(),
+            idle.size(),
+            waiting.get(),
+            connectionsCreated.get(),
+            connectionsClosed.get(),
+            borrows,
+            borrows == 0 ? 0.0 : totalAcquireNanos.get() / (double) borrows / 1_000_000.0,
+            acquireTimeouts.get(),
+            validationFailures.get(),
+            leaksDetected.get(),
+            statementCacheHits.get(),
+            statementCacheMisses.get(),
+            statementCacheEvictions.get()
+        );
+    }
+
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        List<PooledConnection> drained = new ArrayList<>();
+        idle.drainTo(drained);
+        for (PooledConnection pooled : drained) {
+            closePhysical(pooled);
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection raw;
+        private volatile Connection currentProxy;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        private volatile String resetSql;
+        private final StatementCache statementCache;
+
+        private PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statementCache = statementCacheSize > 0
+                ? new StatementCache(raw, () -> currentProxy, statementCacheSize,
+                                     statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                : null;
+        }
+
+        private Connection markBorrowed(Throwable site) {
+            this.borrowedAt = System.currentTimeMillis();
+            this.borrowSite = site;
+            this.leakReported = false;
+            this.currentProxy = new Lease(this).proxy;
+            return currentProxy;
+        }
+    }
+
+    /**
+     * Um empréstimo da conexão física: o proxy e o indicador de fechado valem só para ele.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.raw.isClosed();
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "PooledConnection[" + pooled.raw + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection is closed");
+            }
+            if (pooled.statementCache != null && "prepareStatement".equals(method.getName()) && args.length == 1) {
+                return pooled.statementCache.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,32 +1,23 @@
 package org.example.persistence;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
 public class JdbcUtil {
+    private static final int MAX_RETRY_ATTEMPTS = 5;
+    private static final long RETRY_BASE_BACKOFF_MS = 10;
     public static <T> T executeInTransaction(ConnectionOperation<T> operation) {
-        Connection conn = null;
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        boolean scoped = unitOfWork == null;
+        if (scoped) {
+            unitOfWork = UnitOfWork.beginTransactionScoped();
+        }
         try {
-            conn = ConnectionFactory.getConnection();
-            conn.setAutoCommit(false);
-            T result = operation.execute(conn);
-            conn.commit();
-            return result;
+            return unitOfWork.inTransaction(operation);
         } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException rollbackEx) {
-                    throw new RuntimeException("Erro ao fazer rollback: " + rollbackEx.getMessage(), rollbackEx);
-                }
-            }
             throw new RuntimeException("Erro ao executar transação: " + e.getMessage(), e);
         } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    throw new RuntimeException("Erro ao fechar conexão: " + e.getMessage(), e);
-                }
+            if (scoped) {
+                unitOfWork.end();
             }
         }
     }
@@ -36,7 +27,58 @@ public class JdbcUtil {
             return null;
         });
     }
+    /**
+     * Igual a {@link #executeInTransaction(ConnectionOperation)}, mas repete a transação inteira quando o
+     * banco a aborta por deadlock (40P01) ou falha de serialização (40001), com backoff exponencial e jitter.
+     * Dentro de uma transação já aberta não há como repetir só o trecho interno, então o erro é propagado.
+     */
+    public static <T> T executeInTransactionWithRetry(ConnectionOperation<T> operation) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        boolean nested = unitOfWork != null && unitOfWork.isInTransaction();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return executeInTransaction(operation);
+            } catch (RuntimeException e) {
+                if (nested || attempt >= MAX_RETRY_ATTEMPTS || !isRetryable(e)) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+    /**
+     * Indica se o erro (ou uma de suas causas) é deadlock (40P01) ou falha de serialização (40001),
+     * os casos que {@link #executeInTransactionWithRetry} repete.
+     */
+    public static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if ("40001".equals(sqlState) || "40P01".equals(sqlState)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    private static void backoff(int attempt) {
+        long ceiling = RETRY_BASE_BACKOFF_MS << attempt;
+        try {
+            Thread.sleep(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Transação interrompida durante nova tentativa", e);
+        }
+    }
     public static <T> T executeWithoutTransaction(ConnectionOperation<T> operation) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            try {
+                return operation.execute(unitOfWork.connection());
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao executar operação: " + e.getMessage(), e);
+            }
+        }
         try (Connection conn = ConnectionFactory.getConnection()) {
             return operation.execute(conn);
         } catch (SQLException e) {
@@ -51,4 +93,4 @@ public class JdbcUtil {
     public interface ConnectionVoidOperation {
         void execute(Connection conn) throws SQLException;
     }
-}
\ No newline at end of file
+}
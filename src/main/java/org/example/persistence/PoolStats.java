@@ -0,0 +1,114 @@
+package org.example.persistence;
+
+public class PoolStats {
+    private final int minSize;
+    private final int maxSize;
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int threadsAwaitingConnection;
+    private final long connectionsCreated;
+    private final long connectionsClosed;
+    private final long borrowCount;
+    private final double averageAcquireMillis;
+    private final long acquireTimeouts;
+    private final long validationFailures;
+    private final long leaksDetected;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+    private final double statementCacheHitRatio;
+
+    public PoolStats(int minSize, int maxSize, int totalConnections, int activeConnections, int idleConnections,
+                     int threadsAwaitingConnection, long connectionsCreated, long connectionsClosed,
+                     long borrowCount, double averageAcquireMillis, long acquireTimeouts,
+                     long validationFailures, long leaksDetected, long statementCacheHits,
+                     long statementCacheMisses, long statementCacheEvictions) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsClosed = connectionsClosed;
+        this.borrowCount = borrowCount;
+        this.averageAcquireMillis = averageAcquireMillis;
+        this.acquireTimeouts = acquireTimeouts;
+        this.validationFailures = validationFailures;
+        this.leaksDetected = leaksDetected;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+        long lookups = statementCacheHits + statementCacheMisses;
+        this.statementCacheHitRatio = lookups == 0 ? 0.0 : statementCacheHits / (double) lookups;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getConnectionsClosed() {
+        return connectionsClosed;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public double getAverageAcquireMillis() {
+        return averageAcquireMillis;
+    }
+
+    public long getAcquireTimeouts() {
+        return acquireTimeouts;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    public double getStatementCacheHitRatio() {
+        return statementCacheHitRatio;
+    }
+}
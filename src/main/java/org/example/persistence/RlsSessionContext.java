@@ -0,0 +1,143 @@
+package org.example.persistence;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.example.config.SupabaseConfig;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aplica as claims do JWT do usuário (usadas pelas políticas de RLS do Supabase) numa conexão
+ * com um único round trip via {@code set_config}. Dentro de uma transação o valor é local
+ * ({@code is_local = true}) e some no commit/rollback; fora dela é de sessão e precisa ser
+ * limpo quando a conexão volta ao pool ({@link #RESET_SQL}). Atrás do pooler em modo transação
+ * só o valor local é usado (ver {@link ConnectionFactory#getConnection()}).
+ * <p>
+ * Só valem tokens assinados com o segredo JWT do projeto (HS256, {@code SUPABASE_JWT_SECRET}) e ainda
+ * dentro do {@code exp}; qualquer outro token (inclusive de projetos com chaves assimétricas) não aplica
+ * claim nenhuma.
+ */
+public class RlsSessionContext {
+    private static final int MAX_CACHED_TOKENS = 1024;
+    private static final String APPLY_SQL =
+        "SELECT set_config('request.jwt.claim.sub', ?, ?), set_config('request.jwt.claims', ?, ?)";
+    static final String RESET_SQL =
+        "SELECT set_config('request.jwt.claim.sub', '', false), set_config('request.jwt.claims', '', false)";
+
+    private static final byte[] JWT_SECRET = SupabaseConfig.getSupabaseJwtSecret().getBytes(StandardCharsets.UTF_8);
+
+    static {
+        if (JWT_SECRET.length == 0) {
+            System.err.println("SUPABASE_JWT_SECRET não configurado: tokens Bearer não podem ser verificados e as " +
+                "requisições seguem sem claims de RLS");
+        }
+    }
+
+    private static final Map<String, Claims> claimsByToken = Collections.synchronizedMap(
+        new LinkedHashMap<String, Claims>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > MAX_CACHED_TOKENS;
+            }
+        });
+
+    public static void apply(Connection conn, String jwtToken, boolean transactionScoped) throws SQLException {
+        Claims claims = decode(jwtToken);
+        try (PreparedStatement stmt = conn.prepareStatement(APPLY_SQL)) {
+            stmt.setString(1, claims.sub);
+            stmt.setBoolean(2, transactionScoped);
+            stmt.setString(3, claims.json);
+            stmt.setBoolean(4, transactionScoped);
+            stmt.execute();
+        }
+    }
+
+    /**
+     * Indica se o token tem assinatura válida e não expirou.
+     */
+    public static boolean isValid(String jwtToken) {
+        return decode(jwtToken) != Claims.EMPTY;
+    }
+
+    public static String extractUserId(String jwtToken) {
+        return decode(jwtToken).sub;
+    }
+
+    /**
+     * Claim {@code role} de um token válido ({@code authenticated}, {@code service_role}...), ou vazio.
+     */
+    public static String extractRole(String jwtToken) {
+        return jwtToken != null ? decode(jwtToken).role : "";
+    }
+
+    private static Claims decode(String jwtToken) {
+        Claims claims = claimsByToken.get(jwtToken);
+        if (claims == null) {
+            claims = parse(jwtToken);
+            claimsByToken.put(jwtToken, claims);
+        }
+        return claims.expiresAt > System.currentTimeMillis() / 1000 ? claims : Claims.EMPTY;
+    }
+
+    private static Claims parse(String jwtToken) {
+        try {
+            String[] parts = jwtToken.split("\\.");
+            if (parts.length != 3 || JWT_SECRET.length == 0) {
+                return Claims.EMPTY;
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            JsonObject header = JsonParser.parseString(
+                new String(decoder.decode(parts[0]), StandardCharsets.UTF_8)).getAsJsonObject();
+            JsonElement alg = header.get("alg");
+            if (alg == null || !"HS256".equals(alg.getAsString())) {
+                return Claims.EMPTY;
+            }
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(JWT_SECRET, "HmacSHA256"));
+            byte[] expected = mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, decoder.decode(parts[2]))) {
+                return Claims.EMPTY;
+            }
+            String payload = new String(decoder.decode(parts[1]), StandardCharsets.UTF_8);
+            JsonObject jsonPayload = JsonParser.parseString(payload).getAsJsonObject();
+            JsonElement sub = jsonPayload.get("sub");
+            JsonElement role = jsonPayload.get("role");
+            JsonElement exp = jsonPayload.get("exp");
+            if (exp == null || exp.isJsonNull()) {
+                return Claims.EMPTY;
+            }
+            return new Claims(sub != null && !sub.isJsonNull() ? sub.getAsString() : "",
+                role != null && !role.isJsonNull() ? role.getAsString() : "", payload, exp.getAsLong());
+        } catch (Exception e) {
+            System.err.println("Erro ao verificar token JWT: " + e.getMessage());
+            return Claims.EMPTY;
+        }
+    }
+
+    private static final class Claims {
+        private static final Claims EMPTY = new Claims("", "", "", Long.MAX_VALUE);
+
+        private final String sub;
+        private final String role;
+        private final String json;
+        private final long expiresAt;
+
+        private Claims(String sub, String role, String json, long expiresAt) {
+            this.sub = sub;
+            this.role = role;
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
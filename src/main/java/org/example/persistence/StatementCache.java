@@ -0,0 +1,181 @@
+package org.example.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU de {@link PreparedStatement} por conexão física, indexado pelo texto do SQL.
+ * Como os DAOs sempre usam o mesmo SQL, reaproveitar o objeto faz o driver do PostgreSQL
+ * atingir o {@code prepareThreshold} e passar a executar a consulta como statement nomeado
+ * no servidor, sem novo parse/plan. O {@code close()} do statement entregue apenas o devolve
+ * ao cache; o statement físico só é fechado quando sai do LRU ou quando a conexão é fechada.
+ * Cada {@code prepareStatement} recebe um proxy novo, então quem guardou o statement depois do
+ * {@code close()} não alcança o próximo usuário do mesmo SQL.
+ * Atrás do pooler em modo transação os statements nomeados não sobrevivem à troca de backend,
+ * então {@link org.example.config.SupabaseConfig} desliga o cache nesse modo.
+ */
+class StatementCache {
+    private final Connection raw;
+    private final Supplier<Connection> owner;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection raw, Supplier<Connection> owner, int maxSize,
+                   AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.raw = raw;
+        this.owner = owner;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    synchronized PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null) {
+            if (!cached.inUse) {
+                hits.incrementAndGet();
+                cached.inUse = true;
+                return new Lease(cached).proxy;
+            }
+            misses.incrementAndGet();
+            return raw.prepareStatement(sql);
+        }
+        misses.incrementAndGet();
+        cached = new CachedStatement(sql, raw.prepareStatement(sql));
+        cached.inUse = true;
+        statements.put(sql, cached);
+        evictOverflow();
+        return new Lease(cached).proxy;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedStatement>> iterator = statements.entrySet().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next().getValue();
+            iterator.remove();
+            evictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void release(CachedStatement cached) throws SQLException {
+        cached.inUse = false;
+        if (cached.evicted) {
+            cached.statement.close();
+            return;
+        }
+        try {
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+            cached.statement.clearWarnings();
+            // Ajustes de um uso não podem valer para o próximo que pedir o mesmo SQL
+            cached.statement.setFetchSize(0);
+            cached.statement.setMaxRows(0);
+            cached.statement.setQueryTimeout(0);
+        } catch (SQLException e) {
+            statements.remove(cached.sql);
+            closeQuietly(cached.statement);
+            throw e;
+        }
+    }
+
+    synchronized void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cached : all) {
+            closeQuietly(cached.statement);
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar statement em cache: " + e.getMessage());
+        }
+    }
+
+    private static final class CachedStatement {
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Um empréstimo do statement em cache: depois do {@code close()} o proxy recusa qualquer chamada,
+     * mesmo que o statement físico já esteja com outro usuário.
+     */
+    private final class Lease implements InvocationHandler {
+        private final CachedStatement cached;
+        private final PreparedStatement proxy;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(CachedStatement cached) {
+            this.cached = cached;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || cached.statement.isClosed();
+                case "getConnection":
+                    return owner.get();
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "CachedStatement[" + cached.sql + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Statement já foi fechado");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.persistence;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conexão compartilhada por todas as chamadas de DAO de um mesmo escopo (uma requisição HTTP,
+ * via {@code UnitOfWorkFilter}, ou uma chamada isolada de {@link JdbcUtil#executeInTransaction}).
+ * A conexão só é emprestada do pool no primeiro acesso. Transações aninhadas se juntam à externa:
+ * apenas a mais externa faz commit, e uma falha interna força o rollback de todo o bloco.
+ */
+public class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    private final boolean transactionScoped;
+    private Connection connection;
+    private int transactionDepth;
+    private boolean rollbackOnly;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    private UnitOfWork(boolean transactionScoped) {
+        this.transactionScoped = transactionScoped;
+    }
+
+    public static UnitOfWork current() {
+        return current.get();
+    }
+
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    public static UnitOfWork begin() {
+        return bind(new UnitOfWork(false));
+    }
+
+    static UnitOfWork beginTransactionScoped() {
+        return bind(new UnitOfWork(true));
+    }
+
+    private static UnitOfWork bind(UnitOfWork unitOfWork) {
+        if (current.get() != null) {
+            throw new IllegalStateException("Já existe uma unidade de trabalho ativa nesta thread");
+        }
+        current.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    public Connection connection() throws SQLException {
+        if (connection == null) {
+            connection = transactionScoped
+                ? ConnectionFactory.getTransactionalConnection()
+                : ConnectionFactory.getConnection();
+        }
+        return connection;
+    }
+
+    public boolean isInTransaction() {
+        return transactionDepth > 0;
+    }
+
+    /**
+     * Agenda uma ação para depois do commit da transação em andamento (descartada se houver rollback);
+     * fora de transação roda na hora. Serve para invalidar caches só quando a escrita já está visível.
+     */
+    public void afterCommit(Runnable action) {
+        if (transactionDepth == 0) {
+            action.run();
+            return;
+        }
+        afterCommit.add(action);
+    }
+
+    public <T> T inTransaction(JdbcUtil.ConnectionOperation<T> operation) throws SQLException {
+        Connection conn = connection();
+        boolean outermost = transactionDepth == 0;
+        if (outermost) {
+            if (conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+                ConnectionFactory.applyTransactionClaims(conn);
+            }
+            rollbackOnly = false;
+        }
+        transactionDepth++;
+        T result;
+        try {
+            result = operation.execute(conn);
+        } catch (SQLException | RuntimeException | Error e) {
+            transactionDepth--;
+            if (outermost) {
+                rollback(conn, e);
+            } else {
+                rollbackOnly = true;
+            }
+            throw e;
+        }
+        transactionDepth--;
+        if (outermost) {
+            if (rollbackOnly) {
+                IllegalStateException failure = new IllegalStateException(
+                    "Transação marcada para rollback por uma operação interna que falhou");
+                rollback(conn, failure);
+                throw failure;
+            }
+            conn.commit();
+            if (!transactionScoped) {
+                conn.setAutoCommit(true);
+            }
+            runAfterCommit();
+        }
+        return result;
+    }
+
+    private void runAfterCommit() {
+        List<Runnable> actions = new ArrayList<>(afterCommit);
+        afterCommit.clear();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Erro em ação pós-commit: " + e.getMessage());
+            }
+        }
+    }
+
+    private void rollback(Connection conn, Throwable cause) {
+        afterCommit.clear();
+        try {
+            conn.rollback();
+            if (!transactionScoped) {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException rollbackEx) {
+            cause.addSuppressed(rollbackEx);
+        }
+    }
+
+    public void end() {
+        current.remove();
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao descartar transação pendente: " + e.getMessage());
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao devolver conexão ao pool: " + e.getMessage());
+            }
+            connection = null;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.example.model.Account;
 import org.example.model.AccountTypeEnum;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 public class AccountService {
     private final AccountDAO accountDAO;
     private final UserDAO userDAO;
@@ -75,6 +77,18 @@ public class AccountService {
         return accountDAO.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Conta não encontrada com número: " + accountNumber));
     }
+    public Optional<Account> findAccountByNumber(String accountNumber) {
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Número da conta não pode ser nulo ou vazio");
+        }
+        return accountDAO.findByAccountNumber(accountNumber);
+    }
+    public Optional<Account> findFirstActiveAccount(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        return accountDAO.findFirstActiveByUserId(userId);
+    }
     public List<Account> getAccountsByType(AccountTypeEnum accountType) {
         if (accountType == null) {
             throw new IllegalArgumentException("Tipo da conta não pode ser nulo");
@@ -1,6 +1,7 @@
 package org.example.service;
 import org.example.dao.AssetCategoryDAO;
 import org.example.model.AssetCategory;
+import org.example.persistence.CatalogVersions;
 import java.util.List;
 import java.util.Optional;
 public class AssetCategoryService {
@@ -19,7 +20,9 @@ public class AssetCategoryService {
         if (existing.isPresent()) {
             throw new IllegalArgumentException("Já existe uma categoria com o nome: " + category.getName());
         }
-        return assetCategoryDAO.save(category);
+        AssetCategory created = assetCategoryDAO.save(category);
+        CatalogVersions.bump(CatalogVersions.ASSET_CATEGORIES);
+        return created;
     }
     public AssetCategory getAssetCategoryById(Integer id) {
         if (id == null) {
@@ -47,7 +50,9 @@ public class AssetCategoryService {
                         }
                     });
         }
-        return assetCategoryDAO.update(category);
+        AssetCategory updated = assetCategoryDAO.update(category);
+        CatalogVersions.bump(CatalogVersions.ASSET_CATEGORIES);
+        return updated;
     }
     public void deleteAssetCategory(Integer id) {
         if (id == null) {
@@ -57,5 +62,6 @@ public class AssetCategoryService {
         if (!deleted) {
             throw new IllegalArgumentException("Categoria não encontrada com ID: " + id);
         }
+        CatalogVersions.bump(CatalogVersions.ASSET_CATEGORIES);
     }
 }
\ No newline at end of file
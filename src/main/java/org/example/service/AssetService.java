@@ -1,6 +1,7 @@
 package org.example.service;
 import org.example.dao.AssetDAO;
 import org.example.model.Asset;
+import org.example.persistence.CatalogVersions;
 import java.util.List;
 import java.util.Optional;
 public class AssetService {
@@ -20,7 +21,9 @@ public class AssetService {
         if (existing.isPresent()) {
             throw new IllegalArgumentException("Já existe um ativo com o ticker: " + asset.getTicker());
         }
-        return assetDAO.save(asset);
+        Asset created = assetDAO.save(asset);
+        CatalogVersions.bump(CatalogVersions.ASSETS);
+        return created;
     }
     public Asset getAssetById(Integer id) {
         if (id == null) {
@@ -67,7 +70,9 @@ public class AssetService {
             }
         }
         validateAsset(asset);
-        return assetDAO.update(asset);
+        Asset updated = assetDAO.update(asset);
+        CatalogVersions.bump(CatalogVersions.ASSETS);
+        return updated;
     }
     public void deleteAsset(Integer id) {
         if (id == null) {
@@ -77,6 +82,7 @@ public class AssetService {
         if (!deleted) {
             throw new IllegalArgumentException("Ativo não encontrado com ID: " + id);
         }
+        CatalogVersions.bump(CatalogVersions.ASSETS);
     }
     private void validateAsset(Asset asset) {
         if (asset.getTicker() == null || asset.getTicker().trim().isEmpty()) {
@@ -2,9 +2,13 @@ package org.example.service;
 import org.example.dao.BoletoDAO;
 import org.example.model.Boleto;
 import org.example.model.BoletoStatus;
+import org.example.persistence.JdbcUtil;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 public class BoletoService {
     private final BoletoDAO boletoDAO;
     private final BoletoCodeService boletoCodeService;
@@ -71,6 +75,12 @@ public class BoletoService {
         boletos.forEach(this::updateStatusBasedOnDueDate);
         return boletos;
     }
+    public boolean hasBoletos(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        return boletoDAO.existsByUserId(userId);
+    }
     public List<Boleto> listBoletosByStatus(BoletoStatus status) {
         if (status == null) {
             throw new IllegalArgumentException("Status não pode ser nulo");
@@ -105,43 +115,48 @@ public class BoletoService {
         boleto.setPaidAt(java.time.LocalDateTime.now());
         return boletoDAO.update(boleto);
     }
-    public PayBoletoResult payBoleto(Long boletoId, Integer accountId, String description) {
+    /**
+     * Paga o boleto numa única transação: marca o boleto como pago (só se ainda não estiver) e lança o
+     * débito e a transação de pagamento pelo {@link LedgerService}, que recusa o débito sem saldo.
+     */
+    public PayBoletoResult payBoleto(Long boletoId, UUID accountId, String description) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Conta é obrigatória para pagar o boleto");
+        }
         Boleto boleto = getBoletoById(boletoId);
         if (boleto.getStatus() == BoletoStatus.PAID) {
             throw new IllegalArgumentException("Boleto já está pago");
         }
-        AccountService accountService = new AccountService();
-        org.example.model.Account account = accountService.getAccountById(accountId);
-        if (account.getBalance().compareTo(boleto.getAmount()) < 0) {
-            java.text.NumberFormat formatter = java.text.NumberFormat.getCurrencyInstance(new java.util.Locale("pt", "BR"));
-            throw new IllegalArgumentException(
-                String.format("Saldo insuficiente. Saldo disponível: %s. Valor necessário: %s",
-                    formatter.format(account.getBalance()),
-                    formatter.format(boleto.getAmount()))
-            );
-        }
-        BigDecimal newBalance = account.getBalance().subtract(boleto.getAmount());
-        account.setBalance(newBalance);
-        accountService.updateAccount(account);
-        TransactionService transactionService = new TransactionService();
-        org.example.model.Transaction transaction = new org.example.model.Transaction();
-        transaction.setSourceAccountId(accountId);
-        transaction.setAmount(boleto.getAmount());
-        transaction.setTransactionType(org.example.model.TransactionTypeEnum.PAYMENT);
-        transaction.setDescription(description != null && !description.trim().isEmpty() 
-            ? description 
-            : "Pagamento de boleto - " + boleto.getTitle());
-        transaction.setTransactionDate(java.time.LocalDate.now());
-        transaction.setIsRecurring(false);
-        org.example.model.Transaction createdTransaction = transactionService.createTransaction(transaction);
-        boleto.setStatus(BoletoStatus.PAID);
-        boleto.setPaidAt(java.time.LocalDateTime.now());
-        Boleto updatedBoleto = boletoDAO.update(boleto);
-        PayBoletoResult result = new PayBoletoResult();
-        result.setBoleto(updatedBoleto);
-        result.setTransaction(createdTransaction);
-        result.setNewBalance(newBalance);
-        return result;
+        LedgerService ledgerService = new LedgerService();
+        return JdbcUtil.executeInTransactionWithRetry(conn -> {
+            Boleto paidBoleto = boletoDAO.markAsPaid(conn, boletoId, java.time.LocalDateTime.now())
+                    .orElseThrow(() -> new IllegalArgumentException("Boleto já está pago"));
+            org.example.model.Transaction transaction = new org.example.model.Transaction();
+            transaction.setSourceAccountId(accountId);
+            transaction.setAmount(paidBoleto.getAmount());
+            transaction.setTransactionType(org.example.model.TransactionTypeEnum.PAYMENT);
+            transaction.setDescription(description != null && !description.trim().isEmpty() 
+                ? description 
+                : "Pagamento de boleto - " + paidBoleto.getTitle());
+            transaction.setTransactionDate(java.time.LocalDate.now());
+            transaction.setIsRecurring(false);
+            Map<UUID, BigDecimal> newBalances;
+            try {
+                newBalances = ledgerService.post(conn, Collections.singletonList(transaction),
+                        LedgerService.balanceDeltas(transaction));
+            } catch (IllegalArgumentException e) {
+                java.text.NumberFormat formatter = java.text.NumberFormat.getCurrencyInstance(new java.util.Locale("pt", "BR"));
+                throw new IllegalArgumentException(
+                    String.format("Saldo insuficiente ou conta inativa. Valor necessário: %s",
+                        formatter.format(paidBoleto.getAmount()))
+                );
+            }
+            PayBoletoResult result = new PayBoletoResult();
+            result.setBoleto(paidBoleto);
+            result.setTransaction(transaction);
+            result.setNewBalance(newBalances.get(accountId));
+            return result;
+        });
     }
     public static class PayBoletoResult {
         private Boleto boleto;
@@ -1,7 +1,6 @@
 package org.example.service;
 import org.example.dao.BudgetDAO;
 import org.example.dao.UserDAO;
-import org.example.dao.TransactionCategoryDAO;
 import org.example.model.Budget;
 import java.math.BigDecimal;
 import java.util.List;
@@ -9,11 +8,9 @@ import java.util.Optional;
 public class BudgetService {
     private final BudgetDAO budgetDAO;
     private final UserDAO userDAO;
-    private final TransactionCategoryDAO categoryDAO;
     public BudgetService() {
         this.budgetDAO = new BudgetDAO();
         this.userDAO = new UserDAO();
-        this.categoryDAO = new TransactionCategoryDAO();
     }
     public Budget createBudget(Budget budget) {
         if (budget == null) {
@@ -28,7 +25,7 @@ public class BudgetService {
         if (budget.getCategoryId() == null) {
             throw new IllegalArgumentException("ID da categoria é obrigatório");
         }
-        categoryDAO.findById(budget.getCategoryId())
+        ReferenceDataCache.findTransactionCategory(budget.getCategoryId())
                 .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com ID: " + budget.getCategoryId()));
         Optional<Budget> existing = budgetDAO.findByUserCategoryAndPeriod(
                 budget.getUserId(),
@@ -94,7 +91,7 @@ public class BudgetService {
                     .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + budget.getUserId()));
         }
         if (budget.getCategoryId() != null) {
-            categoryDAO.findById(budget.getCategoryId())
+            ReferenceDataCache.findTransactionCategory(budget.getCategoryId())
                     .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com ID: " + budget.getCategoryId()));
         }
         return budgetDAO.update(budget);
@@ -4,6 +4,7 @@ import org.example.model.Card;
 import org.example.model.CardTypeEnum;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 public class CardService {
     private final CardDAO cardDAO;
     public CardService() {
@@ -41,6 +42,12 @@ public class CardService {
         }
         return cardDAO.findByUserId(userId);
     }
+    public boolean hasCards(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        return cardDAO.existsByUserId(userId);
+    }
     public List<Card> getCardsByAccountId(Integer accountId) {
         if (accountId == null) {
             throw new IllegalArgumentException("ID da conta não pode ser nulo");
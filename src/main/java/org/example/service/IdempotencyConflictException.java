@@ -0,0 +1,6 @@
+package org.example.service;
+public class IdempotencyConflictException extends IllegalStateException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
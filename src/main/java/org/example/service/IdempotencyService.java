@@ -0,0 +1,123 @@
+package org.example.service;
+import org.example.dao.IdempotencyKeyDAO;
+import org.example.model.IdempotencyKey;
+import org.example.persistence.JdbcUtil;
+import org.example.persistence.UnitOfWork;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+/**
+ * Executa operações financeiras no máximo uma vez por {@code Idempotency-Key}. A chave é reservada
+ * na mesma transação da operação e recebe a resposta antes do commit, então uma nova tentativa
+ * encontra a resposta gravada e a devolve sem tocar nos saldos. As respostas mais recentes também
+ * ficam num cache LRU em memória para que tempestades de retry não cheguem ao banco.
+ * <p>
+ * A chave vale por operação e por dono ({@code ownerId}, a conta de origem ou o usuário da requisição):
+ * clientes diferentes podem gerar a mesma chave sem receber a resposta um do outro. Respostas em cache
+ * expiram junto com as linhas do banco, após {@code IDEMPOTENCY_KEY_RETENTION_DAYS}.
+ */
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String SCOPE_PIX_TRANSFER = "PIX_TRANSFER";
+    public static final String SCOPE_BOLETO_PAYMENT = "BOLETO_PAYMENT";
+    public static final String SCOPE_TRANSACTION_CREATE = "TRANSACTION_CREATE";
+    public static final String SCOPE_TRANSACTION_IMPORT = "TRANSACTION_IMPORT";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_CACHED_RESPONSES = 2048;
+    private static final long RETENTION_DAYS = Long.parseLong(
+            System.getenv().getOrDefault("IDEMPOTENCY_KEY_RETENTION_DAYS", "7"));
+    private static final Map<String, IdempotencyKey> recentResponses = Collections.synchronizedMap(
+        new LinkedHashMap<String, IdempotencyKey>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKey> eldest) {
+                return size() > MAX_CACHED_RESPONSES;
+            }
+        });
+    private final IdempotencyKeyDAO idempotencyKeyDAO;
+    public IdempotencyService() {
+        this.idempotencyKeyDAO = new IdempotencyKeyDAO();
+    }
+    public Result execute(String scope, String owner, String key, String requestFingerprint, int successStatus,
+                          Supplier<String> operation) {
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException(HEADER + " não pode ser vazia");
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " deve ter no máximo " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String ownerId = owner != null ? owner : "";
+        String requestHash = sha256(requestFingerprint);
+        String cacheKey = scope + '|' + ownerId + '|' + key;
+        IdempotencyKey cached = recentResponses.get(cacheKey);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return replay(cached, requestHash);
+            }
+            recentResponses.remove(cacheKey);
+        }
+        boolean outermost = !UnitOfWork.isActive() || !UnitOfWork.current().isInTransaction();
+        Result result = JdbcUtil.executeInTransactionWithRetry(conn -> {
+            if (!idempotencyKeyDAO.reserve(conn, scope, ownerId, key, requestHash)) {
+                Optional<IdempotencyKey> stored = idempotencyKeyDAO.find(conn, scope, ownerId, key);
+                if (!stored.isPresent() || stored.get().getStatusCode() == 0) {
+                    throw new IdempotencyConflictException("Requisição com esta " + HEADER + " ainda está em processamento");
+                }
+                return replay(stored.get(), requestHash);
+            }
+            String body = operation.get();
+            IdempotencyKey completed = new IdempotencyKey(scope, ownerId, key, requestHash, successStatus, body);
+            idempotencyKeyDAO.complete(conn, completed);
+            return new Result(completed, false);
+        });
+        if (outermost) {
+            recentResponses.put(cacheKey, result.stored);
+        }
+        return result;
+    }
+    private static boolean isExpired(IdempotencyKey stored) {
+        return stored.getCreatedAt() == null
+                || stored.getCreatedAt().isBefore(LocalDateTime.now().minusDays(RETENTION_DAYS));
+    }
+    private Result replay(IdempotencyKey stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(HEADER + " já foi utilizada com outro conteúdo de requisição");
+        }
+        return new Result(stored, true);
+    }
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((value != null ? value : "").getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+    public static class Result {
+        private final IdempotencyKey stored;
+        private final boolean replayed;
+        private Result(IdempotencyKey stored, boolean replayed) {
+            this.stored = stored;
+            this.replayed = replayed;
+        }
+        public int getStatusCode() {
+            return stored.getStatusCode();
+        }
+        public String getBody() {
+            return stored.getResponseBody();
+        }
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
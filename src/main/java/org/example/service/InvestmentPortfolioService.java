@@ -1,130 +1,126 @@
 package org.example.service;
-import org.example.dao.UserAssetDAO;
-import org.example.dao.AssetDAO;
-import org.example.dao.AssetCategoryDAO;
 import org.example.dto.AssetDistributionDTO;
 import org.example.dto.PortfolioSummaryDTO;
-import org.example.model.UserAsset;
-import org.example.model.Asset;
-import org.example.model.AssetCategory;
-import org.example.persistence.JdbcUtil;
+import org.example.model.PriceQuote;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.sql.*;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+/**
+ * Monta a carteira a partir de uma única consulta (posições já com ativo e categoria) e calcula as
+ * distribuições por ativo e por categoria numa só passada. O resultado fica em {@link PortfolioSnapshotCache},
+ * atualizado a cada ordem processada e reavaliado a mercado a cada nova tabela de {@link MarketPriceCache}.
+ */
 public class InvestmentPortfolioService {
-    private final UserAssetDAO userAssetDAO;
-    private final AssetDAO assetDAO;
-    private final AssetCategoryDAO assetCategoryDAO;
-    public InvestmentPortfolioService() {
-        this.userAssetDAO = new UserAssetDAO();
-        this.assetDAO = new AssetDAO();
-        this.assetCategoryDAO = new AssetCategoryDAO();
-    }
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    private static final Comparator<AssetDistributionDTO> BY_VALUE_DESC =
+            (a, b) -> b.getTotalValue().compareTo(a.getTotalValue());
     public List<AssetDistributionDTO> getAssetDistribution(Integer userId) {
+        return getPortfolioSummary(userId).getDistribution();
+    }
+    public List<AssetDistributionDTO> getDistributionByCategory(Integer userId) {
+        return getPortfolioSummary(userId).getDistributionByCategory();
+    }
+    public PortfolioSummaryDTO getPortfolioSummary(Integer userId) {
         if (userId == null) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo");
         }
-        List<UserAsset> positions = userAssetDAO.findByUserId(userId);
-        if (positions.isEmpty()) {
-            return new ArrayList<>();
-        }
+        return PortfolioSnapshotCache.getSummary(userId);
+    }
+    /**
+     * Calcula valor por posição, total da carteira e agregado por categoria percorrendo as posições
+     * uma única vez; os percentuais saem numa segunda volta sobre as listas já agregadas. As posições de
+     * entrada não são alteradas, pois ficam guardadas no snapshot.
+     * <p>
+     * Valor total e percentuais seguem o custo (quantidade × preço médio). Com cotação em {@code prices}, a
+     * posição também recebe preço atual, valor de mercado, resultado não realizado e variação do dia; sem
+     * cotação entra no valor de mercado pelo custo e fica sem resultado.
+     */
+    static PortfolioSummaryDTO summarize(Integer userId, List<AssetDistributionDTO> positions,
+                                         MarketPriceCache.PriceTable prices) {
         BigDecimal totalValue = BigDecimal.ZERO;
-        Map<Integer, AssetDistributionDTO> distributionMap = new HashMap<>();
-        for (UserAsset position : positions) {
-            if (position.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
-                continue; 
-            }
-            Asset asset = assetDAO.findById(position.getAssetId())
-                    .orElseThrow(() -> new RuntimeException("Ativo não encontrado: " + position.getAssetId()));
-            AssetCategory category = assetCategoryDAO.findById(asset.getCategoryId())
-                    .orElseThrow(() -> new RuntimeException("Categoria não encontrada: " + asset.getCategoryId()));
+        BigDecimal totalMarketValue = BigDecimal.ZERO;
+        BigDecimal totalUnrealizedPnl = BigDecimal.ZERO;
+        BigDecimal totalDailyChange = BigDecimal.ZERO;
+        Map<Integer, AssetDistributionDTO> byAsset = new LinkedHashMap<>();
+        Map<Integer, AssetDistributionDTO> byCategory = new LinkedHashMap<>();
+        for (AssetDistributionDTO position : positions) {
             BigDecimal positionValue = position.getQuantity().multiply(position.getAveragePrice());
-            totalValue = totalValue.add(positionValue);
-            AssetDistributionDTO distribution = new AssetDistributionDTO();
-            distribution.setAssetId(asset.getId());
-            distribution.setTicker(asset.getTicker());
-            distribution.setAssetName(asset.getName());
-            distribution.setCategoryId(category.getId());
-            distribution.setCategoryName(category.getName());
-            distribution.setQuantity(position.getQuantity());
-            distribution.setAveragePrice(position.getAveragePrice());
-            distribution.setTotalValue(positionValue);
-            distributionMap.put(asset.getId(), distribution);
-        }
-        List<AssetDistributionDTO> distributionList = new ArrayList<>(distributionMap.values());
-        for (AssetDistributionDTO dist : distributionList) {
-            if (totalValue.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal percentage = dist.getTotalValue()
-                        .divide(totalValue, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
-                        .setScale(2, RoundingMode.HALF_UP);
-                dist.setPercentage(percentage);
-            } else {
-                dist.setPercentage(BigDecimal.ZERO);
+            AssetDistributionDTO assetDist = new AssetDistributionDTO();
+            assetDist.setAssetId(position.getAssetId());
+            assetDist.setTicker(position.getTicker());
+            assetDist.setAssetName(position.getAssetName());
+            assetDist.setCategoryId(position.getCategoryId());
+            assetDist.setCategoryName(position.getCategoryName());
+            assetDist.setQuantity(position.getQuantity());
+            assetDist.setAveragePrice(position.getAveragePrice());
+            assetDist.setTotalValue(positionValue);
+            assetDist.setMarketValue(positionValue);
+            PriceQuote quote = prices.find(position.getAssetId());
+            if (quote != null) {
+                assetDist.setCurrentPrice(quote.getPrice());
+                assetDist.setMarketValue(position.getQuantity().multiply(quote.getPrice()));
+                assetDist.setUnrealizedPnl(assetDist.getMarketValue().subtract(positionValue));
+                if (quote.getPreviousClose() != null) {
+                    assetDist.setDailyChange(position.getQuantity()
+                            .multiply(quote.getPrice().subtract(quote.getPreviousClose())));
+                }
             }
-        }
-        distributionList.sort((a, b) -> b.getTotalValue().compareTo(a.getTotalValue()));
-        return distributionList;
-    }
-    public List<AssetDistributionDTO> getDistributionByCategory(Integer userId) {
-        if (userId == null) {
-            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
-        }
-        List<AssetDistributionDTO> detailedDistribution = getAssetDistribution(userId);
-        BigDecimal totalValue = detailedDistribution.stream()
-                .map(AssetDistributionDTO::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        Map<Integer, AssetDistributionDTO> categoryMap = new HashMap<>();
-        for (AssetDistributionDTO dist : detailedDistribution) {
-            Integer categoryId = dist.getCategoryId();
-            String categoryName = dist.getCategoryName();
-            AssetDistributionDTO categoryDist = categoryMap.get(categoryId);
-            if (categoryDist == null) {
-                categoryDist = new AssetDistributionDTO();
-                categoryDist.setCategoryId(categoryId);
-                categoryDist.setCategoryName(categoryName);
+            totalValue = totalValue.add(positionValue);
+            totalMarketValue = totalMarketValue.add(assetDist.getMarketValue());
+            totalUnrealizedPnl = addIfPresent(totalUnrealizedPnl, assetDist.getUnrealizedPnl());
+            totalDailyChange = addIfPresent(totalDailyChange, assetDist.getDailyChange());
+            byAsset.put(position.getAssetId(), assetDist);
+            AssetDistributionDTO category = byCategory.computeIfAbsent(position.getCategoryId(), id -> {
+                AssetDistributionDTO categoryDist = new AssetDistributionDTO();
+                categoryDist.setCategoryId(id);
+                categoryDist.setCategoryName(position.getCategoryName());
                 categoryDist.setTotalValue(BigDecimal.ZERO);
-                categoryMap.put(categoryId, categoryDist);
-            }
-            categoryDist.setTotalValue(categoryDist.getTotalValue().add(dist.getTotalValue()));
-        }
-        List<AssetDistributionDTO> categoryDistribution = new ArrayList<>(categoryMap.values());
-        for (AssetDistributionDTO dist : categoryDistribution) {
-            if (totalValue.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal percentage = dist.getTotalValue()
-                        .divide(totalValue, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
-                        .setScale(2, RoundingMode.HALF_UP);
-                dist.setPercentage(percentage);
-            } else {
-                dist.setPercentage(BigDecimal.ZERO);
-            }
-        }
-        categoryDistribution.sort((a, b) -> b.getTotalValue().compareTo(a.getTotalValue()));
-        return categoryDistribution;
-    }
-    public PortfolioSummaryDTO getPortfolioSummary(Integer userId) {
-        if (userId == null) {
-            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+                categoryDist.setMarketValue(BigDecimal.ZERO);
+                categoryDist.setUnrealizedPnl(BigDecimal.ZERO);
+                categoryDist.setDailyChange(BigDecimal.ZERO);
+                return categoryDist;
+            });
+            category.setTotalValue(category.getTotalValue().add(positionValue));
+            category.setMarketValue(category.getMarketValue().add(assetDist.getMarketValue()));
+            category.setUnrealizedPnl(addIfPresent(category.getUnrealizedPnl(), assetDist.getUnrealizedPnl()));
+            category.setDailyChange(addIfPresent(category.getDailyChange(), assetDist.getDailyChange()));
         }
-        List<AssetDistributionDTO> distribution = getAssetDistribution(userId);
-        List<AssetDistributionDTO> distributionByCategory = getDistributionByCategory(userId);
-        BigDecimal totalValue = distribution.stream()
-                .map(AssetDistributionDTO::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long totalAssets = distribution.stream()
-                .filter(d -> d.getQuantity().compareTo(BigDecimal.ZERO) > 0)
-                .count();
+        List<AssetDistributionDTO> distribution = withPercentages(byAsset.values(), totalValue);
+        List<AssetDistributionDTO> distributionByCategory = withPercentages(byCategory.values(), totalValue);
         PortfolioSummaryDTO summary = new PortfolioSummaryDTO();
         summary.setUserId(userId);
         summary.setTotalPortfolioValue(totalValue);
-        summary.setTotalAssets((int) totalAssets);
+        summary.setTotalAssets(distribution.size());
         summary.setDistribution(distribution);
         summary.setDistributionByCategory(distributionByCategory);
+        summary.setTotalMarketValue(totalMarketValue);
+        summary.setTotalUnrealizedPnl(totalUnrealizedPnl);
+        summary.setTotalDailyChange(totalDailyChange);
+        summary.setPricesUpdatedAt(prices.getRefreshedAt());
         return summary;
     }
-}
\ No newline at end of file
+    private static BigDecimal addIfPresent(BigDecimal total, BigDecimal value) {
+        return value != null ? total.add(value) : total;
+    }
+    private static List<AssetDistributionDTO> withPercentages(Iterable<AssetDistributionDTO> values,
+                                                              BigDecimal totalValue) {
+        List<AssetDistributionDTO> list = new ArrayList<>();
+        for (AssetDistributionDTO dist : values) {
+            if (totalValue.compareTo(BigDecimal.ZERO) > 0) {
+                dist.setPercentage(dist.getTotalValue()
+                        .divide(totalValue, 4, RoundingMode.HALF_UP)
+                        .multiply(ONE_HUNDRED)
+                        .setScale(2, RoundingMode.HALF_UP));
+            } else {
+                dist.setPercentage(BigDecimal.ZERO);
+            }
+            list.add(dist);
+        }
+        list.sort(BY_VALUE_DESC);
+        return list;
+    }
+}
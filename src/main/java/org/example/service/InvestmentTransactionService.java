@@ -1,25 +1,31 @@
 package org.example.service;
+import org.example.dao.InvestmentOrderCursor;
 import org.example.dao.InvestmentTransactionDAO;
+import org.example.dao.Projection;
+import org.example.dao.RowHandler;
 import org.example.dao.UserAssetDAO;
-import org.example.dao.AssetDAO;
+import org.example.dto.InvestmentTransactionResponseDTO;
+import org.example.dto.OrderHistoryItemDTO;
 import org.example.model.InvestmentTransaction;
 import org.example.model.UserAsset;
-import org.example.model.Asset;
 import org.example.persistence.JdbcUtil;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 public class InvestmentTransactionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
     private final InvestmentTransactionDAO transactionDAO;
     private final UserAssetDAO userAssetDAO;
-    private final AssetDAO assetDAO;
     private final UserService userService;
+    private final LotAccountingService lotAccountingService;
     public InvestmentTransactionService() {
         this.transactionDAO = new InvestmentTransactionDAO();
         this.userAssetDAO = new UserAssetDAO();
-        this.assetDAO = new AssetDAO();
         this.userService = new UserService();
+        this.lotAccountingService = new LotAccountingService();
     }
     public InvestmentTransaction processTransaction(InvestmentTransaction transaction) {
         if (transaction == null) {
@@ -27,48 +33,37 @@ public class InvestmentTransactionService {
         }
         validateTransaction(transaction);
         userService.getUserById(transaction.getUserId());
-        assetDAO.findById(transaction.getAssetId())
+        ReferenceDataCache.findAsset(transaction.getAssetId())
                 .orElseThrow(() -> new IllegalArgumentException("Ativo não encontrado com ID: " + transaction.getAssetId()));
         return JdbcUtil.executeInTransaction(conn -> {
-            InvestmentTransaction savedTransaction = transactionDAO.save(transaction);
-            updateUserPosition(transaction.getUserId(), transaction.getAssetId(), 
-                             transaction.getType(), transaction.getPrice(), transaction.getQuantity());
+            lotAccountingService.lockUser(conn, transaction.getUserId());
+            if ("Venda".equalsIgnoreCase(transaction.getType())) {
+                BigDecimal currentQuantity = userAssetDAO
+                        .findByUserIdAndAssetIdForUpdate(conn, transaction.getUserId(), transaction.getAssetId())
+                        .map(UserAsset::getQuantity)
+                        .orElse(BigDecimal.ZERO);
+                if (currentQuantity.compareTo(transaction.getQuantity()) < 0) {
+                    throw new IllegalArgumentException("Quantidade insuficiente para venda. Posição atual: " + 
+                                                     currentQuantity + ", tentando vender: " + transaction.getQuantity());
+                }
+            }
+            InvestmentTransaction savedTransaction = transactionDAO.save(conn, transaction);
+            UserAsset position = updateUserPosition(conn, transaction);
+            lotAccountingService.recordOrder(conn, savedTransaction, position);
+            PortfolioSnapshotCache.onPositionChanged(position);
             return savedTransaction;
         });
     }
-    private void updateUserPosition(Integer userId, Integer assetId, String type, 
-                                   BigDecimal price, BigDecimal quantity) {
-        Optional<UserAsset> existingPosition = userAssetDAO.findByUserIdAndAssetId(userId, assetId);
-        UserAsset position;
-        if (existingPosition.isPresent()) {
-            position = existingPosition.get();
-        } else {
-            position = new UserAsset();
-            position.setUserId(userId);
-            position.setAssetId(assetId);
-            position.setQuantity(BigDecimal.ZERO);
-            position.setAveragePrice(BigDecimal.ZERO);
-        }
-        if ("Compra".equalsIgnoreCase(type)) {
-            BigDecimal totalQuantity = position.getQuantity().add(quantity);
-            BigDecimal totalValue = position.getQuantity().multiply(position.getAveragePrice())
-                    .add(quantity.multiply(price));
-            if (totalQuantity.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal newAveragePrice = totalValue.divide(totalQuantity, 8, RoundingMode.HALF_UP);
-                position.setAveragePrice(newAveragePrice);
-            }
-            position.setQuantity(totalQuantity);
-        } else if ("Venda".equalsIgnoreCase(type)) {
-            BigDecimal newQuantity = position.getQuantity().subtract(quantity);
-            if (newQuantity.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalArgumentException("Quantidade insuficiente para venda. Posição atual: " + 
-                                                 position.getQuantity() + ", tentando vender: " + quantity);
-            }
-            position.setQuantity(newQuantity);
+    private UserAsset updateUserPosition(Connection conn, InvestmentTransaction transaction) throws SQLException {
+        if ("Compra".equalsIgnoreCase(transaction.getType())) {
+            return userAssetDAO.addToPosition(conn, transaction.getUserId(), transaction.getAssetId(),
+                                              transaction.getQuantity(), transaction.getPrice());
+        } else if ("Venda".equalsIgnoreCase(transaction.getType())) {
+            return userAssetDAO.subtractFromPosition(conn, transaction.getUserId(), transaction.getAssetId(),
+                                                     transaction.getQuantity());
         } else {
             throw new IllegalArgumentException("Tipo de transação inválido. Use 'Compra' ou 'Venda'");
         }
-        userAssetDAO.saveOrUpdate(position);
     }
     public InvestmentTransaction getTransactionById(Integer id) {
         if (id == null) {
@@ -83,35 +78,46 @@ public class InvestmentTransactionService {
         }
         return transactionDAO.findByUserId(userId);
     }
-    public List<org.example.dto.InvestmentTransactionResponseDTO> getTransactionHistoryByUserId(Integer userId) {
+    public List<InvestmentTransactionResponseDTO> getTransactionHistoryByUserId(Integer userId) {
         if (userId == null) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo");
         }
-        List<InvestmentTransaction> transactions = transactionDAO.findByUserId(userId);
-        List<org.example.dto.InvestmentTransactionResponseDTO> responseDTOs = new java.util.ArrayList<>();
-        for (InvestmentTransaction transaction : transactions) {
-            org.example.dto.InvestmentTransactionResponseDTO dto = new org.example.dto.InvestmentTransactionResponseDTO();
-            dto.setId(transaction.getId());
-            dto.setUserId(transaction.getUserId());
-            dto.setAssetId(transaction.getAssetId());
-            dto.setType(transaction.getType());
-            dto.setPrice(transaction.getPrice());
-            dto.setQuantity(transaction.getQuantity());
-            dto.setTotalValue(transaction.getTotalValue());
-            dto.setTransactionDate(transaction.getTransactionDate());
-            dto.setStatus(transaction.getStatus());
-            try {
-                Asset asset = assetDAO.findById(transaction.getAssetId())
-                        .orElseThrow(() -> new RuntimeException("Ativo não encontrado: " + transaction.getAssetId()));
-                dto.setAssetTicker(asset.getTicker());
-                dto.setAssetName(asset.getName());
-            } catch (Exception e) {
-                dto.setAssetTicker("N/A");
-                dto.setAssetName("Ativo não encontrado");
-            }
-            responseDTOs.add(dto);
+        return transactionDAO.findHistoryByUserId(userId);
+    }
+    /**
+     * Escreve uma página do histórico de ordens em {@code handler}, linha a linha, e devolve o cursor da
+     * próxima página (null na última). Os parâmetros são validados antes de qualquer linha ser entregue.
+     */
+    public String streamOrderHistory(Integer userId, Integer assetId, String type, LocalDate startDate,
+                                     LocalDate endDate, String cursor, int limit, RowHandler<OrderHistoryItemDTO> handler) {
+        return streamHistory(InvestmentTransactionDAO.ORDER_HISTORY_ITEM, userId, assetId, type, startDate, endDate,
+                cursor, limit, handler);
+    }
+    public String streamTransactionHistory(Integer userId, Integer assetId, String type, LocalDate startDate,
+                                           LocalDate endDate, String cursor, int limit,
+                                           RowHandler<InvestmentTransactionResponseDTO> handler) {
+        return streamHistory(InvestmentTransactionDAO.HISTORY, userId, assetId, type, startDate, endDate,
+                cursor, limit, handler);
+    }
+    private <T> String streamHistory(Projection<T> projection, Integer userId, Integer assetId, String type,
+                                     LocalDate startDate, LocalDate endDate, String cursor, int limit,
+                                     RowHandler<T> handler) {
+        if (userId == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        if (type != null && !"Compra".equalsIgnoreCase(type) && !"Venda".equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Tipo inválido. Use 'Compra' ou 'Venda'");
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
         }
-        return responseDTOs;
+        InvestmentOrderCursor after = InvestmentOrderCursor.decode(cursor);
+        InvestmentOrderCursor next = transactionDAO.streamPageByUserId(projection, userId, assetId, type,
+                startDate, endDate, after, limit, handler);
+        return next != null ? next.encode() : null;
     }
     public List<InvestmentTransaction> getTransactionsByAssetId(Integer assetId) {
         if (assetId == null) {
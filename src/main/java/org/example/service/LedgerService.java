@@ -0,0 +1,59 @@
+package org.example.service;
+import org.example.dao.AccountDAO;
+import org.example.dao.TransactionDAO;
+import org.example.model.Transaction;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+/**
+ * Lança movimentações no extrato com dois round trips: um UPDATE com todos os deltas de saldo
+ * e um INSERT com todas as pernas. Deve ser chamado dentro da transação do chamador.
+ */
+public class LedgerService {
+    private final AccountDAO accountDAO;
+    private final TransactionDAO transactionDAO;
+    public LedgerService() {
+        this.accountDAO = new AccountDAO();
+        this.transactionDAO = new TransactionDAO();
+    }
+    public Map<UUID, BigDecimal> post(Connection conn, List<Transaction> legs, Map<UUID, BigDecimal> balanceDeltas)
+            throws SQLException {
+        Map<UUID, BigDecimal> newBalances = accountDAO.applyBalanceDeltas(conn, balanceDeltas);
+        if (newBalances.size() != balanceDeltas.size()) {
+            throw new IllegalArgumentException("Saldo insuficiente ou conta inativa para realizar a operação");
+        }
+        transactionDAO.saveAll(conn, legs);
+        return newBalances;
+    }
+    public static Map<UUID, BigDecimal> balanceDeltas(Transaction transaction) {
+        Map<UUID, BigDecimal> deltas = new LinkedHashMap<>();
+        BigDecimal amount = transaction.getAmount();
+        switch (transaction.getTransactionType()) {
+            case DEPOSIT:
+                deltas.merge(transaction.getSourceAccountId(), amount, BigDecimal::add);
+                break;
+            case WITHDRAWAL:
+            case PAYMENT:
+                deltas.merge(transaction.getSourceAccountId(), amount.negate(), BigDecimal::add);
+                break;
+            case TRANSFER:
+                if (transaction.getDestinationAccountId() != null) {
+                    deltas.merge(transaction.getSourceAccountId(), amount.negate(), BigDecimal::add);
+                    deltas.merge(transaction.getDestinationAccountId(), amount, BigDecimal::add);
+                }
+                break;
+        }
+        deltas.values().removeIf(delta -> delta.signum() == 0);
+        return deltas;
+    }
+    public static Map<UUID, BigDecimal> transferDeltas(UUID sourceAccountId, UUID destinationAccountId, BigDecimal amount) {
+        Map<UUID, BigDecimal> deltas = new LinkedHashMap<>();
+        deltas.put(sourceAccountId, amount.negate());
+        deltas.put(destinationAccountId, amount);
+        return deltas;
+    }
+}
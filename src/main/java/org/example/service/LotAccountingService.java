@@ -0,0 +1,153 @@
+package org.example.service;
+import org.example.dao.InvestmentTransactionDAO;
+import org.example.dao.OutboxJobDAO;
+import org.example.dao.PositionLotDAO;
+import org.example.dao.RealizedPnlDAO;
+import org.example.model.InvestmentTransaction;
+import org.example.model.PositionLot;
+import org.example.model.RealizedPnl;
+import org.example.model.UserAsset;
+import org.example.persistence.JdbcUtil;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Resultado realizado das vendas por usuário e ativo, mantido nos dois métodos de custo: preço médio
+ * ({@code AVERAGE}, o mesmo de {@code user_asset}) e {@code FIFO} (lotes de compra em {@code position_lot}).
+ * Cada ordem atualiza lotes e acumulados na própria transação, então o resultado nunca exige reprocessar o
+ * histórico; {@code COST_BASIS_METHOD} só escolhe qual método é devolvido por padrão.
+ * <p>
+ * Para preencher ou corrigir o histórico, {@link #enqueueRecompute} grava um job por usuário no outbox e o
+ * {@link OutboxWorker} os executa em paralelo, cada um numa transação que refaz lotes e acumulados do usuário a
+ * partir de {@code investments.transaction} com {@link LotLedger}. Uma trava consultiva por usuário serializa o
+ * recálculo com as ordens do mesmo usuário.
+ */
+public class LotAccountingService {
+    public static final String METHOD_AVERAGE = "AVERAGE";
+    public static final String METHOD_FIFO = "FIFO";
+    public static final String JOB_RECOMPUTE = "REALIZED_PNL_RECOMPUTE";
+    public static final String DEFAULT_METHOD = resolveDefaultMethod();
+    // Primeira metade da chave de pg_advisory_xact_lock(int, int); a segunda é o ID do usuário
+    private static final int USER_LOCK_CLASS = 0x4c4f5453;
+    private final PositionLotDAO positionLotDAO;
+    private final RealizedPnlDAO realizedPnlDAO;
+    private final InvestmentTransactionDAO transactionDAO;
+    private final OutboxJobDAO outboxJobDAO;
+    public LotAccountingService() {
+        this.positionLotDAO = new PositionLotDAO();
+        this.realizedPnlDAO = new RealizedPnlDAO();
+        this.transactionDAO = new InvestmentTransactionDAO();
+        this.outboxJobDAO = new OutboxJobDAO();
+    }
+    /**
+     * Trava os lotes do usuário até o fim da transação. Deve ser chamada antes de ler ou alterar a posição.
+     */
+    public void lockUser(Connection conn, Integer userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+            stmt.setInt(1, USER_LOCK_CLASS);
+            stmt.setInt(2, userId);
+            stmt.execute();
+        }
+    }
+    /**
+     * Registra a ordem já gravada: uma compra abre um lote; uma venda consome lotes e soma o resultado nos dois
+     * métodos. {@code position} é a posição depois da ordem (numa venda o preço médio não muda).
+     */
+    public void recordOrder(Connection conn, InvestmentTransaction transaction, UserAsset position) throws SQLException {
+        if ("Compra".equalsIgnoreCase(transaction.getType())) {
+            positionLotDAO.save(conn, LotLedger.lotOf(transaction));
+            return;
+        }
+        if (!"Venda".equalsIgnoreCase(transaction.getType())) {
+            return;
+        }
+        BigDecimal quantity = transaction.getQuantity();
+        BigDecimal proceeds = LotLedger.proceedsOf(transaction);
+        realizedPnlDAO.addSale(conn, transaction.getUserId(), transaction.getAssetId(), METHOD_AVERAGE, quantity,
+                proceeds, LotLedger.averageCost(quantity, position.getAveragePrice()));
+        List<PositionLot> lots = positionLotDAO.findOpenLotsForUpdate(conn, transaction.getUserId(), transaction.getAssetId());
+        List<BigDecimal> before = new ArrayList<>(lots.size());
+        for (PositionLot lot : lots) {
+            before.add(lot.getRemainingQuantity());
+        }
+        BigDecimal fifoCost = LotLedger.fifoCost(lots, quantity, position.getAveragePrice());
+        List<PositionLot> consumed = new ArrayList<>();
+        for (int i = 0; i < lots.size(); i++) {
+            if (lots.get(i).getRemainingQuantity().compareTo(before.get(i)) != 0) {
+                consumed.add(lots.get(i));
+            }
+        }
+        positionLotDAO.updateRemaining(conn, consumed);
+        realizedPnlDAO.addSale(conn, transaction.getUserId(), transaction.getAssetId(), METHOD_FIFO, quantity,
+                proceeds, fifoCost);
+    }
+    public List<RealizedPnl> getRealizedPnl(Integer userId, String method) {
+        if (userId == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        String costMethod = method == null || method.trim().isEmpty() ? DEFAULT_METHOD : normalizeMethod(method);
+        return realizedPnlDAO.findByUserId(userId, costMethod);
+    }
+    /**
+     * Enfileira o recálculo de um usuário, ou de todos os que têm ordens quando {@code userId} é nulo.
+     */
+    public int enqueueRecompute(Integer userId) {
+        List<String> payloads = new ArrayList<>();
+        if (userId != null) {
+            payloads.add(userId.toString());
+        } else {
+            for (Integer id : transactionDAO.findUserIds()) {
+                payloads.add(id.toString());
+            }
+        }
+        int enqueued = JdbcUtil.executeInTransaction(conn -> {
+            return outboxJobDAO.enqueueAll(conn, JOB_RECOMPUTE, payloads);
+        });
+        OutboxWorker.wakeUp();
+        return enqueued;
+    }
+    /**
+     * Refaz lotes e acumulados do usuário reproduzindo todas as suas ordens. Roda na transação do job.
+     */
+    public void recompute(Integer userId) {
+        JdbcUtil.executeInTransaction(conn -> {
+            lockUser(conn, userId);
+            LotLedger ledger = new LotLedger(userId);
+            for (InvestmentTransaction transaction : transactionDAO.findByUserIdInExecutionOrder(conn, userId)) {
+                ledger.apply(transaction);
+            }
+            positionLotDAO.deleteByUserId(conn, userId);
+            realizedPnlDAO.deleteByUserId(conn, userId);
+            positionLotDAO.saveAll(conn, ledger.openLots());
+            realizedPnlDAO.saveAll(conn, ledger.realized(LocalDateTime.now()));
+        });
+    }
+    /**
+     * Lê COST_BASIS_METHOD uma vez; um valor inválido não pode derrubar a carga da classe (e com ela o
+     * processamento de ordens), então é registrado e substituído por AVERAGE, o mesmo padrão de quando a
+     * variável não está definida.
+     */
+    private static String resolveDefaultMethod() {
+        String configured = System.getenv("COST_BASIS_METHOD");
+        if (configured == null || configured.trim().isEmpty()) {
+            return METHOD_AVERAGE;
+        }
+        try {
+            return normalizeMethod(configured);
+        } catch (IllegalArgumentException e) {
+            System.err.println("COST_BASIS_METHOD inválido (" + configured + "), usando " + METHOD_AVERAGE);
+            return METHOD_AVERAGE;
+        }
+    }
+    private static String normalizeMethod(String method) {
+        String normalized = method.trim().toUpperCase();
+        if (!METHOD_AVERAGE.equals(normalized) && !METHOD_FIFO.equals(normalized)) {
+            throw new IllegalArgumentException("Método de custo inválido. Use 'AVERAGE' ou 'FIFO'");
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.service;
+import org.example.model.InvestmentTransaction;
+import org.example.model.PositionLot;
+import org.example.model.RealizedPnl;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * Reproduz em memória as ordens de um usuário, na ordem de execução, mantendo por ativo a quantidade, o preço
+ * médio (com o mesmo arredondamento do UPDATE de {@code user_asset}), os lotes FIFO e o resultado realizado nos
+ * dois métodos. As regras de custo de uma venda ({@link #lotOf}, {@link #averageCost}, {@link #fifoCost}) são as mesmas usadas
+ * pelo caminho incremental de {@link LotAccountingService}, então recálculo e ordens do dia a dia dão o mesmo valor.
+ */
+class LotLedger {
+    static final int SCALE = 8;
+    private final Integer userId;
+    private final Map<Integer, AssetBook> books = new LinkedHashMap<>();
+    LotLedger(Integer userId) {
+        this.userId = userId;
+    }
+    void apply(InvestmentTransaction transaction) {
+        AssetBook book = books.computeIfAbsent(transaction.getAssetId(), AssetBook::new);
+        if ("Compra".equalsIgnoreCase(transaction.getType())) {
+            book.averagePrice = nextAveragePrice(book.quantity, book.averagePrice,
+                    transaction.getQuantity(), transaction.getPrice());
+            book.quantity = book.quantity.add(transaction.getQuantity());
+            book.lots.add(lotOf(transaction));
+        } else if ("Venda".equalsIgnoreCase(transaction.getType())) {
+            BigDecimal quantity = transaction.getQuantity();
+            BigDecimal proceeds = proceedsOf(transaction);
+            addSale(book.average, quantity, proceeds, averageCost(quantity, book.averagePrice));
+            addSale(book.fifo, quantity, proceeds, fifoCost(book.lots, quantity, book.averagePrice));
+            book.quantity = book.quantity.subtract(quantity);
+        }
+    }
+    List<PositionLot> openLots() {
+        List<PositionLot> open = new ArrayList<>();
+        for (AssetBook book : books.values()) {
+            for (PositionLot lot : book.lots) {
+                if (lot.getRemainingQuantity().signum() > 0) {
+                    open.add(lot);
+                }
+            }
+        }
+        return open;
+    }
+    List<RealizedPnl> realized(LocalDateTime updatedAt) {
+        List<RealizedPnl> rows = new ArrayList<>();
+        for (AssetBook book : books.values()) {
+            for (RealizedPnl row : List.of(book.average, book.fifo)) {
+                if (row.getQuantitySold().signum() > 0) {
+                    row.setUpdatedAt(updatedAt);
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+    static BigDecimal nextAveragePrice(BigDecimal quantity, BigDecimal averagePrice, BigDecimal boughtQuantity,
+                                       BigDecimal price) {
+        if (averagePrice == null || quantity.signum() <= 0) {
+            return price.setScale(SCALE, RoundingMode.HALF_UP);
+        }
+        return quantity.multiply(averagePrice).add(boughtQuantity.multiply(price))
+                .divide(quantity.add(boughtQuantity), SCALE, RoundingMode.HALF_UP);
+    }
+    private static void addSale(RealizedPnl row, BigDecimal quantity, BigDecimal proceeds, BigDecimal cost) {
+        row.setQuantitySold(row.getQuantitySold().add(quantity));
+        row.setProceeds(row.getProceeds().add(proceeds));
+        row.setCostBasis(row.getCostBasis().add(cost));
+        row.setRealizedPnl(row.getProceeds().subtract(row.getCostBasis()));
+    }
+    static BigDecimal proceedsOf(InvestmentTransaction transaction) {
+        BigDecimal proceeds = transaction.getTotalValue() != null ? transaction.getTotalValue()
+                : transaction.getPrice().multiply(transaction.getQuantity());
+        return proceeds.setScale(SCALE, RoundingMode.HALF_UP);
+    }
+    static PositionLot lotOf(InvestmentTransaction purchase) {
+        return new PositionLot(purchase.getUserId(), purchase.getAssetId(), purchase.getId(),
+                purchase.getTransactionDate(), purchase.getQuantity(),
+                purchase.getPrice().setScale(SCALE, RoundingMode.HALF_UP));
+    }
+    static BigDecimal averageCost(BigDecimal quantity, BigDecimal averagePrice) {
+        if (averagePrice == null) {
+            return BigDecimal.ZERO.setScale(SCALE);
+        }
+        return quantity.multiply(averagePrice).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+    /**
+     * Custo FIFO de uma venda: consome os lotes em ordem (alterando o saldo de cada um) e avalia pelo preço médio
+     * a quantidade que os lotes não cobrem, como posições anteriores à criação dos lotes.
+     */
+    static BigDecimal fifoCost(List<PositionLot> lots, BigDecimal quantity, BigDecimal averagePrice) {
+        BigDecimal remaining = quantity;
+        BigDecimal cost = BigDecimal.ZERO;
+        for (PositionLot lot : lots) {
+            if (remaining.signum() <= 0) {
+                break;
+            }
+            BigDecimal taken = lot.getRemainingQuantity().min(remaining);
+            if (taken.signum() <= 0) {
+                continue;
+            }
+            lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(taken));
+            cost = cost.add(taken.multiply(lot.getUnitCost()));
+            remaining = remaining.subtract(taken);
+        }
+        if (remaining.signum() > 0 && averagePrice != null) {
+            cost = cost.add(remaining.multiply(averagePrice));
+        }
+        return cost.setScale(SCALE, RoundingMode.HALF_UP);
+    }
+    private class AssetBook {
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal averagePrice;
+        private final List<PositionLot> lots = new ArrayList<>();
+        private final RealizedPnl average;
+        private final RealizedPnl fifo;
+        AssetBook(Integer assetId) {
+            this.average = new RealizedPnl(userId, assetId, LotAccountingService.METHOD_AVERAGE);
+            this.fifo = new RealizedPnl(userId, assetId, LotAccountingService.METHOD_FIFO);
+        }
+    }
+}
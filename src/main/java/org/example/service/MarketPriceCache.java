@@ -0,0 +1,158 @@
+package org.example.service;
+import org.example.model.Asset;
+import org.example.model.PriceQuote;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+/**
+ * Tabela em memória com a última cotação de cada ativo, usada para marcar as carteiras a mercado sem chamar
+ * a fonte de preços durante a requisição. Um agendador (virtual thread) busca as cotações de todos os ativos
+ * ativos em lotes de {@code PRICE_FEED_BATCH_SIZE} e publica uma tabela nova, imutável, trocada atomicamente:
+ * leituras nunca esperam uma atualização e enxergam sempre uma tabela inteira. Um lote que falha mantém as
+ * cotações anteriores dos seus ativos.
+ * <p>
+ * A fonte é escolhida por {@code PRICE_FEED}: {@code replay} lê {@code PRICE_FEED_FILE} ({@link ReplayPriceFeed});
+ * sem configuração o cache fica vazio e a carteira é avaliada pelo custo.
+ */
+public class MarketPriceCache {
+    private static final long REFRESH_INTERVAL_SECONDS = Long.parseLong(
+            System.getenv().getOrDefault("PRICE_FEED_REFRESH_SECONDS", "60"));
+    private static final int BATCH_SIZE = Integer.parseInt(
+            System.getenv().getOrDefault("PRICE_FEED_BATCH_SIZE", "100"));
+    private static final AtomicReference<PriceTable> table = new AtomicReference<>(PriceTable.EMPTY);
+    private static final AtomicLong refreshes = new AtomicLong();
+    private static final AtomicLong failedBatches = new AtomicLong();
+    private static PriceFeed feed;
+    private static ScheduledExecutorService refresher;
+    public static synchronized void start() {
+        PriceFeed configured = configuredFeed();
+        if (configured != null) {
+            start(configured);
+        }
+    }
+    public static synchronized void start(PriceFeed priceFeed) {
+        if (refresher != null) {
+            return;
+        }
+        feed = priceFeed;
+        refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("market-price-refresh").factory());
+        refresher.scheduleWithFixedDelay(MarketPriceCache::refresh, 0, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+    public static synchronized void stop() {
+        if (refresher == null) {
+            return;
+        }
+        refresher.shutdownNow();
+        refresher = null;
+        feed = null;
+    }
+    public static PriceTable currentTable() {
+        return table.get();
+    }
+    public static Optional<PriceQuote> findQuote(Integer assetId) {
+        return Optional.ofNullable(table.get().find(assetId));
+    }
+    public static PriceFeedStats getStats() {
+        PriceTable current = table.get();
+        return new PriceFeedStats(feed != null ? feed.getClass().getSimpleName() : null, current.quotes.size(),
+                current.refreshedAt, refreshes.get(), failedBatches.get());
+    }
+    /**
+     * Busca as cotações de todos os ativos ativos com {@code api_identifier}, lote a lote, e publica a tabela
+     * resultante de uma vez.
+     */
+    static void refresh() {
+        PriceFeed current = feed;
+        if (current == null) {
+            return;
+        }
+        Map<String, List<Integer>> assetIdsByIdentifier = new HashMap<>();
+        for (Asset asset : ReferenceDataCache.getAssets()) {
+            if (Boolean.TRUE.equals(asset.getIsActive()) && asset.getApiIdentifier() != null
+                    && !asset.getApiIdentifier().isBlank()) {
+                assetIdsByIdentifier.computeIfAbsent(asset.getApiIdentifier(), key -> new ArrayList<>()).add(asset.getId());
+            }
+        }
+        PriceTable previous = table.get();
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        Map<Integer, PriceQuote> quotes = new HashMap<>();
+        List<String> identifiers = new ArrayList<>(assetIdsByIdentifier.keySet());
+        for (int start = 0; start < identifiers.size(); start += BATCH_SIZE) {
+            List<String> batch = identifiers.subList(start, Math.min(start + BATCH_SIZE, identifiers.size()));
+            try {
+                for (PriceQuote quote : current.fetchQuotes(batch)) {
+                    List<Integer> assetIds = assetIdsByIdentifier.get(quote.getApiIdentifier());
+                    if (assetIds == null || quote.getPrice() == null) {
+                        continue;
+                    }
+                    PriceQuote stamped = quote.getQuotedAt() != null ? quote : new PriceQuote(quote.getApiIdentifier(),
+                            quote.getPrice(), quote.getPreviousClose(), refreshedAt);
+                    for (Integer assetId : assetIds) {
+                        quotes.put(assetId, stamped);
+                    }
+                }
+            } catch (Exception e) {
+                failedBatches.incrementAndGet();
+                System.err.println("Erro ao buscar cotações (" + batch.size() + " ativos): " + e.getMessage());
+                for (String identifier : batch) {
+                    for (Integer assetId : assetIdsByIdentifier.get(identifier)) {
+                        PriceQuote kept = previous.find(assetId);
+                        if (kept != null) {
+                            quotes.put(assetId, kept);
+                        }
+                    }
+                }
+            }
+        }
+        table.set(new PriceTable(previous.version + 1, Collections.unmodifiableMap(quotes), refreshedAt));
+        refreshes.incrementAndGet();
+    }
+    private static PriceFeed configuredFeed() {
+        String type = System.getenv("PRICE_FEED");
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        if ("replay".equalsIgnoreCase(type)) {
+            String file = System.getenv("PRICE_FEED_FILE");
+            if (file == null || file.isBlank()) {
+                throw new IllegalStateException("PRICE_FEED=replay requer PRICE_FEED_FILE");
+            }
+            return new ReplayPriceFeed(Path.of(file));
+        }
+        throw new IllegalStateException("PRICE_FEED desconhecido: " + type);
+    }
+    /**
+     * Cotações publicadas numa atualização. A versão muda a cada publicação, o que permite a quem guarda
+     * valores derivados (como {@link PortfolioSnapshotCache}) saber quando recalcular.
+     */
+    public static class PriceTable {
+        static final PriceTable EMPTY = new PriceTable(0, Collections.emptyMap(), null);
+        private final long version;
+        private final Map<Integer, PriceQuote> quotes;
+        private final LocalDateTime refreshedAt;
+        private PriceTable(long version, Map<Integer, PriceQuote> quotes, LocalDateTime refreshedAt) {
+            this.version = version;
+            this.quotes = quotes;
+            this.refreshedAt = refreshedAt;
+        }
+        public long getVersion() {
+            return version;
+        }
+        public PriceQuote find(Integer assetId) {
+            return assetId != null ? quotes.get(assetId) : null;
+        }
+        public LocalDateTime getRefreshedAt() {
+            return refreshedAt;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.service;
+import org.example.dao.OutboxJobDAO;
+import org.example.model.OutboxJob;
+import org.example.persistence.JdbcUtil;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+/**
+ * Executa os jobs da tabela {@code outbox_jobs} em virtual threads. Uma thread de polling reserva jobs
+ * prontos (ou é acordada por {@link #wakeUp()} logo após um commit) e cada job roda numa transação própria,
+ * que também o marca como concluído: os efeitos do handler e o DONE são confirmados juntos. A transação trava
+ * a linha do job enquanto o handler roda, e DONE/FAILED só valem para a tentativa reservada, então um job
+ * lento não é executado duas vezes. Em caso de
+ * falha o job volta para a fila com backoff exponencial até esgotar as tentativas.
+ * A concorrência é limitada por {@link #MAX_CONCURRENT_JOBS} para não esgotar o pool de conexões.
+ */
+public class OutboxWorker {
+    public static final String JOB_USER_PROVISIONING = "USER_PROVISIONING";
+    private static final int MAX_CONCURRENT_JOBS = 4;
+    private static final long POLL_INTERVAL_MS = 2000;
+    private static final long STALE_JOB_SECONDS = 300;
+    private static final long RETRY_BASE_BACKOFF_SECONDS = 5;
+    private static final OutboxJobDAO outboxJobDAO = new OutboxJobDAO();
+    private static final Map<String, JobHandler> handlers = new ConcurrentHashMap<>();
+    private static final Semaphore wakeUps = new Semaphore(0);
+    private static Semaphore slots;
+    private static ExecutorService executor;
+    private static Thread poller;
+    private static volatile boolean running;
+    public static void register(String jobType, JobHandler handler) {
+        handlers.put(jobType, handler);
+    }
+    public static synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        slots = new Semaphore(MAX_CONCURRENT_JOBS);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-job-", 0).factory());
+        poller = Thread.ofVirtual().name("outbox-poller").start(OutboxWorker::pollLoop);
+    }
+    public static synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    public static void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+    private static void pollLoop() {
+        while (running) {
+            try {
+                int free = slots.availablePermits();
+                List<OutboxJob> jobs = free == 0 ? Collections.emptyList()
+                        : JdbcUtil.executeInTransaction(conn -> {
+                            return outboxJobDAO.claim(conn, free, STALE_JOB_SECONDS);
+                        });
+                for (OutboxJob job : jobs) {
+                    slots.acquire();
+                    executor.execute(() -> {
+                        try {
+                            execute(job);
+                        } finally {
+                            slots.release();
+                            wakeUp();
+                        }
+                    });
+                }
+                if (jobs.size() < free || free == 0) {
+                    wakeUps.tryAcquire(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao buscar jobs pendentes: " + e.getMessage());
+                try {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+    private static void execute(OutboxJob job) {
+        JobHandler handler = handlers.get(job.getJobType());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("Nenhum handler registrado para o job " + job.getJobType());
+            }
+            boolean done = JdbcUtil.executeInTransaction(conn -> {
+                if (!outboxJobDAO.lockClaimed(conn, job.getJobId(), job.getAttempts())) {
+                    return false;
+                }
+                handler.handle(job.getPayload());
+                if (!outboxJobDAO.markDone(conn, job.getJobId(), job.getAttempts())) {
+                    throw new IllegalStateException("Job reservado novamente durante a execução");
+                }
+                return true;
+            });
+            if (!done) {
+                System.err.println("Job " + job.getJobId() + " (tentativa " + job.getAttempts() +
+                        ") já foi reservado por outra execução; ignorando");
+            }
+        } catch (RuntimeException e) {
+            boolean exhausted = job.getAttempts() >= job.getMaxAttempts();
+            LocalDateTime retryAt = exhausted ? null
+                    : LocalDateTime.now().plusSeconds(RETRY_BASE_BACKOFF_SECONDS << (job.getAttempts() - 1));
+            System.err.println("Erro ao executar job " + job.getJobType() + " " + job.getJobId() +
+                    " (tentativa " + job.getAttempts() + "/" + job.getMaxAttempts() + "): " + e.getMessage());
+            try {
+                outboxJobDAO.markFailed(job.getJobId(), job.getAttempts(), e.getMessage(), retryAt);
+            } catch (RuntimeException markError) {
+                System.err.println("Erro ao registrar falha do job " + job.getJobId() + ": " + markError.getMessage());
+            }
+        }
+    }
+    /**
+     * Roda dentro da transação do job: os DAOs chamados pelo handler usam a mesma conexão, e qualquer
+     * exceção desfaz tudo e agenda uma nova tentativa.
+     */
+    @FunctionalInterface
+    public interface JobHandler {
+        void handle(String payload) throws SQLException;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.service;
+import org.example.dao.UserAssetDAO;
+import org.example.dto.AssetDistributionDTO;
+import org.example.dto.PortfolioSummaryDTO;
+import org.example.model.Asset;
+import org.example.model.AssetCategory;
+import org.example.model.UserAsset;
+import org.example.persistence.CatalogVersions;
+import org.example.persistence.UnitOfWork;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * Carteira de cada usuário já resumida em memória. A primeira leitura carrega as posições numa única consulta
+ * e guarda o {@link PortfolioSummaryDTO} pronto; cada ordem processada substitui só a posição do ativo
+ * negociado (com o valor devolvido pelo UPDATE) e recalcula o resumo depois do commit, sem voltar ao banco.
+ * Quando {@link MarketPriceCache} publica cotações novas, o resumo é refeito a partir das posições guardadas.
+ * <p>
+ * Durante a carga o usuário fica marcado; uma ordem que termina nesse meio tempo remove a marca e a carga
+ * não é guardada, para um resultado lido antes do commit não sobrescrever a posição nova. Ordens do mesmo
+ * usuário confirmadas em paralelo podem aplicar seus ajustes fora de ordem, e escritas de outras instâncias
+ * não chegam aqui: por isso o snapshot também expira após {@code PORTFOLIO_SNAPSHOT_TTL_SECONDS}.
+ * Os resumos devolvidos são compartilhados entre as requisições e não devem ser alterados.
+ */
+public class PortfolioSnapshotCache {
+    private static final long TTL_MS = Long.parseLong(
+            System.getenv().getOrDefault("PORTFOLIO_SNAPSHOT_TTL_SECONDS", "300")) * 1000;
+    private static final int MAX_SNAPSHOTS = Integer.parseInt(
+            System.getenv().getOrDefault("PORTFOLIO_SNAPSHOT_MAX_USERS", "10000"));
+    private static final UserAssetDAO userAssetDAO = new UserAssetDAO();
+    private static final Map<Integer, Snapshot> snapshots = new ConcurrentHashMap<>();
+    static {
+        // Nome de ativo ou categoria alterado: os snapshots guardam os nomes e precisam ser refeitos
+        CatalogVersions.addListener(catalog -> {
+            if (CatalogVersions.ASSETS.equals(catalog) || CatalogVersions.ASSET_CATEGORIES.equals(catalog)) {
+                snapshots.clear();
+            }
+        });
+    }
+    public static PortfolioSummaryDTO getSummary(Integer userId) {
+        Snapshot current = snapshots.get(userId);
+        if (current != null && current.isFresh()) {
+            MarketPriceCache.PriceTable prices = MarketPriceCache.currentTable();
+            if (current.priceVersion == prices.getVersion()) {
+                return current.summary;
+            }
+            // Cotações novas: reavalia as posições já guardadas, sem voltar ao banco
+            Snapshot revalued = Snapshot.of(userId, current.positions, current.loadedAt, prices);
+            snapshots.replace(userId, current, revalued);
+            return revalued.summary;
+        }
+        if (snapshots.size() >= MAX_SNAPSHOTS) {
+            snapshots.clear();
+        }
+        Snapshot loading = Snapshot.loading();
+        snapshots.put(userId, loading);
+        Map<Integer, AssetDistributionDTO> positions = new LinkedHashMap<>();
+        for (AssetDistributionDTO position : userAssetDAO.findOpenPositionsWithAsset(userId)) {
+            positions.put(position.getAssetId(), position);
+        }
+        Snapshot loaded = Snapshot.of(userId, positions, System.currentTimeMillis(), MarketPriceCache.currentTable());
+        snapshots.replace(userId, loading, loaded);
+        return loaded.summary;
+    }
+    /**
+     * Aplica a posição resultante de uma ordem ao snapshot do usuário assim que a transação em andamento
+     * fizer commit (na hora, se não houver transação); em caso de rollback nada muda.
+     */
+    public static void onPositionChanged(UserAsset userAsset) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null && unitOfWork.isInTransaction()) {
+            unitOfWork.afterCommit(() -> apply(userAsset));
+        } else {
+            apply(userAsset);
+        }
+    }
+    /**
+     * Descarta o snapshot do usuário após o commit (na hora, se não houver transação), para quando a mudança
+     * não é uma posição resultante, como a exclusão de uma posição.
+     */
+    public static void invalidate(Integer userId) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null && unitOfWork.isInTransaction()) {
+            unitOfWork.afterCommit(() -> snapshots.remove(userId));
+        } else {
+            snapshots.remove(userId);
+        }
+    }
+    private static void apply(UserAsset userAsset) {
+        boolean closed = userAsset.getQuantity() == null || userAsset.getQuantity().compareTo(BigDecimal.ZERO) <= 0;
+        Optional<AssetDistributionDTO> position = closed ? Optional.empty() : toPosition(userAsset);
+        snapshots.computeIfPresent(userAsset.getUserId(), (userId, snapshot) -> {
+            if (!snapshot.isFresh() || (!closed && position.isEmpty())) {
+                return null;
+            }
+            Map<Integer, AssetDistributionDTO> positions = new LinkedHashMap<>(snapshot.positions);
+            if (closed) {
+                positions.remove(userAsset.getAssetId());
+            } else {
+                positions.put(userAsset.getAssetId(), position.get());
+            }
+            // Mantém o instante da carga: os ajustes não adiam a expiração
+            return Snapshot.of(userId, positions, snapshot.loadedAt, MarketPriceCache.currentTable());
+        });
+    }
+    private static Optional<AssetDistributionDTO> toPosition(UserAsset userAsset) {
+        Optional<Asset> asset = ReferenceDataCache.findAsset(userAsset.getAssetId());
+        if (asset.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<AssetCategory> category = ReferenceDataCache.findAssetCategory(asset.get().getCategoryId());
+        if (category.isEmpty()) {
+            return Optional.empty();
+        }
+        AssetDistributionDTO position = new AssetDistributionDTO();
+        position.setAssetId(asset.get().getId());
+        position.setTicker(asset.get().getTicker());
+        position.setAssetName(asset.get().getName());
+        position.setCategoryId(category.get().getId());
+        position.setCategoryName(category.get().getName());
+        position.setQuantity(userAsset.getQuantity());
+        position.setAveragePrice(userAsset.getAveragePrice());
+        return Optional.of(position);
+    }
+    private static class Snapshot {
+        private final Map<Integer, AssetDistributionDTO> positions;
+        private final PortfolioSummaryDTO summary;
+        private final long loadedAt;
+        private final long priceVersion;
+        private Snapshot(Map<Integer, AssetDistributionDTO> positions, PortfolioSummaryDTO summary, long loadedAt,
+                         long priceVersion) {
+            this.positions = positions;
+            this.summary = summary;
+            this.loadedAt = loadedAt;
+            this.priceVersion = priceVersion;
+        }
+        static Snapshot loading() {
+            return new Snapshot(Collections.emptyMap(), null, System.currentTimeMillis(), -1);
+        }
+        static Snapshot of(Integer userId, Map<Integer, AssetDistributionDTO> positions, long loadedAt,
+                           MarketPriceCache.PriceTable prices) {
+            PortfolioSummaryDTO summary = InvestmentPortfolioService.summarize(
+                    userId, List.copyOf(positions.values()), prices);
+            return new Snapshot(Collections.unmodifiableMap(positions), summary, loadedAt, prices.getVersion());
+        }
+        boolean isFresh() {
+            return summary != null && System.currentTimeMillis() - loadedAt < TTL_MS;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.service;
+import org.example.model.PriceQuote;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+/**
+ * Fonte de cotações usada por {@link MarketPriceCache}. Cada chamada recebe um lote de {@code api_identifier}
+ * e devolve as cotações encontradas; identificadores sem cotação simplesmente não aparecem no resultado.
+ */
+public interface PriceFeed {
+    List<PriceQuote> fetchQuotes(Collection<String> apiIdentifiers) throws IOException;
+}
@@ -0,0 +1,31 @@
+package org.example.service;
+import java.time.LocalDateTime;
+public class PriceFeedStats {
+    private final String feed;
+    private final int quotedAssets;
+    private final LocalDateTime refreshedAt;
+    private final long refreshes;
+    private final long failedBatches;
+    public PriceFeedStats(String feed, int quotedAssets, LocalDateTime refreshedAt, long refreshes, long failedBatches) {
+        this.feed = feed;
+        this.quotedAssets = quotedAssets;
+        this.refreshedAt = refreshedAt;
+        this.refreshes = refreshes;
+        this.failedBatches = failedBatches;
+    }
+    public String getFeed() {
+        return feed;
+    }
+    public int getQuotedAssets() {
+        return quotedAssets;
+    }
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+    public long getRefreshes() {
+        return refreshes;
+    }
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+}
@@ -0,0 +1,292 @@
+package org.example.service;
+import org.example.config.SupabaseConfig;
+import org.example.dao.AssetCategoryDAO;
+import org.example.dao.AssetDAO;
+import org.example.dao.SubscriptionPlanDAO;
+import org.example.dao.TransactionCategoryDAO;
+import org.example.model.Asset;
+import org.example.model.AssetCategory;
+import org.example.model.SubscriptionPlan;
+import org.example.model.TransactionCategory;
+import org.example.persistence.CatalogVersions;
+import org.example.persistence.ConnectionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+/**
+ * Cópia em memória das tabelas de referência (categorias de transação, planos, ativos e categorias de ativo),
+ * carregada na subida da aplicação. Cada catálogo é um snapshot imutável trocado atomicamente: leituras nunca
+ * esperam uma recarga. As recargas rodam numa virtual thread própria, fora da requisição (e portanto sem o
+ * token de RLS do usuário), disparadas por escrita local ({@link CatalogVersions}), por agendamento e,
+ * com {@code REFERENCE_DATA_LISTEN=true}, pelo NOTIFY dos triggers de {@code create-reference-data-notify.sql},
+ * que avisa das escritas feitas por outras instâncias.
+ * <p>
+ * Um id que não está no snapshot é buscado no banco, então um registro recém-criado em outra instância não
+ * é rejeitado. O snapshot é compartilhado entre as requisições, então cada leitura devolve uma cópia dos
+ * objetos: quem altera o que recebeu não altera o cache.
+ * <p>
+ * O LISTEN precisa de uma conexão direta ou do pooler em modo sessão ({@link SupabaseConfig#getDirectDatabaseUrl()}):
+ * o pooler em modo transação (porta 6543) não entrega NOTIFY. Sem ela o LISTEN fica desligado e as escritas
+ * de outras instâncias só aparecem na recarga agendada.
+ */
+public class ReferenceDataCache {
+    public static final String NOTIFY_CHANNEL = "reference_data";
+    private static final long REFRESH_INTERVAL_SECONDS = Long.parseLong(
+            System.getenv().getOrDefault("REFERENCE_DATA_REFRESH_SECONDS", "300"));
+    private static final boolean LISTEN_ENABLED = Boolean.parseBoolean(System.getenv("REFERENCE_DATA_LISTEN"));
+    private static final int LISTEN_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+    private static final Map<String, String> CATALOG_BY_TABLE = Map.of(
+            "transaction_categories", CatalogVersions.TRANSACTION_CATEGORIES,
+            "subscription_plans", CatalogVersions.PLANS,
+            "asset", CatalogVersions.ASSETS,
+            "asset_category", CatalogVersions.ASSET_CATEGORIES);
+    private static final TransactionCategoryDAO transactionCategoryDAO = new TransactionCategoryDAO();
+    private static final SubscriptionPlanDAO subscriptionPlanDAO = new SubscriptionPlanDAO();
+    private static final AssetDAO assetDAO = new AssetDAO();
+    private static final AssetCategoryDAO assetCategoryDAO = new AssetCategoryDAO();
+    private static final AtomicReference<Catalog<TransactionCategory>> transactionCategories =
+            new AtomicReference<>(Catalog.empty());
+    private static final AtomicReference<Catalog<SubscriptionPlan>> plans = new AtomicReference<>(Catalog.empty());
+    private static final AtomicReference<Catalog<Asset>> assets = new AtomicReference<>(Catalog.empty());
+    private static final AtomicReference<Catalog<AssetCategory>> assetCategories =
+            new AtomicReference<>(Catalog.empty());
+    private static final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private static final Consumer<String> onCatalogChanged = ReferenceDataCache::requestRefresh;
+    private static ScheduledExecutorService refresher;
+    private static Thread listener;
+    private static volatile boolean running;
+    public static synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        refresher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("reference-data-refresh").factory());
+        for (String catalog : CATALOG_BY_TABLE.values()) {
+            refresh(catalog);
+        }
+        CatalogVersions.addListener(onCatalogChanged);
+        refresher.scheduleWithFixedDelay(ReferenceDataCache::refreshAll,
+                REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        if (LISTEN_ENABLED && SupabaseConfig.getDirectDatabaseUrl() == null) {
+            System.err.println("REFERENCE_DATA_LISTEN ignorado: DATABASE_URL aponta para o pooler em modo transação, " +
+                    "que não entrega NOTIFY. Configure DATABASE_DIRECT_URL (conexão direta ou pooler em modo sessão)");
+        } else if (LISTEN_ENABLED) {
+            listener = Thread.ofVirtual().name("reference-data-listener").start(ReferenceDataCache::listenLoop);
+        }
+    }
+    public static synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        CatalogVersions.removeListener(onCatalogChanged);
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+        refresher.shutdownNow();
+    }
+    public static Optional<TransactionCategory> findTransactionCategory(Integer id) {
+        return find(transactionCategories, CatalogVersions.TRANSACTION_CATEGORIES, id,
+                transactionCategoryDAO::findById);
+    }
+    public static Optional<SubscriptionPlan> findPlan(Integer id) {
+        return find(plans, CatalogVersions.PLANS, id, subscriptionPlanDAO::findById);
+    }
+    public static Optional<SubscriptionPlan> findPlanByName(String name) {
+        Catalog<SubscriptionPlan> catalog = current(plans, CatalogVersions.PLANS);
+        SubscriptionPlan plan = name != null ? catalog.getByKey(name) : null;
+        if (plan != null) {
+            return Optional.of(plan);
+        }
+        Optional<SubscriptionPlan> loaded = subscriptionPlanDAO.findByName(name);
+        loaded.ifPresent(found -> requestRefresh(CatalogVersions.PLANS));
+        return loaded;
+    }
+    public static Optional<Asset> findAsset(Integer id) {
+        return find(assets, CatalogVersions.ASSETS, id, assetDAO::findById);
+    }
+    public static List<Asset> getAssets() {
+        return current(assets, CatalogVersions.ASSETS).values();
+    }
+    public static Optional<AssetCategory> findAssetCategory(Integer id) {
+        return find(assetCategories, CatalogVersions.ASSET_CATEGORIES, id, assetCategoryDAO::findById);
+    }
+    private static <T> Optional<T> find(AtomicReference<Catalog<T>> reference, String catalogName, Integer id,
+                                        Function<Integer, Optional<T>> loader) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        T cached = current(reference, catalogName).get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(found -> requestRefresh(catalogName));
+        return loaded;
+    }
+    private static <T> Catalog<T> current(AtomicReference<Catalog<T>> reference, String catalogName) {
+        Catalog<T> catalog = reference.get();
+        if (catalog.version != CatalogVersions.current(catalogName)) {
+            requestRefresh(catalogName);
+        }
+        return catalog;
+    }
+    /**
+     * Agenda a recarga de um catálogo; pedidos repetidos enquanto uma recarga está pendente são unidos.
+     */
+    private static void requestRefresh(String catalogName) {
+        if (!running || !pendingRefreshes.add(catalogName)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                pendingRefreshes.remove(catalogName);
+                refresh(catalogName);
+            });
+        } catch (RuntimeException e) {
+            pendingRefreshes.remove(catalogName);
+        }
+    }
+    private static void refreshAll() {
+        for (String catalog : CATALOG_BY_TABLE.values()) {
+            refresh(catalog);
+        }
+    }
+    private static void refresh(String catalogName) {
+        // A versão é lida antes da carga: uma escrita concorrente deixa o snapshot com versão antiga
+        // e provoca outra recarga na próxima leitura
+        long version = CatalogVersions.current(catalogName);
+        try {
+            switch (catalogName) {
+                case CatalogVersions.TRANSACTION_CATEGORIES -> transactionCategories.set(Catalog.of(version,
+                        transactionCategoryDAO.findAll(), TransactionCategory::getCategoryId, TransactionCategory::getName,
+                        ReferenceDataCache::copy));
+                case CatalogVersions.PLANS -> plans.set(Catalog.of(version,
+                        subscriptionPlanDAO.findAll(), SubscriptionPlan::getPlanId, SubscriptionPlan::getName,
+                        ReferenceDataCache::copy));
+                case CatalogVersions.ASSETS -> assets.set(Catalog.of(version,
+                        assetDAO.findAll(), Asset::getId, Asset::getTicker, ReferenceDataCache::copy));
+                case CatalogVersions.ASSET_CATEGORIES -> assetCategories.set(Catalog.of(version,
+                        assetCategoryDAO.findAll(), AssetCategory::getId, AssetCategory::getName,
+                        ReferenceDataCache::copy));
+                default -> throw new IllegalArgumentException("Catálogo desconhecido: " + catalogName);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao recarregar dados de referência (" + catalogName + "): " + e.getMessage());
+        }
+    }
+    private static void listenLoop() {
+        while (running) {
+            try (Connection conn = ConnectionFactory.openDedicatedConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + NOTIFY_CHANNEL);
+                }
+                // Mudanças feitas enquanto não havia LISTEN ativo só seriam vistas no próximo agendamento
+                refreshAll();
+                PGConnection pgConn = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConn.getNotifications(LISTEN_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        String catalog = CATALOG_BY_TABLE.get(notification.getParameter());
+                        if (catalog != null) {
+                            CatalogVersions.bump(catalog);
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                System.err.println("Erro no LISTEN de dados de referência: " + e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+    private static TransactionCategory copy(TransactionCategory source) {
+        TransactionCategory category = new TransactionCategory(source.getName(), source.getIconCode());
+        category.setCategoryId(source.getCategoryId());
+        category.setCreatedAt(source.getCreatedAt());
+        return category;
+    }
+    private static SubscriptionPlan copy(SubscriptionPlan source) {
+        SubscriptionPlan plan = new SubscriptionPlan(source.getName(), source.getPrice(), source.getDescription());
+        plan.setPlanId(source.getPlanId());
+        plan.setCreatedAt(source.getCreatedAt());
+        return plan;
+    }
+    private static Asset copy(Asset source) {
+        Asset asset = new Asset(source.getTicker(), source.getName(), source.getCategoryId(), source.getApiIdentifier());
+        asset.setId(source.getId());
+        asset.setIsActive(source.getIsActive());
+        return asset;
+    }
+    private static AssetCategory copy(AssetCategory source) {
+        AssetCategory category = new AssetCategory(source.getName());
+        category.setId(source.getId());
+        return category;
+    }
+    private static class Catalog<T> {
+        private final long version;
+        private final Map<Integer, T> byId;
+        private final Map<String, T> byKey;
+        private final UnaryOperator<T> copier;
+        private Catalog(long version, Map<Integer, T> byId, Map<String, T> byKey, UnaryOperator<T> copier) {
+            this.version = version;
+            this.byId = byId;
+            this.byKey = byKey;
+            this.copier = copier;
+        }
+        static <T> Catalog<T> empty() {
+            return new Catalog<>(-1, Collections.emptyMap(), Collections.emptyMap(), UnaryOperator.identity());
+        }
+        T get(Integer id) {
+            T row = byId.get(id);
+            return row != null ? copier.apply(row) : null;
+        }
+        T getByKey(String key) {
+            T row = byKey.get(key);
+            return row != null ? copier.apply(row) : null;
+        }
+        List<T> values() {
+            return byId.values().stream().map(copier).toList();
+        }
+        static <T> Catalog<T> of(long version, List<T> rows, Function<T, Integer> id, Function<T, String> key,
+                                 UnaryOperator<T> copier) {
+            Map<Integer, T> byId = new HashMap<>();
+            Map<String, T> byKey = new HashMap<>();
+            for (T row : rows) {
+                byId.put(id.apply(row), row);
+                if (key.apply(row) != null) {
+                    byKey.put(key.apply(row), row);
+                }
+            }
+            return new Catalog<>(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byKey), copier);
+        }
+    }
+}
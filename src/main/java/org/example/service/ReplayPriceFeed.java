@@ -0,0 +1,87 @@
+package org.example.service;
+import org.example.model.PriceQuote;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * Feed local lido de um CSV ({@code api_identifier,price,previous_close,quoted_at}, com cabeçalho opcional),
+ * para desenvolvimento e testes sem acesso à API externa. As linhas de um mesmo identificador são reproduzidas
+ * em ordem, uma por busca, e a última fica valendo quando a série acaba; sem {@code quoted_at}, vale o horário
+ * da busca. O arquivo é relido quando muda,
+ * voltando a série ao início.
+ */
+public class ReplayPriceFeed implements PriceFeed {
+    private final Path file;
+    private FileTime loadedModifiedTime;
+    private Map<String, List<PriceQuote>> series = new HashMap<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    public ReplayPriceFeed(Path file) {
+        this.file = file;
+    }
+    @Override
+    public synchronized List<PriceQuote> fetchQuotes(Collection<String> apiIdentifiers) throws IOException {
+        reloadIfChanged();
+        List<PriceQuote> quotes = new ArrayList<>(apiIdentifiers.size());
+        for (String apiIdentifier : apiIdentifiers) {
+            List<PriceQuote> ticks = series.get(apiIdentifier);
+            if (ticks == null) {
+                continue;
+            }
+            int position = positions.getOrDefault(apiIdentifier, 0);
+            quotes.add(ticks.get(position));
+            if (position < ticks.size() - 1) {
+                positions.put(apiIdentifier, position + 1);
+            }
+        }
+        return quotes;
+    }
+    private void reloadIfChanged() throws IOException {
+        FileTime modifiedTime = Files.getLastModifiedTime(file);
+        if (modifiedTime.equals(loadedModifiedTime)) {
+            return;
+        }
+        Map<String, List<PriceQuote>> loaded = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("api_identifier")) {
+                    continue;
+                }
+                PriceQuote quote = parseLine(line, lineNumber);
+                loaded.computeIfAbsent(quote.getApiIdentifier(), key -> new ArrayList<>()).add(quote);
+            }
+        }
+        series = loaded;
+        positions.clear();
+        loadedModifiedTime = modifiedTime;
+    }
+    private PriceQuote parseLine(String line, int lineNumber) throws IOException {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 2) {
+            throw new IOException("Linha " + lineNumber + " inválida em " + file + ": " + line);
+        }
+        try {
+            BigDecimal price = new BigDecimal(fields[1].trim());
+            BigDecimal previousClose = fields.length > 2 && !fields[2].trim().isEmpty()
+                    ? new BigDecimal(fields[2].trim()) : null;
+            LocalDateTime quotedAt = fields.length > 3 && !fields[3].trim().isEmpty()
+                    ? LocalDateTime.parse(fields[3].trim()) : null;
+            return new PriceQuote(fields[0].trim(), price, previousClose, quotedAt);
+        } catch (RuntimeException e) {
+            throw new IOException("Linha " + lineNumber + " inválida em " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
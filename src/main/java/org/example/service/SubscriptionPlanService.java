@@ -1,6 +1,7 @@
 package org.example.service;
 import org.example.dao.SubscriptionPlanDAO;
 import org.example.model.SubscriptionPlan;
+import org.example.persistence.CatalogVersions;
 import java.util.List;
 import java.util.Optional;
 public class SubscriptionPlanService {
@@ -19,7 +20,9 @@ public class SubscriptionPlanService {
         if (existing.isPresent()) {
             throw new IllegalArgumentException("Já existe um plano com o nome: " + plan.getName());
         }
-        return planDAO.save(plan);
+        SubscriptionPlan created = planDAO.save(plan);
+        CatalogVersions.bump(CatalogVersions.PLANS);
+        return created;
     }
     public SubscriptionPlan getPlanById(Integer id) {
         if (id == null) {
@@ -45,7 +48,9 @@ public class SubscriptionPlanService {
             throw new IllegalArgumentException("ID do plano é obrigatório para atualização");
         }
         getPlanById(plan.getPlanId());
-        return planDAO.update(plan);
+        SubscriptionPlan updated = planDAO.update(plan);
+        CatalogVersions.bump(CatalogVersions.PLANS);
+        return updated;
     }
     public void deletePlan(Integer id) {
         if (id == null) {
@@ -55,5 +60,6 @@ public class SubscriptionPlanService {
         if (!deleted) {
             throw new IllegalArgumentException("Plano não encontrado com ID: " + id);
         }
+        CatalogVersions.bump(CatalogVersions.PLANS);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.example.service;
 import org.example.dao.TransactionCategoryDAO;
 import org.example.model.TransactionCategory;
+import org.example.persistence.CatalogVersions;
 import java.util.List;
 import java.util.Optional;
 public class TransactionCategoryService {
@@ -19,7 +20,9 @@ public class TransactionCategoryService {
         if (existing.isPresent()) {
             throw new IllegalArgumentException("Já existe uma categoria com o nome: " + category.getName());
         }
-        return categoryDAO.save(category);
+        TransactionCategory created = categoryDAO.save(category);
+        CatalogVersions.bump(CatalogVersions.TRANSACTION_CATEGORIES);
+        return created;
     }
     public TransactionCategory getCategoryById(Integer id) {
         if (id == null) {
@@ -54,7 +57,9 @@ public class TransactionCategoryService {
         if (category.getName() == null || category.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Nome da categoria é obrigatório");
         }
-        return categoryDAO.update(category);
+        TransactionCategory updated = categoryDAO.update(category);
+        CatalogVersions.bump(CatalogVersions.TRANSACTION_CATEGORIES);
+        return updated;
     }
     public void deleteCategory(Integer id) {
         if (id == null) {
@@ -64,5 +69,6 @@ public class TransactionCategoryService {
         if (!deleted) {
             throw new IllegalArgumentException("Categoria não encontrada com ID: " + id);
         }
+        CatalogVersions.bump(CatalogVersions.TRANSACTION_CATEGORIES);
     }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package org.example.service;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.example.dao.AccountDAO;
+import org.example.dao.TransactionCategoryDAO;
+import org.example.dao.TransactionDAO;
+import org.example.dto.TransactionImportResultDTO;
+import org.example.model.Transaction;
+import org.example.model.TransactionTypeEnum;
+import org.example.persistence.JdbcUtil;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+/**
+ * Importação de extratos em lote (array JSON ou CSV com cabeçalho). As linhas são validadas em memória
+ * contra as contas ativas do usuário e as categorias, carregadas uma única vez; cada lote de
+ * {@link #BATCH_SIZE} linhas é gravado com COPY e um único UPDATE com o delta líquido de cada conta.
+ * A importação inteira roda numa transação: se um lote falhar, nada é gravado.
+ */
+public class TransactionImportService {
+    public static final int MAX_ROWS = 50_000;
+    public static final int BATCH_SIZE = 5_000;
+    public static final long MAX_BODY_BYTES = 32L * 1024 * 1024;
+    private static final DateTimeFormatter BR_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private final TransactionDAO transactionDAO;
+    private final AccountDAO accountDAO;
+    private final TransactionCategoryDAO categoryDAO;
+    public TransactionImportService() {
+        this.transactionDAO = new TransactionDAO();
+        this.accountDAO = new AccountDAO();
+        this.categoryDAO = new TransactionCategoryDAO();
+    }
+    public TransactionImportResultDTO importJson(UUID userId, UUID defaultAccountId, String body) {
+        JsonArray array;
+        try {
+            array = JsonParser.parseString(body).getAsJsonArray();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("O corpo da importação deve ser um array JSON de transações");
+        }
+        checkRowCount(array.size());
+        List<Transaction> transactions = new ArrayList<>(array.size());
+        for (JsonElement element : array) {
+            int rowNumber = transactions.size() + 1;
+            if (!element.isJsonObject()) {
+                throw rowError(rowNumber, "registro deve ser um objeto JSON");
+            }
+            Map<String, String> row = new HashMap<>();
+            for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                if (field.getValue().isJsonPrimitive()) {
+                    row.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().getAsString().trim());
+                }
+            }
+            transactions.add(toTransaction(row, rowNumber, defaultAccountId));
+        }
+        return importTransactions(userId, transactions);
+    }
+    /**
+     * Aceita CSV separado por vírgula ou ponto e vírgula (detectado pelo cabeçalho), com campos entre aspas,
+     * que podem conter quebras de linha. As colunas são reconhecidas pelo nome no cabeçalho, em português ou inglês.
+     */
+    public TransactionImportResultDTO importCsv(UUID userId, UUID defaultAccountId, String csv) {
+        String text = csv.startsWith("\uFEFF") ? csv.substring(1) : csv;
+        int headerEnd = text.indexOf('\n');
+        String header = headerEnd >= 0 ? text.substring(0, headerEnd) : text;
+        if (header.trim().isEmpty()) {
+            throw new IllegalArgumentException("CSV vazio: a primeira linha deve ser o cabeçalho");
+        }
+        CsvReader reader = new CsvReader(text, header.indexOf(';') >= 0 ? ';' : ',');
+        List<String> columns = reader.next();
+        columns.replaceAll(column -> column.toLowerCase(Locale.ROOT));
+        List<Transaction> transactions = new ArrayList<>();
+        List<String> values;
+        while ((values = reader.next()) != null) {
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                continue;
+            }
+            int rowNumber = transactions.size() + 1;
+            checkRowCount(rowNumber);
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < Math.min(columns.size(), values.size()); i++) {
+                if (!values.get(i).isEmpty()) {
+                    row.put(columns.get(i), values.get(i));
+                }
+            }
+            transactions.add(toTransaction(row, rowNumber, defaultAccountId));
+        }
+        return importTransactions(userId, transactions);
+    }
+    private TransactionImportResultDTO importTransactions(UUID userId, List<Transaction> transactions) {
+        if (userId == null) {
+            throw new IllegalArgumentException("Usuário é obrigatório para importar transações");
+        }
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma transação para importar");
+        }
+        long start = System.currentTimeMillis();
+        return JdbcUtil.executeInTransactionWithRetry(conn -> {
+            Set<UUID> accountIds = accountDAO.findActiveAccountIdsByUserId(conn, userId);
+            Set<Integer> categoryIds = categoryDAO.findAllIds(conn);
+            for (int i = 0; i < transactions.size(); i++) {
+                validateRow(transactions.get(i), i + 1, accountIds, categoryIds);
+            }
+            Map<UUID, BigDecimal> balances = new LinkedHashMap<>();
+            int batches = 0;
+            for (int from = 0; from < transactions.size(); from += BATCH_SIZE) {
+                List<Transaction> batch = transactions.subList(from, Math.min(from + BATCH_SIZE, transactions.size()));
+                Map<UUID, BigDecimal> deltas = new LinkedHashMap<>();
+                for (Transaction transaction : batch) {
+                    LedgerService.balanceDeltas(transaction).forEach((accountId, delta) -> deltas.merge(accountId, delta, BigDecimal::add));
+                }
+                deltas.values().removeIf(delta -> delta.signum() == 0);
+                Map<UUID, BigDecimal> newBalances = accountDAO.applyBalanceDeltas(conn, deltas);
+                if (newBalances.size() != deltas.size()) {
+                    throw new IllegalArgumentException(String.format(
+                        "Saldo insuficiente para importar os registros %d a %d", from + 1, from + batch.size()));
+                }
+                transactionDAO.copyIn(conn, batch);
+                balances.putAll(newBalances);
+                batches++;
+            }
+            return new TransactionImportResultDTO(transactions.size(), batches,
+                    System.currentTimeMillis() - start, balances);
+        });
+    }
+    private Transaction toTransaction(Map<String, String> row, int rowNumber, UUID defaultAccountId) {
+        Transaction transaction = new Transaction();
+        UUID sourceAccountId = parseUuid(field(row, "sourceaccountid", "accountid", "conta"), rowNumber);
+        transaction.setSourceAccountId(sourceAccountId != null ? sourceAccountId : defaultAccountId);
+        transaction.setDestinationAccountId(parseUuid(field(row, "destinationaccountid", "contadestino"), rowNumber));
+        String categoryId = field(row, "categoryid", "categoria");
+        if (categoryId != null) {
+            try {
+                transaction.setCategoryId(Integer.parseInt(categoryId));
+            } catch (NumberFormatException e) {
+                throw rowError(rowNumber, "categoria inválida: " + categoryId);
+            }
+        }
+        BigDecimal amount = parseAmount(field(row, "amount", "valor", "value"), rowNumber);
+        transaction.setTransactionType(parseType(row, rowNumber, amount, transaction.getDestinationAccountId()));
+        transaction.setAmount(amount.abs());
+        transaction.setDescription(field(row, "description", "descricao", "descrição", "memo"));
+        String date = field(row, "transactiondate", "date", "data");
+        transaction.setTransactionDate(date != null ? parseDate(date, rowNumber) : LocalDate.now());
+        transaction.setIsRecurring(false);
+        return transaction;
+    }
+    private void validateRow(Transaction transaction, int rowNumber, Set<UUID> accountIds, Set<Integer> categoryIds) {
+        if (transaction.getSourceAccountId() == null) {
+            throw rowError(rowNumber, "conta de origem é obrigatória");
+        }
+        if (!accountIds.contains(transaction.getSourceAccountId())) {
+            throw rowError(rowNumber, "conta de origem não pertence ao usuário ou está inativa");
+        }
+        if (transaction.getTransactionType() == TransactionTypeEnum.TRANSFER) {
+            UUID destinationAccountId = transaction.getDestinationAccountId();
+            if (destinationAccountId == null || destinationAccountId.equals(transaction.getSourceAccountId())) {
+                throw rowError(rowNumber, "transferência exige uma conta de destino diferente da origem");
+            }
+            if (!accountIds.contains(destinationAccountId)) {
+                throw rowError(rowNumber, "conta de destino não pertence ao usuário ou está inativa");
+            }
+        } else if (transaction.getDestinationAccountId() != null) {
+            throw rowError(rowNumber, "conta de destino só é permitida em transferências");
+        }
+        if (transaction.getAmount().signum() == 0) {
+            throw rowError(rowNumber, "valor da transação deve ser diferente de zero");
+        }
+        if (transaction.getDescription() == null) {
+            throw rowError(rowNumber, "descrição é obrigatória");
+        }
+        if (transaction.getDescription().length() > 255) {
+            throw rowError(rowNumber, "descrição deve ter no máximo 255 caracteres");
+        }
+        if (transaction.getCategoryId() != null && !categoryIds.contains(transaction.getCategoryId())) {
+            throw rowError(rowNumber, "categoria não encontrada com ID: " + transaction.getCategoryId());
+        }
+    }
+    private static TransactionTypeEnum parseType(Map<String, String> row, int rowNumber, BigDecimal amount,
+                                                 UUID destinationAccountId) {
+        String type = field(row, "transactiontype", "type", "tipo");
+        if (type != null) {
+            try {
+                return TransactionTypeEnum.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw rowError(rowNumber, "tipo de transação inválido: " + type);
+            }
+        }
+        if (destinationAccountId != null) {
+            return TransactionTypeEnum.TRANSFER;
+        }
+        String isIncome = field(row, "isincome");
+        if (isIncome != null) {
+            return Boolean.parseBoolean(isIncome) ? TransactionTypeEnum.DEPOSIT : TransactionTypeEnum.PAYMENT;
+        }
+        return amount.signum() < 0 ? TransactionTypeEnum.PAYMENT : TransactionTypeEnum.DEPOSIT;
+    }
+    private static BigDecimal parseAmount(String value, int rowNumber) {
+        if (value == null) {
+            throw rowError(rowNumber, "valor é obrigatório");
+        }
+        String normalized = value.replace("R$", "").replace(" ", "");
+        if (normalized.indexOf(',') >= 0) {
+            normalized = normalized.replace(".", "").replace(",", ".");
+        }
+        try {
+            return new BigDecimal(normalized);
+        } catch (NumberFormatException e) {
+            throw rowError(rowNumber, "formato de valor inválido: " + value);
+        }
+    }
+    private static LocalDate parseDate(String value, int rowNumber) {
+        try {
+            if (value.indexOf('/') >= 0) {
+                return LocalDate.parse(value, BR_DATE_FORMATTER);
+            }
+            return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+        } catch (DateTimeParseException e) {
+            throw rowError(rowNumber, "formato de data inválido: " + value + ". Use YYYY-MM-DD ou DD/MM/YYYY");
+        }
+    }
+    private static UUID parseUuid(String value, int rowNumber) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw rowError(rowNumber, "ID de conta inválido: " + value);
+        }
+    }
+    private static String field(Map<String, String> row, String... names) {
+        for (String name : names) {
+            String value = row.get(name);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+    private static void checkRowCount(int rows) {
+        if (rows > MAX_ROWS) {
+            throw new IllegalArgumentException("A importação aceita no máximo " + MAX_ROWS + " transações por vez");
+        }
+    }
+    private static IllegalArgumentException rowError(int rowNumber, String message) {
+        return new IllegalArgumentException("Registro " + rowNumber + ": " + message);
+    }
+    /**
+     * Lê o CSV registro a registro (RFC 4180): entre aspas, separador, quebra de linha e aspas duplicadas
+     * ({@code ""}) fazem parte do campo; fora delas, {@code \n} ou {@code \r\n} encerra o registro.
+     */
+    private static final class CsvReader {
+        private final String text;
+        private final char separator;
+        private int position;
+        private CsvReader(String text, char separator) {
+            this.text = text;
+            this.separator = separator;
+        }
+        /**
+         * Próximo registro, ou null no fim do texto.
+         */
+        private List<String> next() {
+            if (position >= text.length()) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (position < text.length() && text.charAt(position) == '"') {
+                        value.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    values.add(value.toString().trim());
+                    value.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c == '\r') {
+                    if (position < text.length() && text.charAt(position) == '\n') {
+                        position++;
+                    }
+                    break;
+                } else {
+                    value.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("CSV inválido: campo entre aspas sem aspas de fechamento");
+            }
+            values.add(value.toString().trim());
+            return values;
+        }
+    }
+}
@@ -1,53 +1,63 @@
 package org.example.service;
 import org.example.dao.TransactionDAO;
 import org.example.dao.AccountDAO;
-import org.example.dao.TransactionCategoryDAO;
+import org.example.dao.Projection;
+import org.example.dao.TransactionCursor;
+import org.example.dto.PageDTO;
+import org.example.dto.TransactionSummaryDTO;
+import org.example.model.Account;
 import org.example.model.Transaction;
 import org.example.model.TransactionTypeEnum;
+import org.example.persistence.JdbcUtil;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 public class TransactionService {
     private final TransactionDAO transactionDAO;
     private final AccountDAO accountDAO;
-    private final TransactionCategoryDAO categoryDAO;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private final LedgerService ledgerService;
     public TransactionService() {
         this.transactionDAO = new TransactionDAO();
         this.accountDAO = new AccountDAO();
-        this.categoryDAO = new TransactionCategoryDAO();
+        this.ledgerService = new LedgerService();
     }
     public Transaction createTransaction(Transaction transaction) {
         if (transaction == null) {
             throw new IllegalArgumentException("Transação não pode ser nula");
         }
         validateTransaction(transaction);
-        accountDAO.findById(transaction.getSourceAccountId())
-                .orElseThrow(() -> new IllegalArgumentException("Conta de origem não encontrada com ID: " + transaction.getSourceAccountId()));
-        if (transaction.getDestinationAccountId() != null) {
-            accountDAO.findById(transaction.getDestinationAccountId())
-                    .orElseThrow(() -> new IllegalArgumentException("Conta de destino não encontrada com ID: " + transaction.getDestinationAccountId()));
-        }
-        if (transaction.getCategoryId() != null) {
-            categoryDAO.findById(transaction.getCategoryId())
-                    .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com ID: " + transaction.getCategoryId()));
-        }
         if (transaction.getTransactionDate() == null) {
             transaction.setTransactionDate(LocalDate.now());
         }
         if (transaction.getIsRecurring() == null) {
             transaction.setIsRecurring(false);
         }
-        validateSufficientBalance(transaction);
-        return saveTransactionAndUpdateBalances(transaction);
+        return JdbcUtil.executeInTransactionWithRetry(conn -> {
+            Account sourceAccount = accountDAO.findById(transaction.getSourceAccountId())
+                    .orElseThrow(() -> new IllegalArgumentException("Conta de origem não encontrada com ID: " + transaction.getSourceAccountId()));
+            if (transaction.getDestinationAccountId() != null) {
+                accountDAO.findById(transaction.getDestinationAccountId())
+                        .orElseThrow(() -> new IllegalArgumentException("Conta de destino não encontrada com ID: " + transaction.getDestinationAccountId()));
+            }
+            if (transaction.getCategoryId() != null) {
+                ReferenceDataCache.findTransactionCategory(transaction.getCategoryId())
+                        .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com ID: " + transaction.getCategoryId()));
+            }
+            validateSufficientBalance(transaction, sourceAccount);
+            return saveTransactionAndUpdateBalances(conn, transaction);
+        });
     }
-    private void validateSufficientBalance(Transaction transaction) {
+    private void validateSufficientBalance(Transaction transaction, Account sourceAccount) {
         TransactionTypeEnum type = transaction.getTransactionType();
         if (type == TransactionTypeEnum.WITHDRAWAL || 
             type == TransactionTypeEnum.PAYMENT || 
             type == TransactionTypeEnum.TRANSFER) {
-            org.example.model.Account sourceAccount = accountDAO.findById(transaction.getSourceAccountId())
-                    .orElseThrow(() -> new IllegalArgumentException("Conta de origem não encontrada"));
             BigDecimal currentBalance = sourceAccount.getBalance();
             BigDecimal transactionAmount = transaction.getAmount();
             if (currentBalance.compareTo(transactionAmount) < 0) {
@@ -58,103 +68,12 @@ public class TransactionService {
             }
         }
     }
-    private Transaction saveTransactionAndUpdateBalances(Transaction transaction) {
-        return org.example.persistence.JdbcUtil.executeInTransaction(conn -> {
-            try {
-                Transaction savedTransaction = saveTransactionInConnection(conn, transaction);
-                updateAccountBalancesInConnection(conn, savedTransaction);
-                return savedTransaction;
-            } catch (SQLException e) {
-                throw new RuntimeException("Erro ao salvar transação e atualizar saldos: " + e.getMessage(), e);
-            }
-        });
-    }
-    private Transaction saveTransactionInConnection(java.sql.Connection conn, Transaction transaction) throws SQLException {
-        if (transaction.getTransactionDate() == null) {
-            transaction.setTransactionDate(java.time.LocalDate.now());
-        }
-        if (transaction.getIsRecurring() == null) {
-            transaction.setIsRecurring(false);
-        }
-        if (transaction.getCreatedAt() == null) {
-            transaction.setCreatedAt(java.time.LocalDateTime.now());
-        }
-        String sql = "INSERT INTO transactions (source_account_id, destination_account_id, category_id, " +
-                    "amount, transaction_type, description, transaction_date, is_recurring, " +
-                    "installment_current, installment_total, created_at) " +
-                    "VALUES (?, ?, ?, ?, ?::transaction_type_enum, ?, ?, ?, ?, ?, ?) RETURNING transaction_id";
-        try (java.sql.PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, transaction.getSourceAccountId());
-            if (transaction.getDestinationAccountId() != null) {
-                stmt.setInt(2, transaction.getDestinationAccountId());
-            } else {
-                stmt.setNull(2, java.sql.Types.INTEGER);
-            }
-            if (transaction.getCategoryId() != null) {
-                stmt.setInt(3, transaction.getCategoryId());
-            } else {
-                stmt.setNull(3, java.sql.Types.INTEGER);
-            }
-            stmt.setBigDecimal(4, transaction.getAmount());
-            stmt.setString(5, transaction.getTransactionType().toString());
-            stmt.setString(6, transaction.getDescription());
-            stmt.setDate(7, java.sql.Date.valueOf(transaction.getTransactionDate()));
-            stmt.setBoolean(8, transaction.getIsRecurring());
-            if (transaction.getInstallmentCurrent() != null) {
-                stmt.setInt(9, transaction.getInstallmentCurrent());
-            } else {
-                stmt.setNull(9, java.sql.Types.INTEGER);
-            }
-            if (transaction.getInstallmentTotal() != null) {
-                stmt.setInt(10, transaction.getInstallmentTotal());
-            } else {
-                stmt.setNull(10, java.sql.Types.INTEGER);
-            }
-            stmt.setTimestamp(11, java.sql.Timestamp.valueOf(transaction.getCreatedAt()));
-            try (java.sql.ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    transaction.setTransactionId(rs.getInt("transaction_id"));
-                }
-            }
+    private Transaction saveTransactionAndUpdateBalances(java.sql.Connection conn, Transaction transaction) {
+        try {
+            ledgerService.post(conn, Collections.singletonList(transaction), LedgerService.balanceDeltas(transaction));
             return transaction;
-        }
-    }
-    private void updateAccountBalancesInConnection(java.sql.Connection conn, Transaction transaction) throws SQLException {
-        BigDecimal amount = transaction.getAmount();
-        TransactionTypeEnum type = transaction.getTransactionType();
-        Integer sourceAccountId = transaction.getSourceAccountId();
-        Integer destinationAccountId = transaction.getDestinationAccountId();
-        String updateSql = "UPDATE accounts SET balance = balance + ? WHERE account_id = ? AND status = 'ACTIVE'";
-        switch (type) {
-            case DEPOSIT:
-                try (java.sql.PreparedStatement stmt = conn.prepareStatement(updateSql)) {
-                    stmt.setBigDecimal(1, amount);
-                    stmt.setInt(2, sourceAccountId);
-                    stmt.executeUpdate();
-                }
-                break;
-            case WITHDRAWAL:
-            case PAYMENT:
-                try (java.sql.PreparedStatement stmt = conn.prepareStatement(updateSql)) {
-                    stmt.setBigDecimal(1, amount.negate());
-                    stmt.setInt(2, sourceAccountId);
-                    stmt.executeUpdate();
-                }
-                break;
-            case TRANSFER:
-                if (destinationAccountId != null) {
-                    try (java.sql.PreparedStatement stmt = conn.prepareStatement(updateSql)) {
-                        stmt.setBigDecimal(1, amount.negate());
-                        stmt.setInt(2, sourceAccountId);
-                        stmt.executeUpdate();
-                    }
-                    try (java.sql.PreparedStatement stmt = conn.prepareStatement(updateSql)) {
-                        stmt.setBigDecimal(1, amount);
-                        stmt.setInt(2, destinationAccountId);
-                        stmt.executeUpdate();
-                    }
-                }
-                break;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao salvar transação e atualizar saldos: " + e.getMessage(), e);
         }
     }
     public Transaction getTransactionById(Integer id) {
@@ -206,6 +125,35 @@ public class TransactionService {
         }
         return transactionDAO.findByDateRange(startDate, endDate);
     }
+    public PageDTO<Transaction> getTransactionPage(UUID userId, UUID accountId, LocalDate startDate, LocalDate endDate,
+                                                   String cursor, int limit) {
+        return getPage(TransactionDAO.TRANSACTION, userId, accountId, startDate, endDate, cursor, limit,
+                TransactionCursor::after);
+    }
+    public PageDTO<TransactionSummaryDTO> getTransactionSummaryPage(UUID userId, UUID accountId, LocalDate startDate,
+                                                                    LocalDate endDate, String cursor, int limit) {
+        return getPage(TransactionDAO.SUMMARY, userId, accountId, startDate, endDate, cursor, limit,
+                summary -> new TransactionCursor(summary.getTransactionDate(), summary.getCreatedAt(), summary.getTransactionId()));
+    }
+    private <T> PageDTO<T> getPage(Projection<T> projection, UUID userId, UUID accountId, LocalDate startDate,
+                                   LocalDate endDate, String cursor, int limit, Function<T, TransactionCursor> cursorOf) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("Datas inicial e final são obrigatórias");
+        }
+        if (startDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final");
+        }
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int fetchSize = limit + 1;
+        List<T> rows = transactionDAO.findPage(projection, userId, accountId, startDate, endDate, after, fetchSize);
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(limit - 1)).encode() : null;
+        return new PageDTO<>(items, limit, hasMore, nextCursor);
+    }
     public List<Transaction> getRecurringTransactions() {
         return transactionDAO.findRecurringTransactions();
     }
@@ -227,7 +175,7 @@ public class TransactionService {
                     .orElseThrow(() -> new IllegalArgumentException("Conta de destino não encontrada com ID: " + transaction.getDestinationAccountId()));
         }
         if (transaction.getCategoryId() != null) {
-            categoryDAO.findById(transaction.getCategoryId())
+            ReferenceDataCache.findTransactionCategory(transaction.getCategoryId())
                     .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com ID: " + transaction.getCategoryId()));
         }
         return transactionDAO.update(transaction);
@@ -1,16 +1,13 @@
 package org.example.service;
 import org.example.dao.UserAssetDAO;
-import org.example.dao.AssetDAO;
 import org.example.model.UserAsset;
 import java.math.BigDecimal;
 import java.util.List;
 public class UserAssetService {
     private final UserAssetDAO userAssetDAO;
-    private final AssetDAO assetDAO;
     private final UserService userService;
     public UserAssetService() {
         this.userAssetDAO = new UserAssetDAO();
-        this.assetDAO = new AssetDAO();
         this.userService = new UserService();
     }
     public UserAsset saveOrUpdateUserAsset(UserAsset userAsset) {
@@ -19,9 +16,11 @@ public class UserAssetService {
         }
         validateUserAsset(userAsset);
         userService.getUserById(userAsset.getUserId());
-        assetDAO.findById(userAsset.getAssetId())
+        ReferenceDataCache.findAsset(userAsset.getAssetId())
                 .orElseThrow(() -> new IllegalArgumentException("Ativo não encontrado com ID: " + userAsset.getAssetId()));
-        return userAssetDAO.saveOrUpdate(userAsset);
+        UserAsset saved = userAssetDAO.saveOrUpdate(userAsset);
+        PortfolioSnapshotCache.onPositionChanged(saved);
+        return saved;
     }
     public UserAsset getUserAssetById(Integer id) {
         if (id == null) {
@@ -50,10 +49,12 @@ public class UserAssetService {
         if (id == null) {
             throw new IllegalArgumentException("ID não pode ser nulo");
         }
+        UserAsset existing = getUserAssetById(id);
         boolean deleted = userAssetDAO.delete(id);
         if (!deleted) {
             throw new IllegalArgumentException("Posição não encontrada com ID: " + id);
         }
+        PortfolioSnapshotCache.invalidate(existing.getUserId());
     }
     private void validateUserAsset(UserAsset userAsset) {
         if (userAsset.getUserId() == null) {
@@ -1,4 +1,5 @@
 package org.example.service;
+import org.example.dao.OutboxJobDAO;
 import org.example.dto.UserRequestDTO;
 import org.example.dto.UserResponseDTO;
 import org.example.dto.UserUpdateDTO;
@@ -7,6 +8,8 @@ import org.example.model.Account;
 import org.example.model.AccountTypeEnum;
 import org.example.model.Card;
 import org.example.model.CardTypeEnum;
+import org.example.model.OutboxJob;
+import org.example.persistence.JdbcUtil;
 import org.example.utils.EncryptPassword;
 import org.example.utils.ValidateCPF;
 import org.example.utils.Validations;
@@ -16,17 +19,20 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.UUID;
 public class UserFormService {
     private final UserService userService;
     private final AccountService accountService;
     private final CardService cardService;
     private final BoletoService boletoService;
+    private final OutboxJobDAO outboxJobDAO;
     private static final Random random = new Random();
     public UserFormService() {
         this.userService = new UserService();
         this.accountService = new AccountService();
         this.cardService = new CardService();
         this.boletoService = new BoletoService();
+        this.outboxJobDAO = new OutboxJobDAO();
     }
     public UserResponseDTO createUserFromForm(UserRequestDTO userDTO) {
         if (userDTO == null) {
@@ -62,11 +68,36 @@ public class UserFormService {
         user.setPasswordHash(passwordHash);
         user.setDateOfBirth(LocalDate.now()); 
         user.setIsActive(true);
-        User savedUser = userService.createUser(user);
-        Account createdAccount = createInitialAccountForUser(savedUser.getUserId());
-        createCofryCardForUser(savedUser, createdAccount);
-        createInitialBoletosForUser(savedUser.getUserId());
-        return convertToResponseDTO(savedUser);
+        UserResponseDTO response = JdbcUtil.executeInTransaction(conn -> {
+            User savedUser = userService.createUser(user);
+            OutboxJob provisioningJob = outboxJobDAO.enqueue(conn, OutboxWorker.JOB_USER_PROVISIONING,
+                    savedUser.getUserId().toString());
+            UserResponseDTO dto = convertToResponseDTO(savedUser);
+            dto.setProvisioningJobId(provisioningJob.getJobId());
+            dto.setProvisioningStatus(provisioningJob.getStatus());
+            return dto;
+        });
+        OutboxWorker.wakeUp();
+        return response;
+    }
+    /**
+     * Handler do job {@link OutboxWorker#JOB_USER_PROVISIONING}: cria a conta inicial, o cartão Cofry e os
+     * boletos iniciais do usuário. Roda na transação do job, então ou tudo é criado ou nada é, e o job é repetido.
+     * É idempotente: o que já existe para o usuário (conta, cartão, boletos) é reaproveitado em vez de criado
+     * de novo. A conta só é reaproveitada se for do próprio usuário: o número gerado usa só parte do UUID.
+     */
+    public void provisionUser(UUID userId) {
+        User user = userService.getUserById(userId);
+        Account account = accountService.findAccountByNumber(generateAccountNumber(userId))
+                .filter(existing -> userId.equals(existing.getUserId()))
+                .or(() -> accountService.findFirstActiveAccount(userId))
+                .orElseGet(() -> createInitialAccountForUser(userId));
+        if (!cardService.hasCards(userId)) {
+            createCofryCardForUser(user, account);
+        }
+        if (!boletoService.hasBoletos(userId)) {
+            createInitialBoletosForUser(userId);
+        }
     }
     private String[] splitFullName(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) {
@@ -130,59 +161,38 @@ public class UserFormService {
         User updatedUser = userService.updateUser(existingUser);
         return convertToResponseDTO(updatedUser);
     }
-    private Account createInitialAccountForUser(Integer userId) {
-        try {
-            Account initialAccount = new Account();
-            initialAccount.setUserId(userId);
-            initialAccount.setBankCode("999"); 
-            initialAccount.setBankName("Cofry");
-            initialAccount.setAccountNumber(generateAccountNumber(userId));
-            initialAccount.setAgencyNumber("0001");
-            initialAccount.setAccountType(AccountTypeEnum.CHECKING);
-            initialAccount.setBalance(new BigDecimal("20000.00")); 
-            initialAccount.setStatus("ACTIVE");
-            return accountService.createAccount(initialAccount);
-        } catch (Exception e) {
-            System.err.println("Erro ao criar conta inicial para usuário " + userId + ": " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+    private Account createInitialAccountForUser(UUID userId) {
+        Account initialAccount = new Account();
+        initialAccount.setUserId(userId);
+        initialAccount.setBankCode("999"); 
+        initialAccount.setBankName("Cofry");
+        initialAccount.setAccountNumber(generateAccountNumber(userId));
+        initialAccount.setAgencyNumber("0001");
+        initialAccount.setAccountType(AccountTypeEnum.CHECKING);
+        initialAccount.setBalance(new BigDecimal("20000.00")); 
+        initialAccount.setStatus("ACTIVE");
+        return accountService.createAccount(initialAccount);
     }
     private void createCofryCardForUser(User user, Account account) {
-        try {
-            if (account == null) {
-                System.err.println("Conta não encontrada para criar cartão. Tentando buscar...");
-                List<Account> accounts = accountService.getAccountsByUserId(user.getUserId());
-                if (accounts != null && !accounts.isEmpty()) {
-                    account = accounts.get(0);
-                } else {
-                    System.err.println("Nenhuma conta encontrada para usuário " + user.getUserId());
-                    return;
-                }
-            }
-            String cardNumber = generateVisaCardNumber();
-            String cvv = generateCVV();
-            LocalDate expiryDate = LocalDate.now().plusYears(4);
-            String cardHolderName = (user.getFirstName() + " " + user.getLastName()).toUpperCase().trim();
-            String maskedCardNumber = maskCardNumber(cardNumber);
-            Card cofryCard = new Card();
-            cofryCard.setUserId(user.getUserId());
-            cofryCard.setAccountId(account.getAccountId());
-            cofryCard.setCardNumber(maskedCardNumber); 
-            cofryCard.setCardHolderName(cardHolderName);
-            cofryCard.setExpiryDate(expiryDate);
-            cofryCard.setCvv(cvv);
-            cofryCard.setCardType(CardTypeEnum.CREDIT); 
-            cofryCard.setBrand("Visa");
-            cofryCard.setLimitAmount(new BigDecimal("10000.00")); 
-            cofryCard.setCurrentBalance(BigDecimal.ZERO);
-            cofryCard.setStatus("ACTIVE");
-            cardService.createCard(cofryCard);
-            System.out.println("Cartão Cofry criado com sucesso para usuário " + user.getUserId());
-        } catch (Exception e) {
-            System.err.println("Erro ao criar cartão Cofry para usuário " + user.getUserId() + ": " + e.getMessage());
-            e.printStackTrace();
-        }
+        String cardNumber = generateVisaCardNumber();
+        String cvv = generateCVV();
+        LocalDate expiryDate = LocalDate.now().plusYears(4);
+        String cardHolderName = (user.getFirstName() + " " + user.getLastName()).toUpperCase().trim();
+        String maskedCardNumber = maskCardNumber(cardNumber);
+        Card cofryCard = new Card();
+        cofryCard.setUserId(user.getUserId());
+        cofryCard.setAccountId(account.getAccountId());
+        cofryCard.setCardNumber(maskedCardNumber); 
+        cofryCard.setCardHolderName(cardHolderName);
+        cofryCard.setExpiryDate(expiryDate);
+        cofryCard.setCvv(cvv);
+        cofryCard.setCardType(CardTypeEnum.CREDIT); 
+        cofryCard.setBrand("Visa");
+        cofryCard.setLimitAmount(new BigDecimal("10000.00")); 
+        cofryCard.setCurrentBalance(BigDecimal.ZERO);
+        cofryCard.setStatus("ACTIVE");
+        cardService.createCard(cofryCard);
+        System.out.println("Cartão Cofry criado com sucesso para usuário " + user.getUserId());
     }
     private String generateVisaCardNumber() {
         StringBuilder cardNumber = new StringBuilder("4"); 
@@ -226,49 +236,40 @@ public class UserFormService {
         String lastFour = cleanNumber.substring(cleanNumber.length() - 4);
         return "**** **** **** " + lastFour;
     }
-    private String generateAccountNumber(Integer userId) {
-        return String.format("COF-%05d-1", userId);
+    private String generateAccountNumber(UUID userId) {
+        return "COF-" + userId.toString().substring(0, 8).toUpperCase() + "-1";
     }
-    private void createInitialBoletosForUser(Integer userId) {
-        try {
-            List<org.example.model.Boleto> existingBoletos = boletoService.listBoletos();
-            Set<String> existingOurNumbers = new HashSet<>();
-            for (org.example.model.Boleto b : existingBoletos) {
-                if (b.getOurNumber() != null) {
-                    existingOurNumbers.add(b.getOurNumber());
-                }
+    private void createInitialBoletosForUser(UUID userId) {
+        List<org.example.model.Boleto> existingBoletos = boletoService.listBoletos();
+        Set<String> existingOurNumbers = new HashSet<>();
+        for (org.example.model.Boleto b : existingBoletos) {
+            if (b.getOurNumber() != null) {
+                existingOurNumbers.add(b.getOurNumber());
             }
-            String[][] boletosData = {
-                {"Claro Residencial", "149.90", "001", "17", "30"},
-                {"Seguro Auto", "250.00", "341", "109", "45"},
-                {"Internet Fibra", "89.90", "033", "26", "15"},
-                {"Energia Elétrica", "180.50", "104", "109", "60"},
-                {"Plano de Saúde", "350.00", "001", "17", "75"}
-            };
-            for (int i = 0; i < boletosData.length; i++) {
-                String title = boletosData[i][0];
-                BigDecimal amount = new BigDecimal(boletosData[i][1]);
-                String bankCode = boletosData[i][2];
-                String walletCode = boletosData[i][3];
-                int daysToDue = Integer.parseInt(boletosData[i][4]);
-                LocalDate dueDate = LocalDate.now().plusDays(daysToDue);
-                String ourNumber = generateUniqueOurNumber(userId, i, existingOurNumbers);
-                existingOurNumbers.add(ourNumber);
-                try {
-                    boletoService.createBoleto(title, amount, dueDate, bankCode, walletCode, ourNumber, userId);
-                    System.out.println("Boleto criado com sucesso: " + title + " para usuário " + userId);
-                } catch (Exception e) {
-                    System.err.println("Erro ao criar boleto " + title + " para usuário " + userId + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Erro ao criar boletos iniciais para usuário " + userId + ": " + e.getMessage());
-            e.printStackTrace();
+        }
+        String[][] boletosData = {
+            {"Claro Residencial", "149.90", "001", "17", "30"},
+            {"Seguro Auto", "250.00", "341", "109", "45"},
+            {"Internet Fibra", "89.90", "033", "26", "15"},
+            {"Energia Elétrica", "180.50", "104", "109", "60"},
+            {"Plano de Saúde", "350.00", "001", "17", "75"}
+        };
+        for (int i = 0; i < boletosData.length; i++) {
+            String title = boletosData[i][0];
+            BigDecimal amount = new BigDecimal(boletosData[i][1]);
+            String bankCode = boletosData[i][2];
+            String walletCode = boletosData[i][3];
+            int daysToDue = Integer.parseInt(boletosData[i][4]);
+            LocalDate dueDate = LocalDate.now().plusDays(daysToDue);
+            String ourNumber = generateUniqueOurNumber(userId, i, existingOurNumbers);
+            existingOurNumbers.add(ourNumber);
+            boletoService.createBoleto(title, amount, dueDate, bankCode, walletCode, ourNumber, userId);
+            System.out.println("Boleto criado com sucesso: " + title + " para usuário " + userId);
         }
     }
-    private String generateUniqueOurNumber(Integer userId, int index, Set<String> existingOurNumbers) {
-        String baseOurNumber = String.format("%05d%02d%010d", userId, index, System.currentTimeMillis() % 10000000000L);
+    private String generateUniqueOurNumber(UUID userId, int index, Set<String> existingOurNumbers) {
+        String baseOurNumber = String.format("%05d%02d%010d", Math.floorMod(userId.hashCode(), 100000), index,
+                System.currentTimeMillis() % 10000000000L);
         if (baseOurNumber.length() > 23) {
             baseOurNumber = baseOurNumber.substring(0, 23);
         }
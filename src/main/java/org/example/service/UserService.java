@@ -5,9 +5,11 @@ import org.example.dto.UserCompleteDTO;
 import org.example.model.User;
 import org.example.model.SubscriptionPlan;
 import org.example.service.SubscriptionPlanService;
+import org.example.persistence.CatalogVersions;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 public class UserService {
     private final UserDAO userDAO;
@@ -38,11 +40,11 @@ public class UserService {
         return userDAO.save(user);
     }
     private Integer getOrCreateDefaultPlan() {
-        Optional<SubscriptionPlan> freePlan = planDAO.findByName("Cofry Start");
+        Optional<SubscriptionPlan> freePlan = ReferenceDataCache.findPlanByName("Cofry Start");
         if (freePlan.isPresent()) {
             return freePlan.get().getPlanId();
         }
-        Optional<SubscriptionPlan> defaultPlan = planDAO.findById(1);
+        Optional<SubscriptionPlan> defaultPlan = ReferenceDataCache.findPlan(1);
         if (defaultPlan.isPresent()) {
             return 1;
         }
@@ -51,6 +53,7 @@ public class UserService {
         newPlan.setPrice(BigDecimal.ZERO);
         newPlan.setDescription("Plano gratuito com funcionalidades básicas");
         SubscriptionPlan savedPlan = planDAO.save(newPlan);
+        CatalogVersions.bump(CatalogVersions.PLANS);
         return savedPlan.getPlanId();
     }
     public User getUserById(Integer id) {
@@ -60,6 +63,13 @@ public class UserService {
         return userDAO.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
     }
+    public User getUserById(UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID não pode ser nulo");
+        }
+        return userDAO.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
+    }
     public List<User> getAllUsers() {
         return userDAO.findAll();
     }
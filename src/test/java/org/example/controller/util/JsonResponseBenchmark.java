@@ -0,0 +1,127 @@
+package org.example.controller.util;
+import com.google.gson.Gson;
+import org.example.model.Transaction;
+import org.example.model.TransactionTypeEnum;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+/**
+ * Benchmark da escrita das respostas: compara o caminho antigo (JSON inteiro numa String e
+ * {@code getWriter().print}) com {@link JsonResponse#sendSuccess}, que serializa direto no stream, e mede tempo
+ * e bytes alocados por resposta. Roda na thread main, uma thread de plataforma: em virtual threads
+ * {@code getCurrentThreadAllocatedBytes()} devolve -1, por isso a alocação que o servidor publica em
+ * GET /api/monitoring/json só é medida com {@code SERVER_THREADS=platform}.
+ * <p>
+ * Roda com {@code make json-benchmark}, sem banco. Parâmetros por variável de ambiente: JSON_BENCH_ITEMS
+ * (transações por resposta, padrão 1000) e JSON_BENCH_ITERATIONS (padrão 200, mais o mesmo tanto de aquecimento).
+ */
+public class JsonResponseBenchmark {
+    private static final Gson gson = GsonConfig.createGson();
+    private static final com.sun.management.ThreadMXBean threads = JsonResponse.allocationMeter();
+    public static void main(String[] args) throws IOException {
+        if (threads == null) {
+            System.err.println("A JVM não mede alocação por thread");
+            System.exit(2);
+        }
+        int items = Integer.parseInt(System.getenv().getOrDefault("JSON_BENCH_ITEMS", "1000"));
+        int iterations = Integer.parseInt(System.getenv().getOrDefault("JSON_BENCH_ITERATIONS", "200"));
+        List<Transaction> transactions = sampleTransactions(items);
+        System.out.println(items + " transações por resposta, " + iterations + " iterações");
+        measure("String + getWriter()", iterations, () -> sendAsString(newResponse(), transactions));
+        measure("JsonResponse.sendSuccess", iterations, () -> JsonResponse.sendSuccess(newResponse(), transactions));
+    }
+    /**
+     * O caminho anterior de {@code JsonResponse.sendSuccess}, mantido aqui só para comparação.
+     */
+    private static void sendAsString(HttpServletResponse response, Object data) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        PrintWriter out = response.getWriter();
+        out.print(gson.toJson(data));
+        out.flush();
+    }
+    private static void measure(String label, int iterations, Operation operation) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.println(String.format("%-26s %10.1f µs/resposta %14d bytes alocados/resposta",
+                label, elapsed / 1000.0 / iterations, allocated / iterations));
+    }
+    private static List<Transaction> sampleTransactions(int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        UUID source = UUID.randomUUID();
+        UUID destination = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(UUID.randomUUID());
+            transaction.setSourceAccountId(source);
+            transaction.setDestinationAccountId(destination);
+            transaction.setCategoryId(1 + i % 10);
+            transaction.setAmount(BigDecimal.valueOf(1000 + i, 2));
+            transaction.setTransactionType(TransactionTypeEnum.values()[i % TransactionTypeEnum.values().length]);
+            transaction.setDescription("Transação de teste " + i);
+            transaction.setTransactionDate(LocalDate.now().minusDays(i % 365));
+            transaction.setIsRecurring(i % 7 == 0);
+            transaction.setCreatedAt(now.minusMinutes(i));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+    /**
+     * Resposta que descarta os bytes escritos; só os métodos usados por {@link JsonResponse} fazem algo.
+     */
+    private static HttpServletResponse newResponse() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return out;
+                        case "getWriter":
+                            return writer;
+                        default:
+                            Class<?> type = method.getReturnType();
+                            return type == boolean.class ? Boolean.FALSE : type == int.class ? 0 : null;
+                    }
+                });
+    }
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.controller.util;
+import com.google.gson.Gson;
+import org.example.dto.PixRequestDTO;
+import org.example.model.Transaction;
+import org.example.model.TransactionTypeEnum;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+/**
+ * Benchmark da leitura dos corpos: compara o caminho antigo ({@code getReader().readLine()} numa String e só
+ * depois o Gson) com {@link RequestParser#parseJson} e {@link RequestParser#getRequestBody}, que leem direto do
+ * stream, e mede tempo e bytes alocados por corpo. Roda na thread main, uma thread de plataforma: em virtual
+ * threads {@code getCurrentThreadAllocatedBytes()} devolve -1, por isso a alocação que o servidor publica em
+ * GET /api/monitoring/requests só é medida com {@code SERVER_THREADS=platform}.
+ * <p>
+ * Roda com {@code make request-benchmark}, sem banco. Mede um PIX (corpo pequeno, o caso comum) e uma lista de
+ * transações (corpo grande). Parâmetros por variável de ambiente: REQUEST_BENCH_ITEMS (transações no corpo
+ * grande, padrão 1000) e REQUEST_BENCH_ITERATIONS (padrão 200, mais o mesmo tanto de aquecimento).
+ */
+public class RequestParserBenchmark {
+    private static final Gson gson = GsonConfig.createGson();
+    private static final com.sun.management.ThreadMXBean threads = JsonResponse.allocationMeter();
+    public static void main(String[] args) throws IOException {
+        if (threads == null) {
+            System.err.println("A JVM não mede alocação por thread");
+            System.exit(2);
+        }
+        int items = Integer.parseInt(System.getenv().getOrDefault("REQUEST_BENCH_ITEMS", "1000"));
+        int iterations = Integer.parseInt(System.getenv().getOrDefault("REQUEST_BENCH_ITERATIONS", "200"));
+        byte[] pix = gson.toJson(samplePix()).getBytes(StandardCharsets.UTF_8);
+        byte[] transactions = gson.toJson(sampleTransactions(items)).getBytes(StandardCharsets.UTF_8);
+        System.out.println("PIX: " + pix.length + " bytes, " + iterations + " iterações");
+        measure("readLine + fromJson(String)", iterations,
+                () -> parseAsString(newRequest(pix), PixRequestDTO.class));
+        measure("RequestParser.parseJson", iterations,
+                () -> RequestParser.parseJson(newRequest(pix), PixRequestDTO.class));
+        System.out.println(items + " transações: " + transactions.length + " bytes, " + iterations + " iterações");
+        measure("readLine + fromJson(String)", iterations,
+                () -> parseAsString(newRequest(transactions), Transaction[].class));
+        measure("RequestParser.parseJson", iterations,
+                () -> RequestParser.parseJson(newRequest(transactions), Transaction[].class));
+        measure("readLine", iterations, () -> readAsString(newRequest(transactions)));
+        measure("RequestParser.getRequestBody", iterations,
+                () -> RequestParser.getRequestBody(newRequest(transactions)));
+    }
+    /**
+     * Os caminhos anteriores de {@code RequestParser.parseJson} e {@code getRequestBody}, mantidos aqui só para
+     * comparação.
+     */
+    private static <T> T parseAsString(HttpServletRequest request, Class<T> clazz) throws IOException {
+        return gson.fromJson(readAsString(request), clazz);
+    }
+    private static String readAsString(HttpServletRequest request) throws IOException {
+        StringBuilder json = new StringBuilder();
+        try (BufferedReader reader = request.getReader()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                json.append(line);
+            }
+        }
+        return json.toString();
+    }
+    private static void measure(String label, int iterations, Operation operation) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.println(String.format("  %-30s %10.1f µs/corpo %14d bytes alocados/corpo",
+                label, elapsed / 1000.0 / iterations, allocated / iterations));
+    }
+    private static PixRequestDTO samplePix() {
+        PixRequestDTO pix = new PixRequestDTO();
+        pix.setSourceAccountId(UUID.randomUUID());
+        pix.setDestinationAccountId(UUID.randomUUID());
+        pix.setAmount("150.75");
+        pix.setDescription("Aluguel");
+        return pix;
+    }
+    private static Transaction[] sampleTransactions(int count) {
+        Transaction[] transactions = new Transaction[count];
+        UUID source = UUID.randomUUID();
+        UUID destination = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(UUID.randomUUID());
+            transaction.setSourceAccountId(source);
+            transaction.setDestinationAccountId(destination);
+            transaction.setCategoryId(1 + i % 10);
+            transaction.setAmount(BigDecimal.valueOf(1000 + i, 2));
+            transaction.setTransactionType(TransactionTypeEnum.values()[i % TransactionTypeEnum.values().length]);
+            transaction.setDescription("Transação de teste " + i);
+            transaction.setTransactionDate(LocalDate.now().minusDays(i % 365));
+            transaction.setIsRecurring(i % 7 == 0);
+            transaction.setCreatedAt(now.minusMinutes(i));
+            transactions[i] = transaction;
+        }
+        return transactions;
+    }
+    /**
+     * Requisição com o corpo dado e Content-Length; só os métodos usados por {@link RequestParser} fazem algo.
+     */
+    private static HttpServletRequest newRequest(byte[] body) {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(body);
+        ServletInputStream in = new ServletInputStream() {
+            @Override
+            public int read() {
+                return bytes.read();
+            }
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return bytes.read(b, off, len);
+            }
+            @Override
+            public boolean isFinished() {
+                return bytes.available() == 0;
+            }
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+            @Override
+            public void setReadListener(ReadListener readListener) {
+            }
+        };
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getInputStream":
+                            return in;
+                        case "getReader":
+                            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                        case "getContentLength":
+                            return body.length;
+                        case "getContentLengthLong":
+                            return (long) body.length;
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        default:
+                            Class<?> type = method.getReturnType();
+                            return type == boolean.class ? Boolean.FALSE : type == int.class ? 0 : null;
+                    }
+                });
+    }
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws IOException;
+    }
+}
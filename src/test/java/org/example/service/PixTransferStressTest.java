@@ -0,0 +1,171 @@
+package org.example.service;
+import org.example.dto.PixRequestDTO;
+import org.example.dto.PixResponseDTO;
+import org.example.persistence.ConnectionFactory;
+import org.example.persistence.JdbcUtil;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Teste de estresse das transferências PIX: várias threads transferem ao mesmo tempo entre poucas contas
+ * "quentes", nos dois sentidos, e no fim o saldo de cada conta precisa bater com as transferências
+ * confirmadas e a soma dos saldos precisa ser a mesma do início. Nenhum deadlock (40P01) ou falha de
+ * serialização (40001) pode escapar do retry de {@link JdbcUtil#executeInTransactionWithRetry}.
+ * <p>
+ * Roda contra o banco configurado em DATABASE_URL/DB_USER/DB_PASSWORD (use um banco de teste: cada
+ * transferência grava lançamentos de verdade) com {@code make pix-stress}. Parâmetros por variável de ambiente:
+ * PIX_STRESS_ACCOUNT_IDS (obrigatório, duas ou mais contas ACTIVE com saldo, separadas por vírgula),
+ * PIX_STRESS_THREADS (padrão 32) e PIX_STRESS_TRANSFERS_PER_THREAD (padrão 200). Sai com código 1 se
+ * alguma verificação falhar.
+ */
+public class PixTransferStressTest {
+    public static void main(String[] args) throws Exception {
+        String ids = System.getenv("PIX_STRESS_ACCOUNT_IDS");
+        if (ids == null || ids.trim().isEmpty()) {
+            System.err.println("Informe PIX_STRESS_ACCOUNT_IDS com duas ou mais contas separadas por vírgula");
+            System.exit(2);
+        }
+        List<UUID> accounts = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            accounts.add(UUID.fromString(id.trim()));
+        }
+        if (accounts.size() < 2) {
+            System.err.println("São necessárias pelo menos duas contas");
+            System.exit(2);
+        }
+        int threads = Integer.parseInt(System.getenv().getOrDefault("PIX_STRESS_THREADS", "32"));
+        int transfersPerThread = Integer.parseInt(
+                System.getenv().getOrDefault("PIX_STRESS_TRANSFERS_PER_THREAD", "200"));
+        boolean passed;
+        try {
+            passed = run(accounts, threads, transfersPerThread);
+        } finally {
+            ConnectionFactory.shutdown();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+    static boolean run(List<UUID> accounts, int threads, int transfersPerThread) throws InterruptedException {
+        PixService pixService = new PixService();
+        Map<UUID, BigDecimal> before = readBalances(accounts);
+        if (before.size() != accounts.size()) {
+            System.err.println("Contas não encontradas: " + accounts.size() + " informadas, " + before.size() + " lidas");
+            return false;
+        }
+        Map<UUID, BigDecimal> expectedDeltas = new ConcurrentHashMap<>();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong insufficient = new AtomicLong();
+        AtomicLong escapedConflicts = new AtomicLong();
+        List<Throwable> failures = new ArrayList<>();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    // Threads pares e ímpares percorrem os pares em sentidos opostos, forçando A→B contra B→A
+                    int first = random.nextInt(accounts.size());
+                    int second = (first + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+                    UUID source = accounts.get(thread % 2 == 0 ? Math.min(first, second) : Math.max(first, second));
+                    UUID destination = accounts.get(thread % 2 == 0 ? Math.max(first, second) : Math.min(first, second));
+                    BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(500), 2);
+                    PixRequestDTO request = new PixRequestDTO();
+                    request.setSourceAccountId(source);
+                    request.setDestinationAccountId(destination);
+                    request.setAmount(amount.toPlainString());
+                    request.setDescription("Teste de estresse PIX");
+                    try {
+                        PixResponseDTO response = pixService.processPixTransfer(request);
+                        expectedDeltas.merge(response.getSourceAccountId(), amount.negate(), BigDecimal::add);
+                        expectedDeltas.merge(response.getDestinationAccountId(), amount, BigDecimal::add);
+                        succeeded.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        if (e.getMessage() == null || !e.getMessage().startsWith("Saldo insuficiente")) {
+                            synchronized (failures) {
+                                failures.add(e);
+                            }
+                        } else {
+                            insufficient.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        if (JdbcUtil.isRetryable(e)) {
+                            escapedConflicts.incrementAndGet();
+                        }
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.MINUTES)) {
+            System.err.println("Transferências não terminaram em 30 minutos");
+            executor.shutdownNow();
+            return false;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Map<UUID, BigDecimal> after = readBalances(accounts);
+        boolean passed = true;
+        BigDecimal totalBefore = BigDecimal.ZERO;
+        BigDecimal totalAfter = BigDecimal.ZERO;
+        for (UUID account : accounts) {
+            BigDecimal expected = before.get(account).add(expectedDeltas.getOrDefault(account, BigDecimal.ZERO));
+            if (expected.compareTo(after.get(account)) != 0) {
+                System.err.println("Saldo divergente na conta " + account + ": esperado " + expected
+                        + ", encontrado " + after.get(account));
+                passed = false;
+            }
+            if (after.get(account).signum() < 0) {
+                System.err.println("Saldo negativo na conta " + account + ": " + after.get(account));
+                passed = false;
+            }
+            totalBefore = totalBefore.add(before.get(account));
+            totalAfter = totalAfter.add(after.get(account));
+        }
+        if (totalBefore.compareTo(totalAfter) != 0) {
+            System.err.println("Soma dos saldos mudou: antes " + totalBefore + ", depois " + totalAfter);
+            passed = false;
+        }
+        if (escapedConflicts.get() > 0) {
+            System.err.println(escapedConflicts.get() + " deadlock(s)/falha(s) de serialização escaparam do retry");
+            passed = false;
+        }
+        if (!failures.isEmpty()) {
+            System.err.println(failures.size() + " transferência(s) falharam com erro inesperado; primeiro erro:");
+            failures.get(0).printStackTrace();
+            passed = false;
+        }
+        System.out.println(String.format("%d threads x %d transferências em %d ms: %d confirmadas, %d com saldo "
+                        + "insuficiente, %d erros. Soma dos saldos: %s -> %s. %s",
+                threads, transfersPerThread, elapsedMs, succeeded.get(), insufficient.get(), failures.size(),
+                totalBefore, totalAfter, passed ? "OK" : "FALHOU"));
+        return passed;
+    }
+    private static Map<UUID, BigDecimal> readBalances(List<UUID> accounts) {
+        return JdbcUtil.executeWithoutTransaction(conn -> {
+            Map<UUID, BigDecimal> balances = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT account_id, balance FROM accounts WHERE account_id = ANY (?)")) {
+                stmt.setArray(1, conn.createArrayOf("uuid", accounts.toArray()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        balances.put(rs.getObject(1, UUID.class), rs.getBigDecimal(2));
+                    }
+                }
+            }
+            return balances;
+        });
+    }
+}